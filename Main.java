@@ -1,38 +1,158 @@
 import project.Population;
 import project.Algorithms;
 import project.NEH;
+import project.BranchAndBound;
+import project.IteratedGreedy;
+import project.Campaign;
+import project.Coordinator;
+import project.TaillardCache;
+import project.Instance;
+import project.Result;
+import project.ResultSink;
+import project.Summary;
+import project.ResultStore;
+import project.Checkpoint;
+import project.VectorStore;
+import project.FloatAlgorithms;
+import project.Problem;
+import project.Optimizer;
+import project.Portfolio;
+import project.Improvement;
+import project.EvaluationCache;
+import project.ExternalObjective;
+import project.ExpressionObjective;
+import project.Initialization;
+import project.DifferentialEvolution;
+import project.Objective;
+import project.Makespan;
+import project.WavefrontMakespan;
+import project.RandomKeySchedule;
+import mt.MTRandom;
 
 import java.util.*;
 import java.io.*;
-import java.util.stream.LongStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class Main {
 
+    // Directory of the scheduling input files
+    private static final String TAILLARD = "./project/Taillard_TestData";
+
+    // Number of worker processes, 0 runs everything in this JVM
+    private static int workers = 0;
+
+    // Runs computed by earlier campaigns, used when the store system property names a directory
+    private static ResultStore store = null;
+
+    // Write one summary row per experiment line instead of every fitness value
+    private static final boolean SUMMARY = Boolean.getBoolean("summary");
+
+    // Runs held in memory at once by an experiment line
+    private static final int BLOCK = 1024;
+
+    // Per-run results, written when the results system property names a file
+    private static ResultSink sink = null;
+
+    // Results of the shard a worker is running, sent to the coordinator with its row, null when the
+    // coordinator does not want them
+    private static List<Result> shardResults = null;
+
+    // Directory of the checkpoints of DE and PSO runs, null to run without them
+    private static final String CHECKPOINTS = System.getProperty("checkpoint");
+
+    // Keep populations and solution vectors off the heap, in direct memory or in files in a directory
+    private static final boolean OFF_HEAP = Boolean.getBoolean("population.offheap");
+    private static final String POPULATIONS = System.getProperty("population.dir");
+
+    // Megabytes of the evaluation cache shared by the runs of an experiment line, 0 to run without one
+    private static final long CACHE_MB = Long.getLong("cache.mb", 0);
+
+    // Program computing the objective in child processes instead of the problem type, null to run without one
+    private static final String OBJECTIVE = System.getProperty("objective.command");
+    private static final int OBJECTIVE_PROCESSES = Integer.getInteger("objective.processes",
+            Runtime.getRuntime().availableProcessors());
+
     public static void main(String[] args) {
+        /**
+         * Valid arguments: "--worker" to run shards sent by a coordinator,
+         * "--coordinator N" to shard the campaign over N worker processes.
+         */
+        // Problem types defined by the formulas of a problems file, workers need them too
+        String problems = System.getProperty("problems");
+        if (problems != null) {
+            ExpressionObjective.load(Paths.get(problems));
+        }
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--worker":
+                    workerLoop();
+                    return;
+                case "--coordinator":
+                    workers = Integer.parseInt(args[++i]);
+                    break;
+            }
+        }
+
         Scanner sc = new Scanner(System.in);
-        System.out.println("Types of functions: minimization or scheduling.");
+        System.out.println("Types of functions: minimization, scheduling, exact, accuracy, portfolio, formula, "
+                + "initialization, wavefront or randomkey.");
         String type = "";
 
         /**
-         * Valid inputs: "minimization", "scheduling".
+         * Valid inputs: "minimization", "scheduling", "exact", "accuracy",
+         * "portfolio", "formula", "initialization", "wavefront", "randomkey".
          */
-        while (!type.equals("minimization") && !type.equals("scheduling")) {
+        while (!type.equals("minimization") && !type.equals("scheduling") && !type.equals("exact")
+                && !type.equals("accuracy") && !type.equals("portfolio") && !type.equals("formula")
+                && !type.equals("initialization") && !type.equals("wavefront") && !type.equals("randomkey")) {
             System.out.print("Enter the wanted optimization functions type: ");
             type = sc.nextLine();
         }
 
-        int function = type == "minimization" ? 0 : 1;
-
         /**
          * Choose the algorithm type to use.
-         * 0: minimization algorithms
-         * 1: scheduling algorithms
+         * minimization: minimization algorithms
+         * scheduling: scheduling algorithms
+         * exact: exact scheduling on the five machine instances
+         * accuracy: single against double precision minimization
+         * portfolio: all minimization algorithms at once on every input line
+         * formula: compiled formulas against the built-in functions
+         * initialization: evaluations to a target from each starting population
+         * wavefront: serial against wavefront makespans of large instances
+         * randomkey: random-key DE seeded with NEH on the scheduling input files
          */
-        switch (function) {
-            case 0:
+        switch (type) {
+            case "minimization":
                 minimizeDriver();
-            case 1:
+                break;
+            case "scheduling":
                 scheduleDriver();
+                break;
+            case "exact":
+                exactDriver();
+                break;
+            case "accuracy":
+                accuracyDriver();
+                break;
+            case "portfolio":
+                portfolioDriver();
+                break;
+            case "formula":
+                formulaDriver();
+                break;
+            case "initialization":
+                initializationDriver();
+                break;
+            case "wavefront":
+                wavefrontDriver();
+                break;
+            case "randomkey":
+                randomKeyDriver();
+                break;
         }
 
         sc.close();
@@ -56,12 +176,20 @@ public class Main {
             // Reads line from input file
             String line = br.readLine();
 
-            // Main loop for conducting experiments
-            fileLoop(line, br, bw);
+            // Main loop for conducting experiments, with workers only the coordinator writes to the store
+            sink = openSink();
+            store = openStore(false);
+            if (workers > 0) {
+                shardLoop(line, br, bw);
+            } else {
+                fileLoop(line, br, bw);
+            }
+            closeStore();
 
             // Close input and output files when done
             bw.close();
             br.close();
+            closeSink();
 
         } catch (IOException e) {
 
@@ -77,35 +205,218 @@ public class Main {
         try {
             // Reading from the input file and creating the output file
             BufferedWriter bw = makeOutFile();
+
+            // One shard per algorithm and input file
+            String[] rows = null;
+            List<ForkJoinTask<String>> tasks = null;
+            ForkJoinPool pool = null;
+            sink = openSink();
+            if (workers > 0) {
+                List<String> shards = new ArrayList<String>();
+                for (int a = 0; a < 2; a++) {
+                    for (int i = 1; i <= 120; i++) {
+                        shards.add("S " + a + " " + i);
+                    }
+                }
+                rows = coordinator().run(shards);
+            } else {
+                // Parse every input file once, then solve both algorithms on all of them at once
+                pool = Campaign.pool();
+                tasks = scheduleTasks(new TaillardCache(TAILLARD, 1, 120), pool);
+            }
+
             // Loop for each algorithm (FSS and FSSB)
             for (int a = 0; a < 2; a++) {
                 // Writing the header of the output file
                 bw.write("Machines" + "," + "Jobs" + "," + "Makespan" + "," + "Time" + "," + "Results("
                         + (a == 0 ? "FSS" : "FSSB") + ")\n");
-                // Loop to process all the input files
+
+                // Write the rows in input order as they finish
+                for (int i = 0; i < 120; i++) {
+                    bw.write(rows != null ? rows[a * 120 + i] + "\n" : tasks.get(a * 120 + i).join());
+                }
+            }
+            if (pool != null) {
+                pool.shutdown();
+            }
+            closeSink();
+            bw.close();
+        } catch (IOException e) {
+            // If there is an error, print it
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Driver for the exact scheduling solver. Solves the five machine instances
+     * with branch and bound so the heuristics can be compared to the optima.
+     */
+    public static void exactDriver() {
+        try {
+            BufferedWriter bw = makeOutFile();
+            // Loop for each algorithm (FSS and FSSB)
+            for (int a = 0; a < 2; a++) {
+                // Writing the header of the output file
+                bw.write("Machines" + "," + "Jobs" + "," + "NEH" + "," + "Makespan" + "," + "LowerBound" + ","
+                        + "Optimal" + "," + "Nodes" + "," + "Nodes/s" + "," + "Time" + "," + "Results("
+                        + (a == 0 ? "FSS" : "FSSB") + ")\n");
                 for (int i = 1; i <= 120; i++) {
-                    ArrayList<String> lines = readLines(i);
+                    int[][] times = readTimes(i);
+                    int m = times.length;
+                    int n = times[0].length;
+                    if (m != 5) {
+                        continue;
+                    }
 
-                    // Getting the number of machines and jobs from the first line
-                    String[] parts = lines.get(0).split(" ");
+                    // NEH upper bound, tightened by a short Iterated Greedy run
+                    BranchAndBound bnb = new BranchAndBound(times, m, n, a);
+                    int neh = bnb.upperBound;
+                    IteratedGreedy ig = new IteratedGreedy(times, m, n, a, i);
+                    ig.run(0, 1000000000L);
+                    bnb.seed(ig.schedule);
 
-                    // Number of machines
-                    int m = Integer.parseInt(parts[0]);
+                    // Search for at most a minute per instance
+                    bnb.solve(60000000000L, 0);
+                    System.out.println(i + ": " + bnb.makespan + (bnb.optimal ? " optimal" : ""));
 
-                    // Number of jobs
-                    int n = Integer.parseInt(parts[1]);
+                    bw.write(m + "," + n + "," + neh + "," + bnb.makespan + "," + bnb.lowerBound + ","
+                            + bnb.optimal + "," + bnb.nodes + "," + bnb.getNodesPerSecond() + ","
+                            + (double) bnb.time / 1000000 + ",");
+                    for (int j = 0; j < n; j++) {
+                        bw.write(bnb.schedule[j] + 1 + ",");
+                    }
+                    bw.write("\n");
+                }
+            }
+            bw.close();
+        } catch (IOException e) {
+            // If there is an error, print it
+            e.printStackTrace();
+        }
+    }
 
-                    // Creating the processing times matrix
-                    int[][] times = new int[m][n];
-                    for (int j = 1; j < lines.size(); j++) {
-                        String[] lineParts = lines.get(j).split(" ");
-                        for (int k = 0; k < n; k++) {
-                            times[j - 1][k] = Integer.parseInt(lineParts[k]);
-                        }
+    /**
+     * Driver for random-key DE on the scheduling input files. Every vector of
+     * the population is decoded into a job order by sorting its keys, and part
+     * of the population starts from the NEH schedule, so DE never ends worse
+     * than NEH. The population size, generations and number of NEH vectors are
+     * read from the randomkey.population (default 50), randomkey.generations
+     * (default 100) and randomkey.seeded (default 5) system properties.
+     */
+    public static void randomKeyDriver() {
+        int np = Integer.getInteger("randomkey.population", 50);
+        long generations = Long.getLong("randomkey.generations", 100);
+        int seeded = Integer.getInteger("randomkey.seeded", 5);
+        TaillardCache cache = new TaillardCache(TAILLARD, 1, 120);
+
+        try {
+            BufferedWriter bw = makeOutFile();
+            for (int a = 0; a < 2; a++) {
+                int alg = a;
+                bw.write("Machines,Jobs,NEH,Makespan,Evaluations,Time,Results(" + (a == 0 ? "FSS" : "FSSB") + ")\n");
+
+                // Every input file runs on its own, the rows are written in input order
+                String[] rows = new String[120];
+                Campaign.forEach(120, k -> {
+                    int i = k + 1;
+                    int m = cache.getMachines(i);
+                    int n = cache.getJobs(i);
+                    long seed = Campaign.seed(Campaign.seed(), "randomkey " + alg + " " + i);
+                    long time = System.nanoTime();
+                    RandomKeySchedule schedule = new RandomKeySchedule(cache.getTimes(i), m, n, alg);
+                    Population pop = new Population(np, n, 1.0, seed);
+                    schedule.seed(pop, seeded, new MTRandom(Campaign.seed(seed, "seeding")));
+                    Algorithms de = new Algorithms(pop, schedule, 2, 2, Campaign.seed(seed, "DE"), generations);
+                    time = System.nanoTime() - time;
+
+                    double[] neh = new double[n];
+                    schedule.encode(schedule.getNEH(), 1.0, neh);
+                    StringBuilder row = new StringBuilder();
+                    row.append(m).append(',').append(n).append(',').append((int) schedule.evaluate(neh)).append(',')
+                            .append((int) de.getFitness()).append(',').append(de.getEvaluations()).append(',')
+                            .append((double) time / 1000000).append(',');
+                    for (int job : schedule.getSchedule(de.getSolution())) {
+                        row.append(job + 1).append(',');
                     }
+                    rows[k] = row.append('\n').toString();
+                    System.out.println((alg == 0 ? "FSS " : "FSSB ") + i + ": NEH " + (int) schedule.evaluate(neh)
+                            + ", random-key DE " + (int) de.getFitness());
+                });
+                for (String row : rows) {
+                    bw.write(row);
+                }
+            }
+            bw.close();
+        } catch (IOException e) {
+            // If there is an error, print it
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Driver for the single precision accuracy report. Runs DE and PSO on all ten
+     * problems in double and in single precision from the same populations and
+     * seeds, and writes how far apart the final fitness values are. MaxEvalError
+     * compares the single precision fitness of the final vectors with their
+     * double precision fitness. The number of runs per problem is read from the
+     * accuracy.runs system property (default 10).
+     */
+    public static void accuracyDriver() {
+        // Dimensions, population size and the usual range of each problem
+        int m = 30;
+        int n = 50;
+        double[] ranges = { 512, 100, 100, 30, 500, 30, 30, 32, 32, 500 };
+        int runs = Integer.getInteger("accuracy.runs", 10);
+
+        try {
+            BufferedWriter bw = makeOutFile();
+            bw.write("Algorithm,Problem,Dimension,Runs,Mean64,Mean32,MeanAbsDiff,MaxRelDiff,MaxEvalError,Time64,"
+                    + "Time32\n");
+            for (int a = 1; a <= 2; a++) {
+                for (int p = 1; p <= 10; p++) {
+                    int algorithm = a;
+                    int problem = p;
+                    long seed = Campaign.seed(Campaign.seed(), "accuracy " + a + " " + p);
+                    Population pop = new Population(n, m, ranges[p - 1], seed);
+                    double[] f64 = new double[runs];
+                    double[] f32 = new double[runs];
+                    double[] evalError = new double[runs];
+                    long[] t64 = new long[runs];
+                    long[] t32 = new long[runs];
 
-                    // Run experiment for given inputs
-                    scheduleLoop(times, m, n, a, bw);
+                    Campaign.forEach(runs, i -> {
+                        long runSeed = Campaign.seed(seed, i);
+                        long start = System.nanoTime();
+                        Algorithms alg = new Algorithms(algorithm, new Population(pop, runSeed), problem, 1, 1, i,
+                                runSeed);
+                        f64[i] = alg.getFitness();
+                        t64[i] = System.nanoTime() - start;
+
+                        start = System.nanoTime();
+                        FloatAlgorithms falg = new FloatAlgorithms(algorithm, new Population(pop, runSeed), problem,
+                                1, 1, i, runSeed);
+                        f32[i] = falg.getFitness();
+                        t32[i] = System.nanoTime() - start;
+
+                        double exact = new Problem(falg.getSolution(), problem).getFitness();
+                        evalError[i] = Math.abs(f32[i] - exact) / Math.max(1, Math.abs(exact));
+                    });
+
+                    double mean64 = 0, mean32 = 0, absDiff = 0, relDiff = 0, maxEval = 0;
+                    long time64 = 0, time32 = 0;
+                    for (int i = 0; i < runs; i++) {
+                        mean64 += f64[i] / runs;
+                        mean32 += f32[i] / runs;
+                        absDiff += Math.abs(f32[i] - f64[i]) / runs;
+                        relDiff = Math.max(relDiff, Math.abs(f32[i] - f64[i]) / Math.max(1, Math.abs(f64[i])));
+                        maxEval = Math.max(maxEval, evalError[i]);
+                        time64 += t64[i];
+                        time32 += t32[i];
+                    }
+                    System.out.println((a == 1 ? "DE" : "PSO") + " problem " + p + ": " + relDiff);
+                    bw.write((a == 1 ? "DE/Best/1exp" : "PSO") + "," + p + "," + m + "," + runs + "," + mean64 + ","
+                            + mean32 + "," + absDiff + "," + relDiff + "," + maxEval + ","
+                            + (double) time64 / 1000000 + "," + (double) time32 / 1000000 + "\n");
                 }
             }
             bw.close();
@@ -116,33 +427,273 @@ public class Main {
     }
 
     /**
-     * Runs the minimization experiments for the given line
-     * 
-     * @param line - line from input file
-     * @param br   - BufferedReader for input file
-     * @param bw   - BufferedWriter for output file
-     * @exception IOException - if there is an error with the input or output files
+     * Driver for the formula benchmark. Compiles the formulas of Rastrigin,
+     * Rosenbrock and Griewank and evaluates them and the built-in functions on
+     * the same random vectors, then writes the largest relative difference of
+     * their values and the time per evaluation of each. The dimension is read
+     * from the formula.dimension system property (default 100).
      */
-    public static void fileLoop(String line, BufferedReader br, BufferedWriter bw) {
+    public static void formulaDriver() {
+        int[] problems = { 4, 3, 5 };
+        String[] formulas = { "10*n + sum(i, 0, n-1, x[i]^2 - 10*cos(2*pi*x[i]))",
+                "sum(i, 0, n-2, 100*(x[i]^2 - x[i+1])^2 + (1 - x[i])^2)",
+                "sum(i, 0, n-1, x[i]^2)/4000 - prod(i, 0, n-1, cos(x[i]/sqrt(i+1))) + 1" };
+        int m = Integer.getInteger("formula.dimension", 100);
+        int vectors = 1000;
+
         try {
-            // Loop until end of input file
-            while (line != null) {
+            long start = System.nanoTime();
+            List<Objective> compiled = ExpressionObjective.compile(Arrays.asList(formulas));
+            System.out.println("Compiled " + formulas.length + " formulas in "
+                    + (System.nanoTime() - start) / 1000000 + " milliseconds");
 
-                // Get experiment parameters
-                String[] parts = line.split(" ");
+            BufferedWriter bw = makeOutFile();
+            bw.write("Problem,Dimension,Vectors,MaxRelDiff,BuiltInNs,CompiledNs\n");
+            for (int p = 0; p < problems.length; p++) {
+                Population pop = new Population(vectors, m, 5.12, Campaign.seed(Campaign.seed(), "formula " + p));
+                double[][] x = new double[vectors][];
+                for (int i = 0; i < vectors; i++) {
+                    x[i] = pop.getVector(i).clone();
+                }
+                Objective builtIn = Problem.objective(problems[p]);
+                double relDiff = 0;
+                for (int i = 0; i < vectors; i++) {
+                    double a = builtIn.evaluate(x[i]);
+                    double b = compiled.get(p).evaluate(x[i]);
+                    relDiff = Math.max(relDiff, Math.abs(a - b) / Math.max(1, Math.abs(a)));
+                }
+
+                // Alternate the two after warming them up, the fastest round of each counts
+                long builtInNs = Long.MAX_VALUE, compiledNs = Long.MAX_VALUE;
+                for (int round = 0; round < 20; round++) {
+                    long t1 = timeEvaluations(builtIn, x);
+                    long t2 = timeEvaluations(compiled.get(p), x);
+                    if (round >= 10) {
+                        builtInNs = Math.min(builtInNs, t1 / vectors);
+                        compiledNs = Math.min(compiledNs, t2 / vectors);
+                    }
+                }
+                System.out.println("Problem " + problems[p] + ": max relative difference " + relDiff + ", built-in "
+                        + builtInNs + " ns, compiled " + compiledNs + " ns per evaluation");
+                bw.write(problems[p] + "," + m + "," + vectors + "," + relDiff + "," + builtInNs + "," + compiledNs
+                        + "\n");
+            }
+            bw.close();
+        } catch (IOException e) {
+            // If there is an error, print it
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Evaluates vectors ten times
+     *
+     * @param objective - the objective
+     * @param x         - the vectors
+     * @return - nanoseconds of the ten evaluations of all vectors, divided by ten
+     */
+    private static long timeEvaluations(Objective objective, double[][] x) {
+        double sink = 0;
+        long start = System.nanoTime();
+        for (int r = 0; r < 10; r++) {
+            for (double[] v : x) {
+                sink += objective.evaluate(v);
+            }
+        }
+        long time = (System.nanoTime() - start) / 10;
+
+        // Use the values so the evaluations are not optimized away
+        return Double.isNaN(sink) ? time + 1 : time;
+    }
+
+    /**
+     * Driver for the wavefront makespan benchmark. Times the serial FSS kernel
+     * and the wavefront evaluator on random orders of synthetic instances above
+     * the wavefront threshold, and writes the fastest time of each and their
+     * ratio. The wavefront runs on the campaign pool, and the number of
+     * repetitions is read from the wavefront.reps system property (default 10).
+     */
+    public static void wavefrontDriver() {
+        int[][] sizes = { { 20, 100000 }, { 100, 20000 }, { 200, 10000 }, { 500, 4000 } };
+        int reps = Integer.getInteger("wavefront.reps", 10);
+        ForkJoinPool pool = Campaign.pool();
+
+        try {
+            BufferedWriter bw = makeOutFile();
+            bw.write("Machines,Jobs,Workers,Tiles,Makespan,SerialNs,WavefrontNs,Speedup\n");
+            for (int[] size : sizes) {
+                int m = size[0];
+                int n = size[1];
 
-                /**
-                 * algorithm - algorithm to use (1 - DE, 2 - PSO)
-                 * method - method to use (1 - DE/Best/1, 2 - DE/Rand/1, 3 - DE/Rand-To-Best/1,
-                 * 4 - DE/Best/2, 5 - DE/Rand/2)
-                 * crosstype - crossover type (1 - exponential, 2 - binomial)
-                 * m - dimensions
-                 * n - population size
-                 * problem - problem type
-                 * range - range of values
-                 * numExperiments - number of experiments to run
-                 */
-                int algorithm = Integer.parseInt(parts[0]);
+                // Processing times from 1 to 99 as in the Taillard instances, and a random order
+                MTRandom r = new MTRandom(Campaign.seed(Campaign.seed(), "wavefront " + m + " " + n));
+                int[] p = new int[m * n];
+                for (int k = 0; k < p.length; k++) {
+                    p[k] = 1 + r.nextInt(99);
+                }
+                int[] order = new int[n];
+                for (int j = 0; j < n; j++) {
+                    order[j] = j;
+                }
+                for (int j = n - 1; j > 0; j--) {
+                    int k = r.nextInt(j + 1);
+                    int temp = order[j];
+                    order[j] = order[k];
+                    order[k] = temp;
+                }
+
+                // Alternate the two, the fastest repetition of each counts
+                WavefrontMakespan wavefront = new WavefrontMakespan(p, m, n, pool);
+                int[] row = new int[m];
+                int makespan = Makespan.FSS(p, m, order, n, row);
+                long serialNs = Long.MAX_VALUE, wavefrontNs = Long.MAX_VALUE;
+                for (int rep = 0; rep < reps; rep++) {
+                    long start = System.nanoTime();
+                    int serial = Makespan.FSS(p, m, order, n, row);
+                    long middle = System.nanoTime();
+                    int tiled = wavefront.FSS(order);
+                    long end = System.nanoTime();
+                    if (serial != makespan || tiled != makespan) {
+                        throw new IllegalStateException("Makespans " + serial + " and " + tiled + " differ");
+                    }
+                    serialNs = Math.min(serialNs, middle - start);
+                    wavefrontNs = Math.min(wavefrontNs, end - middle);
+                }
+                double speedup = (double) serialNs / wavefrontNs;
+                System.out.printf("%d x %d on %d workers in %d tiles: serial %.2f ms, wavefront %.2f ms, %.2fx%n", m,
+                        n, pool.getParallelism(), wavefront.getTiles(), serialNs / 1e6, wavefrontNs / 1e6, speedup);
+                bw.write(m + "," + n + "," + pool.getParallelism() + "," + wavefront.getTiles() + "," + makespan + ","
+                        + serialNs + "," + wavefrontNs + "," + speedup + "\n");
+            }
+            bw.close();
+        } catch (IOException e) {
+            // If there is an error, print it
+            e.printStackTrace();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Driver for the initialization benchmark. Runs DE/best/1 on all ten
+     * problems from uniform, Sobol, scrambled Halton and opposition-based
+     * starting populations, every run from its own population, and measures
+     * the function evaluations until the best fitness reaches a target. The
+     * target of a problem is the median final fitness of the uniform runs.
+     * Opposition-based runs are charged the evaluations of the initialization.
+     * The dimension, population size and number of runs are read from the
+     * init.dimension (default 30), init.population (default 50) and init.runs
+     * (default 10) system properties.
+     */
+    public static void initializationDriver() {
+        int m = Integer.getInteger("init.dimension", 30);
+        int n = Integer.getInteger("init.population", 50);
+        int runs = Integer.getInteger("init.runs", 10);
+        long generations = 200;
+        int budget = (int) (n * (generations + 1));
+        double[] ranges = { 512, 100, 100, 30, 500, 30, 30, 32, 32, 500 };
+        int methods = Initialization.NAMES.length;
+
+        try {
+            BufferedWriter bw = makeOutFile();
+            bw.write("Problem,Initialization,Dimension,Population,Runs,Target,Successes,ERT,MeanFinal\n");
+            for (int p = 1; p <= 10; p++) {
+                int problem = p;
+                double range = ranges[p - 1];
+                long seed = Campaign.seed(Campaign.seed(), "initialization " + p);
+
+                // Best absolute fitness after every evaluation of every run
+                double[][][] traces = new double[methods][runs][budget];
+                long[][] offsets = new long[methods][runs];
+                Campaign.forEach(methods * runs, k -> {
+                    int method = k / runs;
+                    int i = k % runs;
+                    long runSeed = Campaign.seed(seed, i);
+                    Objective objective = Problem.objective(problem);
+                    Population pop = new Population(n, m, range, runSeed);
+                    offsets[method][i] = Initialization.apply(pop, method, Campaign.seed(runSeed, "initialization"),
+                            objective);
+
+                    double[] trace = traces[method][i];
+                    int[] count = { 0 };
+                    Objective traced = x -> {
+                        double f = objective.evaluate(x);
+                        int c = count[0]++;
+                        if (c < trace.length) {
+                            trace[c] = c == 0 ? Math.abs(f) : Math.min(Math.abs(f), trace[c - 1]);
+                        }
+                        return f;
+                    };
+                    new DifferentialEvolution(pop, traced, 1, 1).run(runSeed, generations);
+
+                    // A run that stopped early keeps its last best fitness
+                    int used = Math.min(count[0], trace.length);
+                    Arrays.fill(trace, used, trace.length, used == 0 ? Double.POSITIVE_INFINITY : trace[used - 1]);
+                });
+
+                // The median final fitness of the uniform runs
+                double[] finals = new double[runs];
+                for (int i = 0; i < runs; i++) {
+                    finals[i] = traces[Initialization.UNIFORM][i][budget - 1];
+                }
+                Arrays.sort(finals);
+                double target = runs % 2 == 1 ? finals[runs / 2] : (finals[runs / 2 - 1] + finals[runs / 2]) / 2;
+
+                for (int method = 0; method < methods; method++) {
+                    // Expected running time: evaluations of all runs over the successful ones
+                    int successes = 0;
+                    long used = 0;
+                    double meanFinal = 0;
+                    for (int i = 0; i < runs; i++) {
+                        double[] trace = traces[method][i];
+                        int fe = 0;
+                        while (fe < budget && trace[fe] > target) {
+                            fe++;
+                        }
+                        if (fe < budget) {
+                            successes++;
+                            used += offsets[method][i] + fe + 1;
+                        } else {
+                            used += offsets[method][i] + budget;
+                        }
+                        meanFinal += trace[budget - 1] / runs;
+                    }
+                    double ert = successes == 0 ? Double.POSITIVE_INFINITY : (double) used / successes;
+                    System.out.println("Problem " + p + " " + Initialization.NAMES[method] + ": " + successes + "/"
+                            + runs + " runs reached " + target + ", ERT " + ert);
+                    bw.write(p + "," + Initialization.NAMES[method] + "," + m + "," + n + "," + runs + "," + target
+                            + "," + successes + "," + ert + "," + meanFinal + "\n");
+                }
+            }
+            bw.close();
+        } catch (IOException e) {
+            // If there is an error, print it
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Driver for the portfolio runs. Every line of the input file is run by a
+     * portfolio of DE, PSO, Blind Search and Repeated Local Search, with the
+     * DE method and crossover type of the line and its algorithm ignored. The
+     * shared evaluation budget is set by portfolio.budget (by default 100
+     * evaluations per vector and member), the target fitness by
+     * portfolio.target (by default none) and portfolio.share=true injects new
+     * incumbents into the other members.
+     */
+    public static void portfolioDriver() {
+        double target = Double.parseDouble(System.getProperty("portfolio.target", "-Infinity"));
+        boolean share = Boolean.getBoolean("portfolio.share");
+
+        try {
+            BufferedReader br = readFromFile("experiments.txt");
+            BufferedWriter bw = makeOutFile();
+            bw.write("Problem,Dimension,Population,Run,Fitness,Winner,Evaluations,Time\n");
+
+            long seed = Campaign.seed();
+            String line = br.readLine();
+            while (line != null) {
+                String[] parts = line.split(" ");
                 int method = Integer.parseInt(parts[1]);
                 int crosstype = Integer.parseInt(parts[2]);
                 int m = Integer.parseInt(parts[3]);
@@ -150,23 +701,150 @@ public class Main {
                 int problem = Integer.parseInt(parts[5]);
                 double range = Double.parseDouble(parts[6]);
                 int numExperiments = Integer.parseInt(parts[7]);
+                long budget = Long.getLong("portfolio.budget", 100L * n * Portfolio.NAMES.length);
 
-                // Initialize population
-                Population pop = new Population(n, m, range);
-                long[] times = new long[n];
+                // The runs of a line run one after another, each uses a thread per member
+                long lineSeed = Campaign.seed(seed, "portfolio " + configOf(parts));
+                Population pop = new Population(n, m, range, lineSeed);
+                try (Portfolio portfolio = new Portfolio(pop, problem, crosstype, method, budget, target, share)) {
+                    for (int i = 0; i < numExperiments; i++) {
+                        long start = System.nanoTime();
+                        Improvement best = portfolio.run(Campaign.seed(lineSeed, i));
+                        long time = System.nanoTime() - start;
+                        bw.write(problem + "," + m + "," + n + "," + i + "," + best.fitness + ","
+                                + Portfolio.NAMES[portfolio.getWinner()] + "," + portfolio.getEvaluations() + ","
+                                + (double) time / 1000000 + "\n");
+                    }
+                }
+                line = br.readLine();
+            }
 
-                // Run the experiments
-                experiment(numExperiments, pop, times, algorithm, problem, method, crosstype);
+            bw.close();
+            br.close();
+        } catch (IOException e) {
+            // If there is an error, print it
+            e.printStackTrace();
+        }
+    }
 
-                // Sum time array for total time for the experiment
-                long sum = LongStream.of(times).sum();
+    /**
+     * Runs the minimization experiments for every line of the input file. Lines
+     * and the runs within them execute concurrently on a work-stealing pool,
+     * and the rows are written in input order as soon as each line is done.
+     * 
+     * @param line - line from input file
+     * @param br   - BufferedReader for input file
+     * @param bw   - BufferedWriter for output file
+     * @exception IOException - if there is an error with the input or output files
+     */
+    public static void fileLoop(String line, BufferedReader br, BufferedWriter bw) {
+        ForkJoinPool pool = Campaign.pool();
+        try {
+            // Seed shared by the whole campaign, every line and run derives its own
+            long seed = Campaign.seed();
 
-                // Save experiment in a CSV file
-                writeFile(bw, problem, numExperiments, m, algorithm, range, sum, pop, method, crosstype);
+            // Submit every line of the input file
+            List<ForkJoinTask<Runnable>> lines = new ArrayList<ForkJoinTask<Runnable>>();
+            Map<String, Integer> seen = new HashMap<String, Integer>();
+            while (line != null) {
+                String[] parts = line.split(" ");
+                long lineSeed = lineSeed(seed, parts, seen);
+                lines.add(pool.submit(() -> runLine(parts, lineSeed, bw)));
 
                 // Read next line from input file
                 line = br.readLine();
             }
+
+            // Write the rows in input order
+            for (ForkJoinTask<Runnable> task : lines) {
+                task.join().run();
+            }
+        } catch (IOException e) {
+
+            // If there is an error, print it
+            e.printStackTrace();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Returns the seed of an input line. It depends on the experiment settings,
+     * not on the position of the line or its number of experiments, so lines
+     * keep their runs when the input file is edited. Repeated settings get
+     * different seeds.
+     * 
+     * @param seed  - the campaign seed
+     * @param parts - the parameters of the line
+     * @param seen  - how often each setting was seen so far, updated
+     * @return - the seed of the line
+     */
+    public static long lineSeed(long seed, String[] parts, Map<String, Integer> seen) {
+        String config = configOf(parts);
+        int k = seen.merge(config, 1, Integer::sum) - 1;
+        return Campaign.seed(Campaign.seed(seed, config), k);
+    }
+
+    /**
+     * Returns the settings of an input line without its number of experiments
+     * 
+     * @param parts - the parameters of the line
+     * @return - the settings
+     */
+    public static String configOf(String[] parts) {
+        String config = String.join(" ", Arrays.copyOf(parts, 7));
+        config = precisionOf(parts) == 32 ? config + " 32" : config;
+        int initialization = initializationOf(parts);
+        return initialization != Initialization.UNIFORM ? config + " init " + initialization : config;
+    }
+
+    /**
+     * Returns the precision of an input line, the optional ninth value
+     * 
+     * @param parts - the parameters of the line
+     * @return - 32 for single precision, 64 for double precision
+     */
+    public static int precisionOf(String[] parts) {
+        return parts.length > 8 ? Integer.parseInt(parts[8]) : 64;
+    }
+
+    /**
+     * Returns the initialization method of an input line, the optional tenth
+     * value
+     * 
+     * @param parts - the parameters of the line
+     * @return - 0 for uniform, 1 for Sobol, 2 for scrambled Halton, 3 for
+     *         opposition-based initialization
+     */
+    public static int initializationOf(String[] parts) {
+        return parts.length > 9 ? Integer.parseInt(parts[9]) : Initialization.UNIFORM;
+    }
+
+    /**
+     * Runs the minimization experiments for every line of the input file on the
+     * worker processes, one shard per line, and writes the rows in input order
+     * 
+     * @param line - line from input file
+     * @param br   - BufferedReader for input file
+     * @param bw   - BufferedWriter for output file
+     * @exception IOException - if there is an error with the input or output
+     *                        files, or a shard failed on every attempt
+     */
+    public static void shardLoop(String line, BufferedReader br, BufferedWriter bw) {
+        try {
+            // The line seeds are the same as in fileLoop
+            long seed = Campaign.seed();
+            List<String> shards = new ArrayList<String>();
+            Map<String, Integer> seen = new HashMap<String, Integer>();
+            while (line != null) {
+                shards.add("M " + lineSeed(seed, line.split(" "), seen) + " " + line);
+                line = br.readLine();
+            }
+
+            String[] rows = coordinator().run(shards);
+            for (String row : rows) {
+                bw.write(row + "\n");
+            }
         } catch (IOException e) {
 
             // If there is an error, print it
@@ -175,70 +853,529 @@ public class Main {
     }
 
     /**
-     * Runs [n] minimization experiments of problem type [problem], and stores
-     * fitness values in the population
+     * Returns the coordinator of a sharded campaign. When there is a result
+     * sink or store, the workers send back the result of every run for them.
+     * 
+     * @return - the coordinator
+     */
+    public static Coordinator coordinator() {
+        Coordinator coordinator = new Coordinator(Coordinator.javaCommand("Main", workers, "--worker"), workers);
+        if (sink != null || store != null) {
+            coordinator.setRecords(line -> {
+                Result result = Result.parse(line);
+                store(result);
+                if (sink != null) {
+                    sink.accept(result);
+                }
+            });
+        }
+        return coordinator;
+    }
+
+    /**
+     * Worker process of a sharded campaign. Reads shards from standard input,
+     * one per line as "[id] M [seed] [experiment line]" or "[id] S [algorithm]
+     * [input file]", and answers each with "[id] [CSV row]" on standard output.
+     * With the shard.results system property, the row is preceded by a line
+     * "R [id] [result]" for every run of the shard. The result store of the
+     * coordinator is only read, the coordinator stores the runs sent back.
+     * Progress output goes to standard error.
+     */
+    public static void workerLoop() {
+        PrintStream out = System.out;
+        System.setOut(System.err);
+        if (Boolean.getBoolean("shard.results")) {
+            shardResults = Collections.synchronizedList(new ArrayList<Result>());
+        }
+        ForkJoinPool pool = Campaign.pool();
+        try {
+            store = openStore(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+            String shard = in.readLine();
+            while (shard != null) {
+                String[] parts = shard.split(" ", 3);
+                StringWriter row = new StringWriter();
+                BufferedWriter bw = new BufferedWriter(row);
+                if (parts[1].equals("M")) {
+                    String[] line = parts[2].split(" ", 2);
+                    long seed = Long.parseLong(line[0]);
+                    pool.submit(() -> runLine(line[1].split(" "), seed, bw)).join().run();
+                } else {
+                    String[] sched = parts[2].split(" ");
+                    int alg = Integer.parseInt(sched[0]);
+                    Instance instance = readInstance(Integer.parseInt(sched[1]));
+                    scheduleLoop(instance.p, instance.m, instance.n, alg, bw, (alg == 0 ? "FSS " : "FSSB ") + sched[1]);
+                }
+                bw.flush();
+                if (shardResults != null) {
+                    for (Result r : shardResults) {
+                        out.println("R " + parts[0] + " " + r.toLine());
+                    }
+                    shardResults.clear();
+                }
+
+                // Rows end with a newline, the protocol adds its own
+                String result = row.toString();
+                if (result.endsWith("\n")) {
+                    result = result.substring(0, result.length() - 1);
+                }
+                out.println(parts[0] + " " + result);
+                out.flush();
+                shard = in.readLine();
+            }
+        } catch (IOException e) {
+            // If there is an error, print it
+            e.printStackTrace();
+        } finally {
+            pool.shutdown();
+            try {
+                closeStore();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Runs the experiments of one input line
+     * 
+     * @param parts - the parameters of the line
+     * @param seed  - the seed of the line
+     * @param bw    - BufferedWriter for output file
+     * @return - writes the row of the line when run
+     */
+    public static Runnable runLine(String[] parts, long seed, BufferedWriter bw) {
+        /**
+         * algorithm - algorithm to use (1 - DE, 2 - PSO, 3 - Blind Search,
+         * 4 - Repeated Local Search, 5 - CMA-ES, 6 - sep-CMA-ES,
+         * 7 - Cooperative Coevolution)
+         * method - method to use (1 - DE/Best/1, 2 - DE/Rand/1, 3 - DE/Rand-To-Best/1,
+         * 4 - DE/Best/2, 5 - DE/Rand/2)
+         * crosstype - crossover type (1 - exponential, 2 - binomial)
+         * m - dimensions
+         * n - population size
+         * problem - problem type
+         * range - range of values
+         * numExperiments - number of experiments to run
+         * precision - 32 for single precision, 64 (the default) for double precision
+         * initialization - 0 (the default) for uniform, 1 for Sobol, 2 for
+         * scrambled Halton, 3 for opposition-based initialization
+         */
+        int algorithm = Integer.parseInt(parts[0]);
+        int method = Integer.parseInt(parts[1]);
+        int crosstype = Integer.parseInt(parts[2]);
+        int m = Integer.parseInt(parts[3]);
+        int n = Integer.parseInt(parts[4]);
+        int problem = Integer.parseInt(parts[5]);
+        double range = Double.parseDouble(parts[6]);
+        int numExperiments = Integer.parseInt(parts[7]);
+        int precision = precisionOf(parts);
+        int initialization = initializationOf(parts);
+
+        // Initialize population, with a result slot per run unless only the summary is written
+        Population pop = makePopulation(n, m, range, seed, SUMMARY ? 0 : numExperiments);
+        Summary summary = new Summary();
+
+        // Run the experiments
+        experiment(numExperiments, pop, summary, algorithm, problem, method, crosstype, precision, initialization,
+                seed);
+
+        // Total time for the experiment
+        long sum = summary.getTime();
+
+        // Save experiment in a CSV file
+        if (SUMMARY) {
+            return () -> writeSummary(bw, problem, numExperiments, m, algorithm, range, summary, method, crosstype,
+                    precision, initialization);
+        }
+        return () -> writeFile(bw, problem, numExperiments, m, algorithm, range, sum, pop, method, crosstype,
+                precision, initialization);
+    }
+
+    /**
+     * Creates the population of an input line, off the heap when the
+     * population.offheap or population.dir system property is set. With
+     * population.dir the population and its solution vectors are kept in files
+     * named after the seed of the line, which stay for other processes to open.
+     * 
+     * @param n     - population size
+     * @param m     - dimensions
+     * @param range - range of values
+     * @param seed  - the seed of the line
+     * @param runs  - number of result slots
+     * @return - the population
+     * @exception UncheckedIOException - if the files can not be created
+     */
+    public static Population makePopulation(int n, int m, double range, long seed, int runs) {
+        if (!OFF_HEAP && POPULATIONS == null) {
+            Population pop = new Population(n, m, range, seed);
+            pop.setRuns(runs);
+            return pop;
+        }
+        try {
+            VectorStore vectors;
+            VectorStore solutions;
+            if (POPULATIONS != null) {
+                Files.createDirectories(Paths.get(POPULATIONS));
+                String name = String.format("%016x", seed);
+                vectors = VectorStore.create(Paths.get(POPULATIONS, name + ".pop"), n, m);
+                solutions = VectorStore.create(Paths.get(POPULATIONS, name + ".sol"), runs, m);
+            } else {
+                vectors = VectorStore.allocate(n, m);
+                solutions = VectorStore.allocate(runs, m);
+            }
+            Population pop = new Population(n, m, range, seed, vectors);
+            pop.setRuns(runs, solutions);
+            return pop;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Runs [n] minimization experiments of problem type [problem] in parallel,
+     * adds their fitness values to the summary, and stores them in the population
+     * when it has result slots. Every run starts from its own copy of the
+     * population and has its own seed. Runs go in blocks so the summary sees the
+     * values in run order while only one block of them is held in memory.
      * 
      * @param n         - number of experiments
      * @param pop       - population to store fitness values
-     * @param times     - array to store time values
+     * @param summary   - summary of the fitness and time values
      * @param algorithm - algorithm to use
      * @param problem   - problem type
      * @param method    - method to use for mutation in DE
      * @param crosstype - crossover type for DE
+     * @param precision      - 32 for single precision, 64 for double precision
+     * @param initialization - initialization method of the population, see
+     *                       Initialization
+     * @param seed           - seed the runs derive their seeds from
      */
-    public static void experiment(int n, Population pop, long[] times, int algorithm, int problem, int method,
-            int crosstype) {
-        for (int i = 0; i < n; i++) {
-            long start = System.nanoTime();
-            Algorithms alg = new Algorithms(algorithm, pop, problem, crosstype, method, i);
-            System.out.println(i);
-            times[i] = System.nanoTime() - start;
-            pop.setFitness(i, alg.getFitness());
-            pop.setSolution(i, alg.getSolution());
+    public static void experiment(int n, Population pop, Summary summary, int algorithm, int problem, int method,
+            int crosstype, int precision, int initialization, long seed) {
+        // The experiment settings, without the number of experiments. The objective command replaces the
+        // problem type, so it is part of them, and so is a hash of the formula of a problem type above 10.
+        String formula = Problem.source(problem);
+        String config = algorithm + " " + method + " " + crosstype + " " + pop.getDimensions() + " "
+                + pop.size() + " " + problem + " " + pop.getRange() + (precision == 32 ? " 32" : "")
+                + (initialization != Initialization.UNIFORM ? " init " + initialization : "")
+                + (OBJECTIVE != null && precision != 32 ? " objective " + OBJECTIVE.trim()
+                        : formula != null ? " formula " + Integer.toHexString(formula.hashCode()) : "");
+        boolean keep = pop.getFitness().length >= n;
+        double[] fitness = new double[Math.min(n, BLOCK)];
+        long[] times = new long[fitness.length];
+
+        // The runs of the line share the external objective processes and an
+        // evaluation cache when they are set
+        ExternalObjective external = OBJECTIVE != null ? new ExternalObjective(OBJECTIVE, OBJECTIVE_PROCESSES) : null;
+        Objective function = external != null ? external : Problem.objective(problem);
+        EvaluationCache cache = CACHE_MB > 0 ? new EvaluationCache(function, pop.getDimensions(),
+                EvaluationCache.entries(CACHE_MB << 20, pop.getDimensions())) : null;
+        Objective objective = cache != null ? cache : function;
+        int type = external != null ? 0 : problem;
+        try {
+            // Replace the uniform random vectors before any run copies them
+            Initialization.apply(pop, initialization, Campaign.seed(seed, "initialization"), objective);
+
+            // Each thread sets up an engine once and runs it for every run it takes
+            ThreadLocal<Optimizer> engines = ThreadLocal
+                    .withInitial(() -> Algorithms.optimizer(algorithm, pop, objective, type, crosstype, method));
+            long budget = Algorithms.budget(algorithm, pop);
+
+            for (int from = 0; from < n; from += BLOCK) {
+                int first = from;
+                Campaign.forEach(Math.min(BLOCK, n - from), k -> {
+                    int i = first + k;
+                    long runSeed = Campaign.seed(seed, i);
+
+                    // Runs already in the result store are not computed again
+                    Result result = stored(config, runSeed);
+                    if (result == null) {
+                        double[] solution;
+                        if (precision == 32) {
+                            long start = System.nanoTime();
+                            FloatAlgorithms alg = new FloatAlgorithms(algorithm, new Population(pop, runSeed), problem,
+                                    crosstype, method, i, runSeed);
+                            solution = alg.getSolution();
+                            result = new Result(config, runSeed, alg.getFitness(), 0, System.nanoTime() - start,
+                                    alg.getEvaluations());
+                        } else {
+                            Optimizer engine = engines.get();
+                            Checkpoint cp = openCheckpoint(config, runSeed, algorithm,
+                                    Algorithms.checkpointSize(pop.getDimensions(), pop.size()));
+                            long start = System.nanoTime();
+                            engine.setStart(i);
+                            engine.setCheckpoint(cp);
+                            engine.run(runSeed, budget);
+                            engine.setCheckpoint(null);
+                            long time = System.nanoTime() - start;
+                            closeCheckpoint(cp);
+                            solution = engine.getSolution();
+                            result = new Result(config, runSeed, engine.getFitness(), 0, time, engine.getEvaluations());
+                        }
+                        System.out.println(i);
+                        store(result);
+                        if (keep) {
+                            pop.setSolution(i, solution);
+                        }
+                    }
+                    times[k] = result.time;
+                    fitness[k] = result.fitness;
+                    if (keep) {
+                        pop.setFitness(i, fitness[k]);
+                    }
+                    record(result);
+                });
+
+                // Add the block in run order
+                for (int k = 0; k < Math.min(BLOCK, n - from); k++) {
+                    summary.add(fitness[k]);
+                    summary.addTime(times[k]);
+                }
+            }
+        } finally {
+            if (external != null) {
+                external.close();
+            }
+        }
+        if (cache != null) {
+            System.out.printf("Cache of %s: %.2f%% hit rate, %d hits, %d misses, %d evictions%n", config,
+                    100 * cache.getHitRate(), cache.getHits(), cache.getMisses(), cache.getEvictions());
         }
     }
 
+    /**
+     * Submits one NEH run per algorithm and input file. The largest instances
+     * are submitted first so the campaign is not left waiting on one of them at
+     * the end.
+     * 
+     * @param cache - the parsed input files
+     * @param pool  - the pool to run on
+     * @return - the CSV row of each run, FSS rows first, in input file order
+     */
+    public static List<ForkJoinTask<String>> scheduleTasks(TaillardCache cache, ForkJoinPool pool) {
+        List<ForkJoinTask<String>> tasks = new ArrayList<ForkJoinTask<String>>(Collections.nCopies(240, null));
+        Integer[] order = new Integer[240];
+        for (int k = 0; k < 240; k++) {
+            order[k] = k;
+        }
+
+        // NEH does O(m n^2) work
+        Arrays.sort(order, Comparator.comparingLong((Integer k) -> {
+            int i = k % 120 + 1;
+            long n = cache.getJobs(i);
+            return -cache.getMachines(i) * n * n;
+        }));
+
+        for (int k : order) {
+            int a = k / 120;
+            int i = k % 120 + 1;
+            tasks.set(k, pool.submit(() -> {
+                StringWriter row = new StringWriter();
+                BufferedWriter bw = new BufferedWriter(row);
+                scheduleLoop(cache.getTimes(i), cache.getMachines(i), cache.getJobs(i), a, bw,
+                        (a == 0 ? "FSS " : "FSSB ") + i);
+                bw.flush();
+                return row.toString();
+            }));
+        }
+        return tasks;
+    }
+
     /**
      * Runs the scheduling experiment for the given input file
      * 
-     * @param times - the processing times matrix.
-     * @param m     - the number of machines.
-     * @param n     - the number of jobs.
-     * @param alg   - the scheduling algorithm to use.
-     * @param bw    - the BufferedWriter for the output file.
+     * @param p   - flat job-major processing times.
+     * @param m   - the number of machines.
+     * @param n   - the number of jobs.
+     * @param alg - the scheduling algorithm to use.
+     * @param bw  - the BufferedWriter for the output file.
+     */
+    public static void scheduleLoop(int[] p, int m, int n, int alg, BufferedWriter bw) {
+        scheduleLoop(p, m, n, alg, bw, null);
+    }
+
+    /**
+     * Runs the scheduling experiment for the given input file and records it in
+     * the result sink
+     * 
+     * @param p      - flat job-major processing times.
+     * @param m      - the number of machines.
+     * @param n      - the number of jobs.
+     * @param alg    - the scheduling algorithm to use.
+     * @param bw     - the BufferedWriter for the output file.
+     * @param config - name of the experiment in the result sink, null to skip it
      */
-    public static void scheduleLoop(int[][] times, int m, int n, int alg, BufferedWriter bw) {
+    public static void scheduleLoop(int[] p, int m, int n, int alg, BufferedWriter bw, String config) {
         // Start timer
         long time = System.nanoTime();
         // Run the experiment
-        NEH algos = new NEH(times, m, n, alg);
+        NEH algos = new NEH(p, m, n, alg);
         // Stop timer
         time = System.nanoTime() - time;
         // Write the results to the output file
         writeResult(algos, bw, m, n, time);
+        if (config != null) {
+            record(new Result(config, 0, algos.makespan, algos.makespan, time, algos.evaluations));
+        }
     }
 
     /**
-     * This method reads the lines from the input file and returns them as an
-     * ArrayList (for scheduling)
+     * Hands a run to the result sink, or to the coordinator in a worker
      * 
-     * @param i - the number of the input file
-     * @return - the ArrayList of lines from the input file
+     * @param result - the run
      */
-    public static ArrayList<String> readLines(int i) {
-        ArrayList<String> lines = new ArrayList<String>();
+    public static void record(Result result) {
+        if (sink != null) {
+            sink.accept(result);
+        }
+        if (shardResults != null) {
+            shardResults.add(result);
+        }
+    }
+
+    /**
+     * Returns a run from the result store
+     * 
+     * @param config - the experiment settings
+     * @param seed   - seed of the run
+     * @return - the run, null if there is no store or the run is not in it
+     * @exception UncheckedIOException - if the store can not be read
+     */
+    public static Result stored(String config, long seed) {
         try {
-            BufferedReader br = readFromFile("./project/Taillard_TestData/" + i + ".txt");
-            String line = br.readLine();
-            while (line != null) {
-                lines.add(line);
-                line = br.readLine();
+            return store == null ? null : store.get(config, seed);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens the result store in the directory named by the store system
+     * property
+     * 
+     * @param readOnly - true to only look up runs, as workers do
+     * @return - the store, null if the property is not set
+     * @exception IOException - if the store can not be opened
+     */
+    public static ResultStore openStore(boolean readOnly) throws IOException {
+        String dir = System.getProperty("store");
+        return dir == null ? null : new ResultStore(Paths.get(dir), readOnly);
+    }
+
+    /**
+     * Closes the result store
+     * 
+     * @exception IOException - if the store could not be written
+     */
+    public static void closeStore() throws IOException {
+        if (store != null) {
+            store.close();
+            store = null;
+        }
+    }
+
+    /**
+     * Adds a run to the result store, if there is one. Workers leave it to the
+     * coordinator.
+     * 
+     * @param result - the run
+     * @exception UncheckedIOException - if the store can not be written
+     */
+    public static void store(Result result) {
+        try {
+            if (store != null && shardResults == null) {
+                store.put(result);
             }
-            br.close();
         } catch (IOException e) {
-            e.printStackTrace();
+            throw new UncheckedIOException(e);
         }
-        return lines;
+    }
+
+    /**
+     * Opens the checkpoint of a DE or PSO run in the directory named by the
+     * checkpoint system property. A run that was stopped resumes from its
+     * checkpoint.
+     * 
+     * @param config    - the configuration of the run
+     * @param seed      - seed of the run
+     * @param algorithm - algorithm of the run
+     * @param size      - payload bytes the run needs
+     * @return - the checkpoint, null if the property is not set or the algorithm
+     *         has no checkpoints
+     * @exception UncheckedIOException - if the checkpoint can not be opened
+     */
+    public static Checkpoint openCheckpoint(String config, long seed, int algorithm, int size) {
+        if (CHECKPOINTS == null || (algorithm != 1 && algorithm != 2)) {
+            return null;
+        }
+        try {
+            Files.createDirectories(Paths.get(CHECKPOINTS));
+            String name = String.format("%016x.ckpt", ResultStore.key(config, seed));
+            return new Checkpoint(Paths.get(CHECKPOINTS, name), size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes the checkpoint of a finished run
+     * 
+     * @param cp - the checkpoint, may be null
+     * @exception UncheckedIOException - if the checkpoint can not be deleted
+     */
+    public static void closeCheckpoint(Checkpoint cp) {
+        try {
+            if (cp != null) {
+                cp.delete();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens the result sink named by the results system property, CSV unless the
+     * file name ends in .bin
+     * 
+     * @return - the result sink, null if the property is not set
+     * @exception IOException - if the file can not be created
+     */
+    public static ResultSink openSink() throws IOException {
+        String file = System.getProperty("results");
+        return file == null ? null : new ResultSink(Paths.get(file));
+    }
+
+    /**
+     * Writes the remaining results of the result sink and closes it
+     * 
+     * @exception IOException - if a result could not be written
+     */
+    public static void closeSink() throws IOException {
+        if (sink != null) {
+            sink.close();
+            sink = null;
+        }
+    }
+
+    /**
+     * Reads the processing times matrix of a scheduling input file
+     * 
+     * @param i - the number of the input file
+     * @return - the processing times of each job on each machine
+     */
+    public static int[][] readTimes(int i) {
+        return readInstance(i).getTimes();
+    }
+
+    /**
+     * Reads a scheduling input file
+     * 
+     * @param i - the number of the input file
+     * @return - the instance, with its flat processing times
+     */
+    public static Instance readInstance(int i) {
+        return TaillardCache.parse(Paths.get(TAILLARD, i + ".txt"));
     }
 
     /**
@@ -253,54 +1390,119 @@ public class Main {
      * @param pop       - Population
      * @param method    - Method to use for mutation in DE
      * @param crosstype - Crossover type for DE
+     * @param precision      - 32 for single precision, 64 for double precision
+     * @param initialization - Initialization method of the population
      * @exception IOException - if there is an error with the output file
      */
     public static void writeFile(BufferedWriter bw, int problem, int n, int m, int alg, double range, long sum,
-            Population pop, int method, int crosstype) {
+            Population pop, int method, int crosstype, int precision, int initialization) {
         try {
-            // Gets the algorithm type
-            String algType = (alg == 1) ? "" : "Partical Swarm Optimization";
-            String meth = "";
-            // Gets the method type for DE
-            switch (method) {
-                case 1:
-                    meth = "DE/Best/1";
-                    break;
-                case 2:
-                    meth = "DE/Rand/1";
-                    break;
-                case 3:
-                    meth = "DE/Rand-To-Best/1";
-                    break;
-                case 4:
-                    meth = "DE/Best/2";
-                    break;
-                case 5:
-                    meth = "DE/Rand/2";
-                    break;
-                default:
-                    break;
-            }
-            // Gets the crossover type for DE
-            String cross = (crosstype == 1) ? "exp" : (crosstype == 2) ? "bin" : "";
-
             // Writes the summary of the experiments
-            bw.write("Problem " + problem + " with " + n + " experiments of dimension " + m + " in range [-" + range
-                    + " : " + range + "]"
-                    + " using the " + algType + meth + cross + " algorithm that took " + +(double) sum / 1000000
-                    + "milliseconds to run" + ",");
+            StringBuilder row = describe(problem, n, m, alg, range, sum, method, crosstype, precision,
+                    initialization);
 
             // Writes the fitness values of the population
+            double[] fitness = pop.getFitness();
             for (int i = 0; i < n; i++) {
-                bw.write(pop.getFitness()[i] + ",");
+                row.append(fitness[i]).append(',');
             }
-            bw.write("\n");
+            row.append('\n');
+            bw.write(row.toString());
+
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Save the summary statistics of minimization experiments to file
+     * 
+     * @param bw        - BufferedWriter to write to
+     * @param problem   - Problem type
+     * @param n         - Number of experiments
+     * @param m         - Dimensions
+     * @param range     - Range of values
+     * @param summary   - Summary of the fitness and time values
+     * @param method    - Method to use for mutation in DE
+     * @param crosstype - Crossover type for DE
+     * @param precision      - 32 for single precision, 64 for double precision
+     * @param initialization - Initialization method of the population
+     * @exception IOException - if there is an error with the output file
+     */
+    public static void writeSummary(BufferedWriter bw, int problem, int n, int m, int alg, double range,
+            Summary summary, int method, int crosstype, int precision, int initialization) {
+        try {
+            // Writes the summary of the experiments, then the statistics of the fitness values
+            StringBuilder row = describe(problem, n, m, alg, range, summary.getTime(), method, crosstype,
+                    precision, initialization);
+            row.append("Mean,").append(summary.getMean()).append(",StdDev,").append(summary.getStdDev())
+                    .append(",Min,").append(summary.getMin()).append(",Q1,").append(summary.getQ1())
+                    .append(",Median,").append(summary.getMedian()).append(",Q3,").append(summary.getQ3())
+                    .append(",Max,").append(summary.getMax()).append(",IQR,").append(summary.getIQR())
+                    .append(",\n");
+            bw.write(row.toString());
 
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Returns the first entry of a minimization row, describing the experiments
+     * 
+     * @param problem   - Problem type
+     * @param n         - Number of experiments
+     * @param m         - Dimensions
+     * @param range     - Range of values
+     * @param sum       - Total time for the experiment
+     * @param method    - Method to use for mutation in DE
+     * @param crosstype - Crossover type for DE
+     * @param precision      - 32 for single precision, 64 for double precision
+     * @param initialization - Initialization method of the population
+     * @return - the description followed by a comma
+     */
+    public static StringBuilder describe(int problem, int n, int m, int alg, double range, long sum, int method,
+            int crosstype, int precision, int initialization) {
+        // Gets the algorithm type
+        String algType = (alg == 1) ? "" : (alg == 7) ? "Cooperative Coevolution "
+                : (alg == 5) ? "CMA-ES" : (alg == 6) ? "sep-CMA-ES" : "Partical Swarm Optimization";
+        String meth = "";
+        // Gets the method type for DE, CMA-ES has none
+        switch (alg == 5 || alg == 6 ? 0 : method) {
+            case 1:
+                meth = "DE/Best/1";
+                break;
+            case 2:
+                meth = "DE/Rand/1";
+                break;
+            case 3:
+                meth = "DE/Rand-To-Best/1";
+                break;
+            case 4:
+                meth = "DE/Best/2";
+                break;
+            case 5:
+                meth = "DE/Rand/2";
+                break;
+            default:
+                break;
+        }
+        // Gets the crossover type for DE
+        String cross = (alg == 5 || alg == 6) ? "" : (crosstype == 1) ? "exp" : (crosstype == 2) ? "bin" : "";
+
+        StringBuilder row = new StringBuilder();
+        row.append("Problem ").append(problem).append(" with ").append(n).append(" experiments of dimension ")
+                .append(m).append(" in range [-").append(range).append(" : ").append(range).append("]")
+                .append(" using the ").append(algType).append(meth).append(cross).append(" algorithm")
+                .append(precision == 32 ? " in single precision" : "")
+                .append(initialization != Initialization.UNIFORM
+                        ? " with " + Initialization.NAMES[initialization] + " initialization"
+                        : "")
+                .append(" that took ")
+                .append((double) sum / 1000000).append("milliseconds to run").append(',');
+        return row;
+    }
+
     /**
      * Writes the results of the scheduling experiment to the CSV file
      * 
@@ -314,11 +1516,14 @@ public class Main {
         // Prints the results to the output file
         try {
             // Writing # machines, # jobs, makespan, time, results
-            bw.write(m + "," + n + "," + algos.makespan + "," + (double) time / 1000000 + ",");
+            StringBuilder row = new StringBuilder();
+            row.append(m).append(',').append(n).append(',').append(algos.makespan).append(',')
+                    .append((double) time / 1000000).append(',');
             for (int i = 0; i < n; i++) {
-                bw.write(algos.schedule[i] + 1 + ",");
+                row.append(algos.schedule[i] + 1).append(',');
             }
-            bw.write("\n");
+            row.append('\n');
+            bw.write(row.toString());
         } catch (IOException e) {
             e.printStackTrace();
         }
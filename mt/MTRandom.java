@@ -211,6 +211,15 @@ public class MTRandom extends Random {
             mt[mti] = (MAGIC_FACTOR1 * (mt[mti - 1] ^ (mt[mti - 1] >>> 30)) + mti);
         }
         // ---- End Mersenne Twister Algorithm ----
+        clearGaussian();
+    }
+
+    // Discards the second Gaussian value cached by nextGaussian() in
+    // java.util.Random, so a reseeded or restored instance draws the same
+    // Gaussians as a new one. Every seeding path goes through setSeed(int).
+    // The seed of java.util.Random itself is not used by this class.
+    private void clearGaussian() {
+        super.setSeed(0L);
     }
 
     /**
@@ -306,6 +315,66 @@ public class MTRandom extends Random {
         // ---- End Mersenne Twister Algorithm ----
     }
 
+    /**
+     * Returns a snapshot of the internal state of this instance, the N words of
+     * the state vector followed by the current index into it. Restoring the
+     * snapshot with setState() continues the pseudo random sequence exactly
+     * where it was taken.
+     * <p>
+     * Note that a second Gaussian value cached by nextGaussian() in
+     * java.util.Random is not part of the snapshot, setState() discards it.
+     * 
+     * @return A new array of N + 1 integers holding the state.
+     */
+    public final synchronized int[] getState() {
+        int[] state = new int[N + 1];
+        getState(state);
+        return state;
+    }
+
+    /**
+     * Copies the internal state of this instance into the given array, see
+     * getState().
+     * 
+     * @param state The array of at least N + 1 integers to copy into.
+     * @throws IllegalArgumentException if the array is too short.
+     */
+    public final synchronized void getState(int[] state) {
+        if (state.length < N + 1)
+            throw new IllegalArgumentException("State buffer needs " + (N + 1) + " integers");
+        System.arraycopy(mt, 0, state, 0, N);
+        state[N] = mti;
+    }
+
+    /**
+     * Restores the internal state of this instance from a snapshot taken with
+     * getState().
+     * 
+     * @param state The array of N + 1 integers holding the state.
+     * @throws IllegalArgumentException if the array is too short or the index
+     *                                  is out of range.
+     */
+    public final synchronized void setState(int[] state) {
+        if (state.length < N + 1)
+            throw new IllegalArgumentException("State buffer needs " + (N + 1) + " integers");
+        if (state[N] < 0 || state[N] > N)
+            throw new IllegalArgumentException("State index out of range: " + state[N]);
+        if (mt == null)
+            mt = new int[N];
+        System.arraycopy(state, 0, mt, 0, N);
+        mti = state[N];
+        clearGaussian();
+    }
+
+    /**
+     * The number of integers in a state snapshot.
+     * 
+     * @return N + 1
+     */
+    public static int stateSize() {
+        return N + 1;
+    }
+
     /**
      * This method forms the basis for generating a pseudo random number
      * sequence from this class. If given a value of 32, this method
@@ -0,0 +1,65 @@
+/*
+ * BatchObjective : An objective that evaluates many vectors at once, such as
+ *                  one that runs in other processes. Differential Evolution
+ *                  and Particle Swarm Optimization submit a generation in
+ *                  batches as they create it and keep creating the next
+ *                  batch while earlier ones are evaluated.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
+
+public interface BatchObjective extends Objective {
+    /**
+     * Starts evaluating vectors and returns before they are evaluated
+     *
+     * @param x       - the vectors, which must not change until the batch is
+     *                done
+     * @param from    - index of the first vector
+     * @param to      - index after the last vector
+     * @param fitness - receives the fitness value of x[i] in fitness[i]
+     * @return - completes when the fitness values are written
+     */
+    CompletableFuture<Void> submit(double[][] x, int from, int to, double[] fitness);
+
+    /**
+     * Returns the number of vectors per batch when a generation is submitted,
+     * all of them by default
+     *
+     * @param n - number of vectors of the generation
+     * @return - the number of vectors per batch
+     */
+    default int batchSize(int n) {
+        return n;
+    }
+
+    /**
+     * Creates and evaluates the vectors of a generation. The vectors are created
+     * in order, a batch at a time, and every batch is submitted as soon as it is
+     * created, so the next batch is created while earlier ones are evaluated.
+     *
+     * @param objective - the objective
+     * @param x         - receives the vectors
+     * @param n         - number of vectors
+     * @param fitness   - receives the fitness value of x[i] in fitness[i]
+     * @param create    - creates the vector x[i] from its index i
+     */
+    static void generation(BatchObjective objective, double[][] x, int n, double[] fitness, IntConsumer create) {
+        int size = objective.batchSize(n);
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[(n + size - 1) / size];
+        for (int from = 0, b = 0; from < n; from += size, b++) {
+            int to = Math.min(n, from + size);
+            for (int i = from; i < to; i++) {
+                create.accept(i);
+            }
+            pending[b] = objective.submit(x, from, to, fitness);
+        }
+        CompletableFuture.allOf(pending).join();
+    }
+}
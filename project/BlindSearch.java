@@ -0,0 +1,144 @@
+/*
+ * BlindSearch : Blind Search engine, evaluates uniformly random vectors and
+ *               keeps the best one. The budget of a run is its number of
+ *               random vectors.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import mt.MTRandom;
+
+public class BlindSearch implements Optimizer {
+    // The function being minimized
+    private final Objective objective;
+
+    // Range of the random values, [-range, range]
+    private final double range;
+
+    // The number of dimensions
+    private final int m;
+
+    // The population the starting vector is taken from
+    private final Population population;
+
+    // The vector runs start from
+    private double[] start;
+
+    // The random vector being evaluated
+    private double[] arg;
+
+    // The best vector of the run and its fitness
+    private double[] best;
+    private double fitness;
+
+    // Number of function evaluations
+    private long evaluations;
+
+    // Random number generator, reseeded by every run
+    private final MTRandom r = new MTRandom(0L);
+
+    // Watches the runs, null to run without one
+    private RunHandle handle;
+
+    /**
+     * Constructor, runs start from the first vector of the population
+     *
+     * @param pop       - population, its range bounds the random vectors
+     * @param objective - function to minimize
+     */
+    public BlindSearch(Population pop, Objective objective) {
+        this.objective = objective;
+        this.population = pop;
+        this.range = pop.getRange();
+        this.m = pop.getDimensions();
+        arg = new double[m];
+        best = new double[m];
+        setStart(0);
+    }
+
+    @Override
+    public void setStart(int index) {
+        start = population.getVector(index).clone();
+    }
+
+    @Override
+    public void setHandle(RunHandle handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Runs Blind Search
+     *
+     * @param seed       - seed of the random number generator
+     * @param iterations - number of random vectors
+     * @return - the fitness of the best vector
+     */
+    @Override
+    public double run(long seed, long iterations) {
+        r.setSeed(seed);
+        evaluations = 0;
+        System.arraycopy(start, 0, best, 0, m);
+        fitness = Double.MAX_VALUE;
+        for (long i = 0; i < iterations; i++) {
+            if (handle != null) {
+                if (handle.isCancelled()) {
+                    break;
+                }
+
+                // An injected solution that is better becomes the best vector
+                Improvement in = handle.injected();
+                double[] v = in == null ? null : in.getSolution();
+                if (v != null && v.length == m && in.fitness < fitness) {
+                    fitness = in.fitness;
+                    System.arraycopy(v, 0, best, 0, m);
+                }
+            }
+
+            // Gets a random vector
+            for (int k = 0; k < m; k++) {
+                arg[k] = r.nextDouble() * (range - (-range)) + (-range);
+            }
+
+            // If the fitness is better than the best vector, keep the random vector
+            evaluations++;
+            double fitnessNew = objective.evaluate(arg);
+            if (fitnessNew < fitness) {
+                fitness = fitnessNew;
+                double[] temp = best;
+                best = arg;
+                arg = temp;
+                if (handle != null) {
+                    handle.improved(fitness, best, evaluations);
+                }
+            }
+        }
+
+        // No vector was better, the run ends where it started
+        if (fitness == Double.MAX_VALUE) {
+            fitness = objective.evaluate(best);
+        }
+        return fitness;
+    }
+
+    /**
+     * @return - a copy of the best vector of the last run
+     */
+    @Override
+    public double[] getSolution() {
+        return best.clone();
+    }
+
+    @Override
+    public double getFitness() {
+        return fitness;
+    }
+
+    @Override
+    public long getEvaluations() {
+        return evaluations;
+    }
+}
@@ -0,0 +1,551 @@
+/*
+ * BranchAndBound : A Java implementation of a parallel branch and bound
+ *                  solver for permutation flow shop scheduling. Jobs are
+ *                  appended to a partial schedule one at a time, subtrees
+ *                  are spread over a work-stealing pool and pruned with
+ *                  machine-based lower bounds against a shared incumbent
+ *                  seeded by NEH. Supports the Flow Shop Scheduling (FSS)
+ *                  and Flow Shop Scheduling with Blocking (FSSB) makespans.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class BranchAndBound {
+    // Subtrees with fewer unscheduled jobs than this are never handed out
+    private static final int MIN_SPLIT = 6;
+
+    // The best schedule found by the algorithm
+    public int[] schedule;
+
+    // The makespan of the best schedule
+    public int makespan;
+
+    // The makespan of the schedule the search started from, NEH unless seeded
+    public int upperBound;
+
+    // The lower bound of the root node
+    public int lowerBound;
+
+    // Whether the search finished, proving the schedule optimal
+    public boolean optimal;
+
+    // The number of nodes explored
+    public long nodes;
+
+    // The run time of the search in nanoseconds
+    public long time;
+
+    // The number of machines
+    public int m;
+
+    // The number of jobs
+    public int n;
+
+    // Flat job-major processing times, p[job * m + machine]
+    private final int[] p;
+
+    // Processing time of each job on the machines after machine i, tail[job * m + i]
+    private final int[] tail;
+
+    // Machine pairs of the two-machine bound, and each pair's Johnson order
+    private final int pairs;
+    private final int[] pairK;
+    private final int[] pairL;
+    private final int[] johnson;
+
+    // Processing time of each job between the machines of a pair, lags[pair * n + job]
+    private final int[] lags;
+
+    // The makespan algorithm to use (0 - FSS, 1 - FSSB)
+    private final int alg;
+
+    // Makespan of the incumbent, shared by all workers
+    private final AtomicInteger incumbent;
+
+    // Explored nodes of finished subtrees
+    private final LongAdder explored = new LongAdder();
+
+    // Whether subtrees are handed out to other workers
+    private boolean split;
+
+    // Search limits
+    private volatile boolean stopped;
+    private long deadline;
+    private long nodeLimit;
+
+    /**
+     * Constructor, runs NEH for the starting upper bound
+     *
+     * @param times - the processing times of each job on each machine
+     * @param m     - the number of machines
+     * @param n     - the number of jobs
+     * @param alg   - the algorithm to use (0 - FSS, 1 - FSSB)
+     */
+    public BranchAndBound(int[][] times, int m, int n, int alg) {
+        this.m = m;
+        this.n = n;
+        this.alg = alg;
+        this.p = Makespan.flatten(times, m, n);
+
+        tail = new int[n * m];
+        for (int j = 0; j < n; j++) {
+            for (int i = m - 2; i >= 0; i--) {
+                tail[j * m + i] = tail[j * m + i + 1] + p[j * m + i + 1];
+            }
+        }
+
+        // Johnson's rule with time lags (Mitten) for every pair of machines
+        pairs = m * (m - 1) / 2;
+        pairK = new int[pairs];
+        pairL = new int[pairs];
+        johnson = new int[pairs * n];
+        lags = new int[pairs * n];
+        Integer[] order = new Integer[n];
+        for (int k = 0, pair = 0; k < m; k++) {
+            for (int l = k + 1; l < m; l++, pair++) {
+                pairK[pair] = k;
+                pairL[pair] = l;
+                final int a = k;
+                final int b = l;
+                for (int j = 0; j < n; j++) {
+                    order[j] = j;
+                    lags[pair * n + j] = tail[j * m + k] - tail[j * m + l] - p[j * m + l];
+                }
+                final int from = pair * n;
+                Arrays.sort(order, (x, y) -> {
+                    boolean xFirst = p[x * m + a] < p[x * m + b];
+                    boolean yFirst = p[y * m + a] < p[y * m + b];
+                    if (xFirst != yFirst) {
+                        return xFirst ? -1 : 1;
+                    }
+                    int lx = lags[from + x];
+                    int ly = lags[from + y];
+                    return xFirst ? Integer.compare(p[x * m + a] + lx, p[y * m + a] + ly)
+                            : Integer.compare(p[y * m + b] + ly, p[x * m + b] + lx);
+                });
+                for (int j = 0; j < n; j++) {
+                    johnson[pair * n + j] = order[j];
+                }
+            }
+        }
+
+        NEH neh = new NEH(times, m, n, alg);
+        schedule = neh.schedule.clone();
+        makespan = n > 1 ? neh.makespan : evaluate(schedule);
+        upperBound = makespan;
+        incumbent = new AtomicInteger(makespan);
+    }
+
+    /**
+     * Offers a better starting schedule, such as one found by IteratedGreedy, to
+     * tighten the upper bound before the search
+     *
+     * @param seq - a complete schedule
+     */
+    public synchronized void seed(int[] seq) {
+        int make = evaluate(seq);
+        if (make < incumbent.get()) {
+            System.arraycopy(seq, 0, schedule, 0, n);
+            incumbent.set(make);
+            makespan = make;
+            upperBound = make;
+        }
+    }
+
+    /**
+     * Runs the branch and bound search on the common pool
+     *
+     * @param timeLimit - maximum run time in nanoseconds, zero or less for none
+     * @param nodeLimit - maximum number of nodes, zero or less for none
+     * @return the makespan of the best schedule found
+     */
+    public int solve(long timeLimit, long nodeLimit) {
+        return solve(ForkJoinPool.commonPool(), timeLimit, nodeLimit);
+    }
+
+    /**
+     * Runs the branch and bound search
+     *
+     * @param pool      - the pool to spread subtrees over
+     * @param timeLimit - maximum run time in nanoseconds, zero or less for none
+     * @param nodeLimit - maximum number of nodes, zero or less for none
+     * @return the makespan of the best schedule found
+     */
+    public int solve(ForkJoinPool pool, long timeLimit, long nodeLimit) {
+        long start = System.nanoTime();
+        this.deadline = timeLimit > 0 ? start + timeLimit : Long.MAX_VALUE;
+        this.nodeLimit = nodeLimit > 0 ? nodeLimit : Long.MAX_VALUE;
+        this.stopped = false;
+        this.split = pool.getParallelism() > 1;
+
+        // Root node, nothing scheduled yet
+        int[] rem = new int[m];
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i < m; i++) {
+                rem[i] += p[j * m + i];
+            }
+        }
+        boolean[] used = new boolean[n];
+        int[] minTail = new int[m];
+        for (int i = 0; i < m; i++) {
+            minTail[i] = Integer.MAX_VALUE;
+            for (int j = 0; j < n; j++) {
+                minTail[i] = Math.min(minTail[i], tail[j * m + i]);
+            }
+        }
+        lowerBound = Math.max(bound(new int[m], rem, used), pairBound(new int[m], 0, used, -1, minTail));
+
+        if (lowerBound < incumbent.get()) {
+            pool.invoke(new Subtree(new int[n], 0, new int[m], rem, used));
+        }
+
+        optimal = !stopped;
+        makespan = incumbent.get();
+        nodes = explored.sum();
+        time = System.nanoTime() - start;
+        return makespan;
+    }
+
+    /**
+     * Returns the number of nodes explored per second
+     *
+     * @return - nodes per second
+     */
+    public double getNodesPerSecond() {
+        return time == 0 ? 0 : nodes * 1e9 / time;
+    }
+
+    /**
+     * Machine-based lower bound of a node: every machine still has to process
+     * all unscheduled jobs after it is free, and the last of them still has to
+     * go through the machines after it
+     *
+     * @param row  - completion (FSS) or departure (FSSB) times of the node
+     * @param rem  - remaining processing time on each machine
+     * @param used - the jobs scheduled so far
+     * @return the lower bound of the node
+     */
+    private int bound(int[] row, int[] rem, boolean[] used) {
+        int lb = row[m - 1];
+        for (int i = 0; i < m; i++) {
+            int minTail = Integer.MAX_VALUE;
+            for (int j = 0; j < n; j++) {
+                if (!used[j] && tail[j * m + i] < minTail) {
+                    minTail = tail[j * m + i];
+                }
+            }
+            if (minTail != Integer.MAX_VALUE && row[i] + rem[i] + minTail > lb) {
+                lb = row[i] + rem[i] + minTail;
+            }
+        }
+        return lb;
+    }
+
+    /**
+     * Two-machine bound of Lageweg et al.: for every pair of machines k < l, the
+     * unscheduled jobs in Johnson order with the time spent between k and l as a
+     * lag, plus the smallest tail after machine l
+     *
+     * @param row     - completion (FSS) or departure (FSSB) times of the node
+     * @param off     - offset of the times in row
+     * @param used    - the jobs scheduled so far
+     * @param skip    - an unscheduled job that is scheduled by the node
+     * @param minTail - smallest tail after each machine over the node's
+     *                unscheduled jobs
+     * @return the two-machine bound of the node
+     */
+    private int pairBound(int[] row, int off, boolean[] used, int skip, int[] minTail) {
+        int lb = 0;
+        for (int pair = 0; pair < pairs; pair++) {
+            int k = pairK[pair];
+            int l = pairL[pair];
+            int tk = row[off + k];
+            int tl = row[off + l];
+            int from = pair * n;
+            for (int x = 0; x < n; x++) {
+                int j = johnson[from + x];
+                if (used[j] || j == skip) {
+                    continue;
+                }
+                tk += p[j * m + k];
+                int ready = tk + lags[from + j];
+                tl = (tl > ready ? tl : ready) + p[j * m + l];
+            }
+            tl += minTail[l];
+            if (tl > lb) {
+                lb = tl;
+            }
+        }
+        return lb;
+    }
+
+    /**
+     * Appends a job to a partial schedule
+     *
+     * @param row  - completion (FSS) or departure (FSSB) times of the partial
+     *             schedule
+     * @param from - offset of the times in row
+     * @param job  - the job to append
+     * @param out  - receives the times after the job
+     * @param to   - offset to store the times at in out
+     */
+    private void append(int[] row, int from, int job, int[] out, int to) {
+        int base = job * m;
+        if (alg == 0) {
+            int c = 0;
+            for (int i = 0; i < m; i++) {
+                int up = row[from + i];
+                c = (c > up ? c : up) + p[base + i];
+                out[to + i] = c;
+            }
+        } else {
+            int d = row[from] + p[base];
+            for (int i = 0; i < m - 1; i++) {
+                int next = row[from + i + 1];
+                if (next > d) {
+                    d = next;
+                }
+                out[to + i] = d;
+                d += p[base + i + 1];
+            }
+            out[to + m - 1] = d;
+        }
+    }
+
+    /**
+     * Records a complete schedule if it beats the incumbent
+     *
+     * @param make   - the makespan of the schedule
+     * @param prefix - the first n - 1 jobs of the schedule
+     * @param last   - the last job of the schedule
+     */
+    private synchronized void improve(int make, int[] prefix, int last) {
+        if (make < incumbent.get()) {
+            System.arraycopy(prefix, 0, schedule, 0, n - 1);
+            schedule[n - 1] = last;
+            incumbent.set(make);
+        }
+    }
+
+    /**
+     * Returns the makespan of a complete schedule
+     *
+     * @param seq - the schedule
+     * @return the makespan of the schedule
+     */
+    private int evaluate(int[] seq) {
+        int[] row = new int[m];
+        return alg == 0 ? Makespan.FSS(p, m, seq, n, row) : Makespan.FSSB(p, m, seq, n, row);
+    }
+
+    /**
+     * A subtree of the search, explored depth first. While the pool runs short
+     * of queued work, children are handed out as new subtrees for idle workers
+     * to steal.
+     */
+    private class Subtree extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // Jobs scheduled so far, state at the root of the subtree
+        private final int[] prefix;
+        private final int depth;
+        private final int[] start;
+        private final boolean[] used;
+        private final int[] rem;
+
+        // Times of the partial schedule at each depth, rows[d * m + machine]
+        private int[] rows;
+
+        // Smallest and second smallest tail on each machine over the unscheduled
+        // jobs, and the job with the smallest
+        private int[] min1;
+        private int[] min2;
+        private int[] minJob;
+
+        // Scratch row used while sorting the children
+        private int[] moved;
+
+        // Smallest tail after each machine once the child's job is scheduled
+        private int[] childTail;
+
+        // Times, bounds and jobs of the children at each depth, indexed from d * n
+        private int[] childRows;
+        private int[] childBound;
+        private int[] childJob;
+
+        // Nodes explored by this subtree
+        private long count;
+
+        // Subtrees handed out by this one
+        private final List<Subtree> forked = new ArrayList<>();
+
+        Subtree(int[] prefix, int depth, int[] row, int[] rem, boolean[] used) {
+            this.prefix = prefix;
+            this.depth = depth;
+            this.start = row;
+            this.used = used;
+            this.rem = rem;
+        }
+
+        @Override
+        protected void compute() {
+            // Search buffers only live while the subtree is being explored
+            rows = new int[(n + 1) * m];
+            System.arraycopy(start, 0, rows, depth * m, m);
+            min1 = new int[m];
+            min2 = new int[m];
+            minJob = new int[m];
+            moved = new int[m];
+            childTail = new int[m];
+            childRows = new int[n * n * m];
+            childBound = new int[n * n];
+            childJob = new int[n * n];
+
+            search(depth);
+
+            rows = null;
+            childRows = null;
+            childBound = null;
+            childJob = null;
+            explored.add(count);
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                forked.get(i).join();
+            }
+        }
+
+        /**
+         * Explores the node at depth d, its partial schedule is in prefix and its
+         * times are in rows at row d
+         *
+         * @param d - the number of scheduled jobs
+         */
+        private void search(int d) {
+            if (stopped) {
+                return;
+            }
+            count++;
+            if ((count & 1023) == 0 && (System.nanoTime() > deadline || explored.sum() + count > nodeLimit)) {
+                stopped = true;
+                return;
+            }
+
+            // Smallest tails per machine, so each child's bound is O(m)
+            for (int i = 0; i < m; i++) {
+                min1[i] = Integer.MAX_VALUE;
+                min2[i] = Integer.MAX_VALUE;
+                for (int j = 0; j < n; j++) {
+                    if (used[j]) {
+                        continue;
+                    }
+                    int t = tail[j * m + i];
+                    if (t < min1[i]) {
+                        min2[i] = min1[i];
+                        min1[i] = t;
+                        minJob[i] = j;
+                    } else if (t < min2[i]) {
+                        min2[i] = t;
+                    }
+                }
+            }
+
+            // Score every child, children that can't beat the incumbent are dropped
+            int at = d * n;
+            int kids = 0;
+            int best = incumbent.get();
+            boolean leaf = d + 1 == n;
+            for (int j = 0; j < n; j++) {
+                if (used[j]) {
+                    continue;
+                }
+                int slot = (at + kids) * m;
+                append(rows, d * m, j, childRows, slot);
+
+                int lb = childRows[slot + m - 1];
+                if (!leaf) {
+                    for (int i = 0; i < m; i++) {
+                        childTail[i] = minJob[i] == j ? min2[i] : min1[i];
+                        int machine = childRows[slot + i] + rem[i] - p[j * m + i] + childTail[i];
+                        if (machine > lb) {
+                            lb = machine;
+                        }
+                    }
+
+                    // The two-machine bound is stronger but costs O(m^2 n)
+                    if (lb < best) {
+                        int two = pairBound(childRows, slot, used, j, childTail);
+                        if (two > lb) {
+                            lb = two;
+                        }
+                    }
+                }
+                if (lb >= best) {
+                    continue;
+                }
+
+                // Keep the children sorted by bound, most promising first
+                int k = kids;
+                while (k > 0 && childBound[at + k - 1] > lb) {
+                    childBound[at + k] = childBound[at + k - 1];
+                    childJob[at + k] = childJob[at + k - 1];
+                    k--;
+                }
+                if (k < kids) {
+                    System.arraycopy(childRows, slot, moved, 0, m);
+                    System.arraycopy(childRows, (at + k) * m, childRows, (at + k + 1) * m, (kids - k) * m);
+                    System.arraycopy(moved, 0, childRows, (at + k) * m, m);
+                }
+                childBound[at + k] = lb;
+                childJob[at + k] = j;
+                kids++;
+            }
+
+            for (int k = 0; k < kids; k++) {
+                if (childBound[at + k] >= incumbent.get()) {
+                    break;
+                }
+                int j = childJob[at + k];
+
+                // A complete schedule, its bound is its makespan
+                if (leaf) {
+                    improve(childBound[at + k], prefix, j);
+                    continue;
+                }
+
+                prefix[d] = j;
+                used[j] = true;
+                for (int i = 0; i < m; i++) {
+                    rem[i] -= p[j * m + i];
+                }
+
+                if (split && n - d - 1 >= MIN_SPLIT && getSurplusQueuedTaskCount() < 2) {
+                    // Hand the child out to the pool with its own copy of the state
+                    int[] childRow = new int[m];
+                    System.arraycopy(childRows, (at + k) * m, childRow, 0, m);
+                    Subtree sub = new Subtree(prefix.clone(), d + 1, childRow, rem.clone(), used.clone());
+                    sub.fork();
+                    forked.add(sub);
+                } else {
+                    System.arraycopy(childRows, (at + k) * m, rows, (d + 1) * m, m);
+                    search(d + 1);
+                }
+
+                used[j] = false;
+                for (int i = 0; i < m; i++) {
+                    rem[i] += p[j * m + i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,621 @@
+/*
+ * CMAES : Covariance Matrix Adaptation Evolution Strategy engine, with
+ *         cumulative step-size adaptation and rank-one and rank-mu updates
+ *         of the covariance matrix (Hansen, The CMA Evolution Strategy: A
+ *         Tutorial). The covariance matrix is kept in a flat array and only
+ *         decomposed again once enough evaluations have passed since the
+ *         last decomposition. The separable variant (Ros and Hansen, 2008)
+ *         only adapts the diagonal, so a generation costs O(lambda D)
+ *         instead of O(lambda D^2) and D can be in the thousands.
+ *
+ *         The offspring are drawn from one random number generator in
+ *         order and then transformed and evaluated in parallel when they
+ *         are large enough, so runs do not depend on the number of threads.
+ *         The budget of a run is its number of generations.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import mt.MTRandom;
+
+public class CMAES implements Optimizer {
+    // Work per offspring, in multiply-adds, from which offspring are evaluated in parallel
+    private static final int PARALLEL_WORK = 4096;
+
+    // The function being minimized
+    private final Objective objective;
+
+    // Whether only the diagonal of the covariance matrix is adapted
+    private final boolean separable;
+
+    // Dimensions, number of offspring and number of parents
+    private final int N;
+    private final int lambda;
+    private final int mu;
+
+    // Recombination weights and the variance effective selection mass
+    private final double[] weights;
+    private final double mueff;
+
+    // Learning rates and damping
+    private final double cc;
+    private final double cs;
+    private final double c1;
+    private final double cmu;
+    private final double damps;
+
+    // Expected length of a standard normal vector
+    private final double chiN;
+
+    // Starting mean and step size
+    private final double[] start;
+    private final double sigma0;
+
+    // Whether the offspring are transformed and evaluated in parallel
+    private final boolean parallel;
+
+    // Mean and step size
+    private final double[] mean;
+    private double sigma;
+
+    // Evolution paths
+    private final double[] pc;
+    private final double[] ps;
+
+    // Covariance matrix C = B diag(D^2) B^T, row-major, its eigenvectors in
+    // the columns of B and the square roots of its eigenvalues in D. The
+    // separable variant only uses D, the square roots of the diagonal of C.
+    private final double[] C;
+    private final double[] B;
+    private final double[] D;
+
+    // Evaluations at the last decomposition
+    private long eigenEvaluations;
+
+    // Standard normal samples and their transforms, one row per offspring
+    private final double[] z;
+    private final double[] y;
+
+    // The offspring
+    private final double[][] x;
+
+    // Fitness of the offspring and their order by fitness
+    private final double[] fit;
+    private final int[] order;
+
+    // Work buffers of the decomposition and the mean updates
+    private final double[] e;
+    private final double[] zw;
+    private final double[] yw;
+
+    // Best vector found by the run and its fitness
+    private final double[] best;
+    private double fitness;
+
+    // Number of function evaluations
+    private long evaluations;
+
+    // Random number generator, reseeded by every run
+    private final MTRandom r = new MTRandom(0L);
+
+    // Watches the runs, null to run without one
+    private RunHandle handle;
+
+    /**
+     * Constructor, the mean starts at the centroid of the population and the
+     * number of offspring is the population size
+     *
+     * @param pop       - population, its range sets the starting step size
+     * @param objective - function to minimize
+     * @param separable - whether only the diagonal of the covariance matrix is
+     *                  adapted
+     */
+    public CMAES(Population pop, Objective objective, boolean separable) {
+        this(centroid(pop), 0.6 * pop.getRange(), Math.max(pop.size(), 4), objective, separable);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param start     - the starting mean
+     * @param sigma     - the starting step size
+     * @param lambda    - number of offspring per generation, at least 4
+     * @param objective - function to minimize
+     * @param separable - whether only the diagonal of the covariance matrix is
+     *                  adapted
+     */
+    public CMAES(double[] start, double sigma, int lambda, Objective objective, boolean separable) {
+        this.objective = objective;
+        this.separable = separable;
+        this.start = start.clone();
+        this.sigma0 = sigma;
+        this.N = start.length;
+        this.lambda = lambda;
+        this.mu = lambda / 2;
+
+        // Log-linear weights, normalized to sum to one
+        weights = new double[mu];
+        double sum = 0;
+        for (int i = 0; i < mu; i++) {
+            weights[i] = Math.log(mu + 0.5) - Math.log(i + 1);
+            sum += weights[i];
+        }
+        double sumSq = 0;
+        for (int i = 0; i < mu; i++) {
+            weights[i] /= sum;
+            sumSq += weights[i] * weights[i];
+        }
+        mueff = 1 / sumSq;
+
+        cc = (4 + mueff / N) / (N + 4 + 2 * mueff / N);
+        cs = (mueff + 2) / (N + mueff + 5);
+        double rankOne = 2 / ((N + 1.3) * (N + 1.3) + mueff);
+        double rankMu = 2 * (mueff - 2 + 1 / mueff) / ((N + 2) * (N + 2) + mueff);
+        if (separable) {
+            // The diagonal has N instead of N^2 / 2 free values, so it can learn faster
+            rankOne *= (N + 2) / 3.0;
+            rankMu *= (N + 2) / 3.0;
+        }
+        c1 = Math.min(rankOne, 1);
+        cmu = Math.min(rankMu, 1 - c1);
+        damps = 1 + 2 * Math.max(0, Math.sqrt((mueff - 1) / (N + 1)) - 1) + cs;
+        chiN = Math.sqrt(N) * (1 - 1.0 / (4 * N) + 1.0 / (21.0 * N * N));
+
+        parallel = (separable ? N : (long) N * N) >= PARALLEL_WORK;
+
+        mean = new double[N];
+        pc = new double[N];
+        ps = new double[N];
+        C = separable ? null : new double[N * N];
+        B = separable ? null : new double[N * N];
+        D = new double[N];
+        z = new double[lambda * N];
+        y = new double[lambda * N];
+        x = new double[lambda][N];
+        fit = new double[lambda];
+        order = new int[lambda];
+        e = new double[N];
+        zw = new double[N];
+        yw = new double[N];
+        best = new double[N];
+    }
+
+    /**
+     * Returns the centroid of a population
+     *
+     * @param pop - the population
+     * @return - the mean of its vectors
+     */
+    private static double[] centroid(Population pop) {
+        double[] c = new double[pop.getDimensions()];
+        for (int i = 0; i < pop.size(); i++) {
+            double[] v = pop.getVector(i);
+            for (int k = 0; k < c.length; k++) {
+                c[k] += v[k] / pop.size();
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public void setHandle(RunHandle handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Runs CMA-ES
+     *
+     * @param seed        - seed of the random number generator
+     * @param generations - Number of generations
+     * @return - the fitness of the best vector
+     */
+    @Override
+    public double run(long seed, long generations) {
+        r.setSeed(seed);
+        evaluations = 0;
+        eigenEvaluations = 0;
+        fitness = Double.MAX_VALUE;
+        System.arraycopy(start, 0, mean, 0, N);
+        System.arraycopy(start, 0, best, 0, N);
+        sigma = sigma0;
+        for (int k = 0; k < N; k++) {
+            pc[k] = 0;
+            ps[k] = 0;
+            D[k] = 1;
+        }
+        if (!separable) {
+            for (int i = 0; i < N * N; i++) {
+                C[i] = 0;
+                B[i] = 0;
+            }
+            for (int k = 0; k < N; k++) {
+                C[k * N + k] = 1;
+                B[k * N + k] = 1;
+            }
+        }
+
+        for (long g = 0; g < generations; g++) {
+            if (handle != null && handle.isCancelled()) {
+                break;
+            }
+
+            // Sample in order, then transform and evaluate every offspring
+            for (int i = 0; i < lambda * N; i++) {
+                z[i] = r.nextGaussian();
+            }
+            if (parallel) {
+                Campaign.forEach(lambda, this::offspring);
+            } else {
+                for (int i = 0; i < lambda; i++) {
+                    offspring(i);
+                }
+            }
+            evaluations += lambda;
+
+            // Order the offspring by fitness, a stable insertion sort
+            for (int i = 0; i < lambda; i++) {
+                int j = i;
+                while (j > 0 && fit[order[j - 1]] > fit[i]) {
+                    order[j] = order[j - 1];
+                    j--;
+                }
+                order[j] = i;
+            }
+            if (fit[order[0]] < fitness) {
+                fitness = fit[order[0]];
+                System.arraycopy(x[order[0]], 0, best, 0, N);
+                if (handle != null) {
+                    handle.improved(fitness, best, evaluations);
+                }
+            }
+
+            update(g);
+        }
+
+        // No offspring was evaluated, the run ends at its starting mean
+        if (fitness == Double.MAX_VALUE) {
+            fitness = objective.evaluate(best);
+        }
+        return fitness;
+    }
+
+    /**
+     * Transforms the samples of one offspring and evaluates it
+     *
+     * @param i - index of the offspring
+     */
+    private void offspring(int i) {
+        int row = i * N;
+        if (separable) {
+            for (int k = 0; k < N; k++) {
+                y[row + k] = D[k] * z[row + k];
+            }
+        } else {
+            for (int k = 0; k < N; k++) {
+                double sum = 0;
+                int b = k * N;
+                for (int j = 0; j < N; j++) {
+                    sum += B[b + j] * D[j] * z[row + j];
+                }
+                y[row + k] = sum;
+            }
+        }
+        double[] v = x[i];
+        for (int k = 0; k < N; k++) {
+            v[k] = mean[k] + sigma * y[row + k];
+        }
+        fit[i] = objective.evaluate(v);
+    }
+
+    /**
+     * Moves the mean to the best offspring and adapts the evolution paths, the
+     * covariance matrix and the step size
+     *
+     * @param g - the generation that was sampled
+     */
+    private void update(long g) {
+        // Weighted means of the samples and of their transforms of the best mu offspring
+        for (int k = 0; k < N; k++) {
+            zw[k] = 0;
+            yw[k] = 0;
+        }
+        for (int i = 0; i < mu; i++) {
+            int row = order[i] * N;
+            for (int k = 0; k < N; k++) {
+                zw[k] += weights[i] * z[row + k];
+                yw[k] += weights[i] * y[row + k];
+            }
+        }
+        for (int k = 0; k < N; k++) {
+            mean[k] += sigma * yw[k];
+        }
+
+        // Conjugate evolution path, C^(-1/2) yw is B zw, or zw for the diagonal
+        double a = Math.sqrt(cs * (2 - cs) * mueff);
+        double norm = 0;
+        for (int k = 0; k < N; k++) {
+            double step = zw[k];
+            if (!separable) {
+                step = 0;
+                int b = k * N;
+                for (int j = 0; j < N; j++) {
+                    step += B[b + j] * zw[j];
+                }
+            }
+            ps[k] = (1 - cs) * ps[k] + a * step;
+            norm += ps[k] * ps[k];
+        }
+        norm = Math.sqrt(norm);
+
+        // Evolution path, stalled while the step size grows fast
+        boolean hsig = norm / Math.sqrt(1 - Math.pow(1 - cs, 2 * (g + 1))) / chiN < 1.4 + 2.0 / (N + 1);
+        double c = Math.sqrt(cc * (2 - cc) * mueff);
+        for (int k = 0; k < N; k++) {
+            pc[k] = (1 - cc) * pc[k] + (hsig ? c * yw[k] : 0);
+        }
+
+        // Rank-one and rank-mu updates
+        double keep = 1 - c1 - cmu + (hsig ? 0 : c1 * cc * (2 - cc));
+        if (separable) {
+            for (int k = 0; k < N; k++) {
+                double rankMu = 0;
+                for (int i = 0; i < mu; i++) {
+                    double v = y[order[i] * N + k];
+                    rankMu += weights[i] * v * v;
+                }
+                D[k] = Math.sqrt(keep * D[k] * D[k] + c1 * pc[k] * pc[k] + cmu * rankMu);
+            }
+        } else {
+            for (int k = 0; k < N; k++) {
+                int row = k * N;
+                for (int j = 0; j <= k; j++) {
+                    double rankMu = 0;
+                    for (int i = 0; i < mu; i++) {
+                        int o = order[i] * N;
+                        rankMu += weights[i] * y[o + k] * y[o + j];
+                    }
+                    C[row + j] = keep * C[row + j] + c1 * pc[k] * pc[j] + cmu * rankMu;
+                    C[j * N + k] = C[row + j];
+                }
+            }
+
+            // The decomposition costs O(N^3), it is only updated once C changed enough
+            if (evaluations - eigenEvaluations > lambda / (c1 + cmu) / N / 10) {
+                eigenEvaluations = evaluations;
+                decompose();
+            }
+        }
+
+        sigma *= Math.exp((cs / damps) * (norm / chiN - 1));
+    }
+
+    /**
+     * Decomposes C into its eigenvectors, in the columns of B, and the square
+     * roots of its eigenvalues, in D. Householder reduction to tridiagonal
+     * form followed by the QL algorithm, as in JAMA.
+     */
+    private void decompose() {
+        System.arraycopy(C, 0, B, 0, N * N);
+        double[] d = D;
+        tridiagonalize(B, d, e, N);
+        diagonalize(B, d, e, N);
+        for (int k = 0; k < N; k++) {
+            // Rounding can leave tiny negative eigenvalues
+            d[k] = Math.sqrt(Math.max(d[k], 1e-300));
+        }
+    }
+
+    /**
+     * Householder reduction of a symmetric matrix to tridiagonal form
+     *
+     * @param V - the matrix, row-major, replaced by the orthogonal transformation
+     * @param d - the diagonal of the tridiagonal matrix, written
+     * @param e - the subdiagonal of the tridiagonal matrix, written
+     * @param n - the order of the matrix
+     */
+    private static void tridiagonalize(double[] V, double[] d, double[] e, int n) {
+        for (int j = 0; j < n; j++) {
+            d[j] = V[(n - 1) * n + j];
+        }
+
+        for (int i = n - 1; i > 0; i--) {
+            // Scale to avoid under/overflow
+            double scale = 0;
+            double h = 0;
+            for (int k = 0; k < i; k++) {
+                scale += Math.abs(d[k]);
+            }
+            if (scale == 0) {
+                e[i] = d[i - 1];
+                for (int j = 0; j < i; j++) {
+                    d[j] = V[(i - 1) * n + j];
+                    V[i * n + j] = 0;
+                    V[j * n + i] = 0;
+                }
+            } else {
+                // Generate the Householder vector
+                for (int k = 0; k < i; k++) {
+                    d[k] /= scale;
+                    h += d[k] * d[k];
+                }
+                double f = d[i - 1];
+                double g = Math.sqrt(h);
+                if (f > 0) {
+                    g = -g;
+                }
+                e[i] = scale * g;
+                h -= f * g;
+                d[i - 1] = f - g;
+                for (int j = 0; j < i; j++) {
+                    e[j] = 0;
+                }
+
+                // Apply the similarity transformation to the remaining columns
+                for (int j = 0; j < i; j++) {
+                    f = d[j];
+                    V[j * n + i] = f;
+                    g = e[j] + V[j * n + j] * f;
+                    for (int k = j + 1; k <= i - 1; k++) {
+                        g += V[k * n + j] * d[k];
+                        e[k] += V[k * n + j] * f;
+                    }
+                    e[j] = g;
+                }
+                f = 0;
+                for (int j = 0; j < i; j++) {
+                    e[j] /= h;
+                    f += e[j] * d[j];
+                }
+                double hh = f / (h + h);
+                for (int j = 0; j < i; j++) {
+                    e[j] -= hh * d[j];
+                }
+                for (int j = 0; j < i; j++) {
+                    f = d[j];
+                    g = e[j];
+                    for (int k = j; k <= i - 1; k++) {
+                        V[k * n + j] -= f * e[k] + g * d[k];
+                    }
+                    d[j] = V[(i - 1) * n + j];
+                    V[i * n + j] = 0;
+                }
+            }
+            d[i] = h;
+        }
+
+        // Accumulate the transformations
+        for (int i = 0; i < n - 1; i++) {
+            V[(n - 1) * n + i] = V[i * n + i];
+            V[i * n + i] = 1;
+            double h = d[i + 1];
+            if (h != 0) {
+                for (int k = 0; k <= i; k++) {
+                    d[k] = V[k * n + i + 1] / h;
+                }
+                for (int j = 0; j <= i; j++) {
+                    double g = 0;
+                    for (int k = 0; k <= i; k++) {
+                        g += V[k * n + i + 1] * V[k * n + j];
+                    }
+                    for (int k = 0; k <= i; k++) {
+                        V[k * n + j] -= g * d[k];
+                    }
+                }
+            }
+            for (int k = 0; k <= i; k++) {
+                V[k * n + i + 1] = 0;
+            }
+        }
+        for (int j = 0; j < n; j++) {
+            d[j] = V[(n - 1) * n + j];
+            V[(n - 1) * n + j] = 0;
+        }
+        V[(n - 1) * n + n - 1] = 1;
+        e[0] = 0;
+    }
+
+    /**
+     * QL algorithm with implicit shifts on a symmetric tridiagonal matrix
+     *
+     * @param V - the transformation of tridiagonalize, replaced by the
+     *          eigenvectors in its columns
+     * @param d - the diagonal, replaced by the eigenvalues
+     * @param e - the subdiagonal, overwritten
+     * @param n - the order of the matrix
+     */
+    private static void diagonalize(double[] V, double[] d, double[] e, int n) {
+        for (int i = 1; i < n; i++) {
+            e[i - 1] = e[i];
+        }
+        e[n - 1] = 0;
+
+        double f = 0;
+        double tst1 = 0;
+        double eps = Math.ulp(1.0);
+        for (int l = 0; l < n; l++) {
+            // Find a small subdiagonal element
+            tst1 = Math.max(tst1, Math.abs(d[l]) + Math.abs(e[l]));
+            int m = l;
+            while (m < n - 1 && Math.abs(e[m]) > eps * tst1) {
+                m++;
+            }
+
+            // If m == l, d[l] is already an eigenvalue, otherwise iterate
+            if (m > l) {
+                do {
+                    // Compute the implicit shift
+                    double g = d[l];
+                    double p = (d[l + 1] - g) / (2 * e[l]);
+                    double r = Math.hypot(p, 1);
+                    if (p < 0) {
+                        r = -r;
+                    }
+                    d[l] = e[l] / (p + r);
+                    d[l + 1] = e[l] * (p + r);
+                    double dl1 = d[l + 1];
+                    double h = g - d[l];
+                    for (int i = l + 2; i < n; i++) {
+                        d[i] -= h;
+                    }
+                    f += h;
+
+                    // Implicit QL transformation
+                    p = d[m];
+                    double c = 1;
+                    double c2 = c;
+                    double c3 = c;
+                    double el1 = e[l + 1];
+                    double s = 0;
+                    double s2 = 0;
+                    for (int i = m - 1; i >= l; i--) {
+                        c3 = c2;
+                        c2 = c;
+                        s2 = s;
+                        g = c * e[i];
+                        h = c * p;
+                        r = Math.hypot(p, e[i]);
+                        e[i + 1] = s * r;
+                        s = e[i] / r;
+                        c = p / r;
+                        p = c * d[i] - s * g;
+                        d[i + 1] = h + s * (c * g + s * d[i]);
+
+                        // Accumulate the transformation
+                        for (int k = 0; k < n; k++) {
+                            h = V[k * n + i + 1];
+                            V[k * n + i + 1] = s * V[k * n + i] + c * h;
+                            V[k * n + i] = c * V[k * n + i] - s * h;
+                        }
+                    }
+                    p = -s * s2 * c3 * el1 * e[l] / dl1;
+                    e[l] = s * p;
+                    d[l] = c * p;
+                } while (Math.abs(e[l]) > eps * tst1);
+            }
+            d[l] += f;
+            e[l] = 0;
+        }
+    }
+
+    /**
+     * @return - a copy of the best vector of the last run
+     */
+    @Override
+    public double[] getSolution() {
+        return best.clone();
+    }
+
+    @Override
+    public double getFitness() {
+        return fitness;
+    }
+
+    @Override
+    public long getEvaluations() {
+        return evaluations;
+    }
+}
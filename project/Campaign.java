@@ -0,0 +1,137 @@
+/*
+ * Campaign : Runs the independent runs of an experiment campaign on a
+ *            work-stealing pool, and derives a reproducible seed for every
+ *            run from a single campaign seed.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+public class Campaign {
+    // Seed used when the campaign.seed property is not set
+    public static final long DEFAULT_SEED = 5489L;
+
+    // Weyl increment of the SplitMix64 generator
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Returns the campaign seed, read from the campaign.seed system property
+     *
+     * @return - the campaign seed
+     */
+    public static long seed() {
+        return Long.getLong("campaign.seed", DEFAULT_SEED);
+    }
+
+    /**
+     * Returns the seed of one stream of a campaign, such as an input line, or of
+     * one run within a line. Seeds only depend on the parent seed and the index,
+     * never on which thread or in which order the runs execute.
+     *
+     * @param parent - the campaign or line seed
+     * @param index  - the index of the line or run
+     * @return - the derived seed
+     */
+    public static long seed(long parent, int index) {
+        return mix(mix(parent) + (index + 1) * GOLDEN);
+    }
+
+    /**
+     * Returns the seed of a named stream of a campaign, such as an experiment
+     * configuration. The seed only depends on the parent seed and the name, so a
+     * configuration keeps its seeds when other lines of the input file change.
+     *
+     * @param parent - the campaign seed
+     * @param name   - the name of the stream
+     * @return - the derived seed
+     */
+    public static long seed(long parent, String name) {
+        // FNV-1a over the name
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < name.length(); i++) {
+            h = (h ^ name.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(mix(parent) ^ h);
+    }
+
+    /**
+     * Creates the pool a campaign runs on, sized by the campaign.threads system
+     * property and by default using every core
+     *
+     * @return - the pool
+     */
+    public static ForkJoinPool pool() {
+        int threads = Integer.getInteger("campaign.threads", Runtime.getRuntime().availableProcessors());
+        return new ForkJoinPool(Math.max(1, threads));
+    }
+
+    /**
+     * Runs run(0) to run(n - 1) in parallel and waits for all of them. Called
+     * from a pool worker the runs are split into tasks that idle workers steal,
+     * otherwise they run in the common pool.
+     *
+     * @param n   - the number of runs
+     * @param run - the run to execute for each index
+     */
+    public static void forEach(int n, IntConsumer run) {
+        if (n <= 0) {
+            return;
+        }
+        Runs task = new Runs(0, n, run);
+        if (ForkJoinTask.inForkJoinPool()) {
+            task.invoke();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+    }
+
+    /**
+     * SplitMix64 finalizer, spreads nearby seeds over the whole range
+     *
+     * @param z - the value to mix
+     * @return - the mixed value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * A range of runs, split in halves until one run is left
+     */
+    private static class Runs extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // Range of runs to execute
+        private final int from;
+        private final int to;
+
+        // The run to execute for each index
+        private final IntConsumer run;
+
+        Runs(int from, int to, IntConsumer run) {
+            this.from = from;
+            this.to = to;
+            this.run = run;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                run.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Runs(from, mid, run), new Runs(mid, to, run));
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Checkpoint : Memory-mapped checkpoint file for long running searches.
+ *              The file holds two slots and every save goes to the older
+ *              one, so a crash while saving leaves the previous
+ *              checkpoint intact. A slot is a sequence number, the payload
+ *              length and its CRC32, then the payload; the valid slot with
+ *              the highest sequence number is restored.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+public class Checkpoint implements AutoCloseable {
+    // "FSPC" read as a little-endian int
+    public static final int MAGIC = 0x43505346;
+
+    // Version of the file format
+    public static final int VERSION = 1;
+
+    // Seconds between checkpoints when the checkpoint.interval property is not set
+    public static final long DEFAULT_INTERVAL = 5;
+
+    // Bytes before the first slot, and before the payload of a slot
+    private static final int HEADER = 16;
+    private static final int SLOT_HEADER = 16;
+
+    // The checkpoint file
+    private final Path file;
+
+    // The mapped file
+    private MappedByteBuffer map;
+
+    // Most payload bytes of a slot
+    private final int capacity;
+
+    // Nanoseconds between checkpoints
+    private final long interval;
+
+    // When the next checkpoint is due
+    private long next;
+
+    // Sequence number of the newest slot
+    private long sequence;
+
+    // Slot the next save goes to
+    private int slot;
+
+    // Payload of the slot being saved
+    private ByteBuffer payload;
+
+    /**
+     * Constructor, the interval is read from the checkpoint.interval system
+     * property (in seconds)
+     *
+     * @param file     - the checkpoint file
+     * @param capacity - most payload bytes
+     * @exception IOException - if the file can not be opened
+     */
+    public Checkpoint(Path file, int capacity) throws IOException {
+        this(file, capacity, TimeUnit.SECONDS.toNanos(Long.getLong("checkpoint.interval", DEFAULT_INTERVAL)));
+    }
+
+    /**
+     * Constructor, opens the checkpoint file or creates it. A file with another
+     * layout is started over.
+     *
+     * @param file     - the checkpoint file
+     * @param capacity - most payload bytes
+     * @param interval - nanoseconds between checkpoints
+     * @exception IOException - if the file can not be opened
+     */
+    public Checkpoint(Path file, int capacity, long interval) throws IOException {
+        this.file = file;
+        this.capacity = capacity;
+        this.interval = interval;
+        this.next = System.nanoTime() + interval;
+
+        long size = HEADER + 2L * (SLOT_HEADER + capacity);
+        boolean fresh = !Files.exists(file) || Files.size(file) != size;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            if (fresh) {
+                ch.truncate(0);
+            }
+            map = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (fresh || map.getInt(0) != MAGIC || map.getInt(4) != VERSION || map.getInt(8) != capacity) {
+            for (int s = 0; s < 2; s++) {
+                map.putLong(offset(s), 0);
+            }
+            map.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, capacity);
+            map.force();
+        }
+
+        // Save over the older slot first
+        int newest = newest();
+        sequence = newest < 0 ? 0 : map.getLong(offset(newest));
+        slot = newest < 0 ? 0 : 1 - newest;
+    }
+
+    /**
+     * Returns whether the interval has passed since the last save
+     *
+     * @return - true if a checkpoint is due
+     */
+    public boolean due() {
+        return System.nanoTime() - next >= 0;
+    }
+
+    /**
+     * Starts a save, the state is written into the returned buffer
+     *
+     * @return - empty little-endian payload buffer
+     */
+    public ByteBuffer begin() {
+        map.putLong(offset(slot), 0);
+        payload = map.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        payload.position(offset(slot) + SLOT_HEADER).limit(offset(slot) + SLOT_HEADER + capacity);
+        payload = payload.slice().order(ByteOrder.LITTLE_ENDIAN);
+        return payload;
+    }
+
+    /**
+     * Finishes a save, making it the checkpoint that is restored
+     */
+    public void commit() {
+        int length = payload.position();
+        CRC32 crc = new CRC32();
+        ByteBuffer data = payload.duplicate();
+        data.flip();
+        crc.update(data);
+
+        int at = offset(slot);
+        map.putInt(at + 8, length).putInt(at + 12, (int) crc.getValue());
+        map.force();
+
+        // The sequence number goes last, it makes the slot valid
+        map.putLong(at, ++sequence);
+        map.force();
+
+        slot = 1 - slot;
+        payload = null;
+        next = System.nanoTime() + interval;
+    }
+
+    /**
+     * Returns the newest saved state
+     *
+     * @return - read-only little-endian payload, null if nothing was saved
+     */
+    public ByteBuffer restore() {
+        int newest = newest();
+        if (newest < 0) {
+            return null;
+        }
+        int at = offset(newest);
+        ByteBuffer data = map.duplicate();
+        data.position(at + SLOT_HEADER).limit(at + SLOT_HEADER + map.getInt(at + 8));
+        return data.slice().asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Closes the checkpoint and deletes its file, for runs that finished
+     *
+     * @exception IOException - if the file can not be deleted
+     */
+    public void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Closes the checkpoint, the file stays for a later resume
+     */
+    @Override
+    public void close() {
+        map = null;
+    }
+
+    /**
+     * @return - the newest slot with a valid payload, -1 if there is none
+     */
+    private int newest() {
+        int newest = -1;
+        long best = 0;
+        for (int s = 0; s < 2; s++) {
+            int at = offset(s);
+            long seq = map.getLong(at);
+            int length = map.getInt(at + 8);
+            if (seq <= best || length < 0 || length > capacity) {
+                continue;
+            }
+            CRC32 crc = new CRC32();
+            ByteBuffer data = map.duplicate();
+            data.position(at + SLOT_HEADER).limit(at + SLOT_HEADER + length);
+            crc.update(data);
+            if ((int) crc.getValue() == map.getInt(at + 12)) {
+                newest = s;
+                best = seq;
+            }
+        }
+        return newest;
+    }
+
+    /**
+     * @param s - the slot
+     * @return - offset of the slot in the file
+     */
+    private int offset(int s) {
+        return HEADER + s * (SLOT_HEADER + capacity);
+    }
+}
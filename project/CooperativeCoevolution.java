@@ -0,0 +1,514 @@
+/*
+ * CooperativeCoevolution : Cooperative coevolution engine for problems with
+ *                          many dimensions. The dimensions are split into
+ *                          groups, either at random again every cycle or
+ *                          once by differential grouping, and every cycle
+ *                          optimizes each group with Differential Evolution
+ *                          while the other dimensions are taken from a
+ *                          shared context vector, the best vector so far.
+ *
+ *                          The groups of a cycle are optimized in parallel
+ *                          against the context of the start of the cycle,
+ *                          then the best vector of each group is put into
+ *                          the context, in group order, when it improves it.
+ *                          Problems that are sums of terms are evaluated
+ *                          partially, so evaluating a group costs as much as
+ *                          the group instead of the whole vector. The
+ *                          budget of a run is its number of cycles.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import mt.MTRandom;
+
+public class CooperativeCoevolution implements Optimizer {
+    // Grouping methods
+    public static final int RANDOM = 0;
+    public static final int DIFFERENTIAL = 1;
+
+    // Settings used when the cc.group and cc.generations properties are not set
+    public static final int DEFAULT_GROUP_SIZE = 100;
+    public static final int DEFAULT_GENERATIONS = 5;
+
+    // The problem type
+    private final int problem;
+
+    // The function being minimized, on whole vectors
+    private final Objective objective;
+
+    // The starting population
+    private final Population population;
+
+    // Dimensions, population size and range
+    private final int D;
+    private final int NP;
+    private final double range;
+
+    // Largest number of dimensions in a group
+    private final int groupSize;
+
+    // DE generations per group and cycle
+    private final int generations;
+
+    // The grouping method (0 - random, 1 - differential)
+    private final int grouping;
+
+    // Crossover type and mutation method of DE
+    private final int crosstype;
+    private final int method;
+
+    // The population of the run, each group evolves its columns
+    private final double[][] rows;
+
+    // The groups found by differential grouping, null until the first run
+    private int[][] groups;
+
+    // Function evaluations of differential grouping
+    private long groupingEvaluations;
+
+    // The context vector and its partial evaluation, null if the problem is
+    // not a sum of terms
+    private double[] context;
+    private PartialEvaluation eval;
+
+    // Fitness of the context vector
+    private double fitness;
+
+    // Number of function evaluations, partial ones included
+    private long evaluations;
+
+    // Random number generator of the grouping, reseeded by every run
+    private final MTRandom r = new MTRandom(0L);
+
+    // Watches the runs, null to run without one
+    private RunHandle handle;
+
+    /**
+     * Constructor, the group size, the DE generations per group and the
+     * grouping method are read from the cc.group, cc.generations and
+     * cc.grouping (random or differential, the default) system properties
+     *
+     * @param pop       - starting population
+     * @param objective - the function being minimized, on whole vectors
+     * @param problem   - problem type, the terms of the partial evaluations
+     *                  must add up to the objective
+     * @param crosstype - crossover type of DE
+     * @param method    - mutation method of DE
+     */
+    public CooperativeCoevolution(Population pop, Objective objective, int problem, int crosstype, int method) {
+        this(pop, objective, problem, crosstype, method, Integer.getInteger("cc.group", DEFAULT_GROUP_SIZE),
+                Integer.getInteger("cc.generations", DEFAULT_GENERATIONS),
+                "random".equals(System.getProperty("cc.grouping")) ? RANDOM : DIFFERENTIAL);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param pop         - starting population
+     * @param objective   - the function being minimized, on whole vectors
+     * @param problem     - problem type, the terms of the partial evaluations
+     *                    must add up to the objective
+     * @param crosstype   - crossover type of DE
+     * @param method      - mutation method of DE
+     * @param groupSize   - largest number of dimensions in a group
+     * @param generations - DE generations per group and cycle
+     * @param grouping    - grouping method (0 - random, 1 - differential)
+     */
+    public CooperativeCoevolution(Population pop, Objective objective, int problem, int crosstype, int method,
+            int groupSize, int generations, int grouping) {
+        this.problem = problem;
+        this.objective = objective;
+        this.population = pop;
+        this.D = pop.getDimensions();
+        this.NP = pop.size();
+        this.range = pop.getRange();
+        this.groupSize = Math.max(1, Math.min(groupSize, D));
+        this.generations = generations;
+        this.grouping = grouping;
+        this.crosstype = crosstype;
+        this.method = method;
+        rows = new double[NP][D];
+    }
+
+    @Override
+    public void setHandle(RunHandle handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Runs cooperative coevolution
+     *
+     * @param seed   - seed of the random number generator
+     * @param cycles - number of cycles, each optimizes every group once
+     * @return - the fitness of the context vector
+     */
+    @Override
+    public double run(long seed, long cycles) {
+        r.setSeed(seed);
+        if (grouping == DIFFERENTIAL && groups == null) {
+            groups = differentialGroups();
+        }
+        evaluations = grouping == DIFFERENTIAL ? groupingEvaluations : 0;
+
+        // The context starts as the best vector of the population
+        int best = 0;
+        fitness = Double.MAX_VALUE;
+        for (int i = 0; i < NP; i++) {
+            System.arraycopy(population.getVector(i), 0, rows[i], 0, D);
+            double f = objective.evaluate(rows[i]);
+            evaluations++;
+            if (f < fitness) {
+                fitness = f;
+                best = i;
+            }
+        }
+        context = rows[best].clone();
+        eval = PartialEvaluation.supports(problem) ? new PartialEvaluation(problem, context) : null;
+        if (handle != null) {
+            handle.improved(fitness, context, evaluations);
+        }
+
+        for (long cycle = 0; cycle < cycles; cycle++) {
+            if (handle != null && handle.isCancelled()) {
+                break;
+            }
+            int[][] cycleGroups = grouping == DIFFERENTIAL ? groups : randomGroups();
+
+            // Optimize every group against the context of the start of the cycle
+            long cycleSeed = Campaign.seed(seed, (int) cycle);
+            double[][] bests = new double[cycleGroups.length][];
+            long[] counts = new long[cycleGroups.length];
+            Campaign.forEach(cycleGroups.length, k -> {
+                DifferentialEvolution de = optimize(cycleGroups[k], Campaign.seed(cycleSeed, k));
+                bests[k] = de.getSolution();
+                counts[k] = de.getEvaluations();
+            });
+
+            // Put the improvements into the context in group order
+            double before = fitness;
+            for (int k = 0; k < cycleGroups.length; k++) {
+                evaluations += counts[k] + 1;
+                double f = eval != null ? eval.trial(cycleGroups[k], bests[k]) : full(cycleGroups[k], bests[k]);
+                if (f < fitness) {
+                    fitness = f;
+                    if (eval != null) {
+                        eval.apply(cycleGroups[k], bests[k]);
+                    }
+                    for (int j = 0; j < cycleGroups[k].length; j++) {
+                        context[cycleGroups[k][j]] = bests[k][j];
+                    }
+                }
+            }
+            if (eval != null) {
+                eval.resync();
+                fitness = eval.fitness();
+            }
+            if (handle != null && fitness < before) {
+                handle.improved(fitness, context, evaluations);
+            }
+        }
+
+        // The partial evaluations round differently, the result is a full one
+        fitness = objective.evaluate(context);
+        evaluations++;
+        return fitness;
+    }
+
+    /**
+     * Optimizes one group with DE, starting from the columns of the group in
+     * the population with the context in place of the first vector, and puts
+     * the final columns back
+     *
+     * @param dims - the dimensions of the group, in increasing order
+     * @param seed - seed of the DE run
+     * @return - the DE engine after its run
+     */
+    private DifferentialEvolution optimize(int[] dims, long seed) {
+        int s = dims.length;
+        double[][] sub = new double[NP][s];
+        for (int i = 0; i < NP; i++) {
+            double[] source = i == 0 ? context : rows[i];
+            for (int j = 0; j < s; j++) {
+                sub[i][j] = source[dims[j]];
+            }
+        }
+
+        // Partial evaluation only reads the context, the full one needs its own copy
+        Objective groupObjective;
+        if (eval != null) {
+            groupObjective = v -> eval.trial(dims, v);
+        } else {
+            double[] buf = context.clone();
+            groupObjective = v -> {
+                for (int j = 0; j < s; j++) {
+                    buf[dims[j]] = v[j];
+                }
+                return objective.evaluate(buf);
+            };
+        }
+
+        DifferentialEvolution de = new DifferentialEvolution(sub, groupObjective, crosstype, method, 0.6, 0.9, 0.8);
+        de.setSigned(true);
+        de.run(seed, generations);
+
+        // Groups write disjoint columns
+        double[] v = new double[s];
+        for (int i = 0; i < NP; i++) {
+            de.getVector(i, v);
+            for (int j = 0; j < s; j++) {
+                rows[i][dims[j]] = v[j];
+            }
+        }
+        return de;
+    }
+
+    /**
+     * Evaluates the whole context with the elements of a group replaced
+     *
+     * @param dims   - the dimensions of the group
+     * @param values - their values
+     * @return - the fitness
+     */
+    private double full(int[] dims, double[] values) {
+        double[] x = context.clone();
+        for (int j = 0; j < dims.length; j++) {
+            x[dims[j]] = values[j];
+        }
+        return objective.evaluate(x);
+    }
+
+    /**
+     * Splits a random permutation of the dimensions into groups
+     *
+     * @return - the groups, each in increasing order
+     */
+    private int[][] randomGroups() {
+        int[] perm = new int[D];
+        for (int k = 0; k < D; k++) {
+            perm[k] = k;
+        }
+        for (int k = D - 1; k > 0; k--) {
+            int j = r.nextInt(k + 1);
+            int temp = perm[k];
+            perm[k] = perm[j];
+            perm[j] = temp;
+        }
+        int[][] result = new int[(D + groupSize - 1) / groupSize][];
+        for (int g = 0; g < result.length; g++) {
+            result[g] = Arrays.copyOfRange(perm, g * groupSize, Math.min(D, (g + 1) * groupSize));
+            Arrays.sort(result[g]);
+        }
+        return result;
+    }
+
+    /**
+     * Differential grouping: two dimensions interact when the change of the
+     * fitness caused by moving one from the lower bound to the upper bound
+     * depends on whether the other is at the lower bound or the middle.
+     * Interacting dimensions end up in the same group, groups larger than the
+     * group size are cut into consecutive pieces and the separable dimensions
+     * are packed into groups of the group size.
+     *
+     * For sums of terms only dimensions that share a term can interact, so only
+     * neighbors are tested and only on their shared term. Otherwise the
+     * recursive version (Sun et al., 2017) splits the remaining dimensions in
+     * halves to find the ones that interact with a set, with whole evaluations.
+     *
+     * @return - the groups, each in increasing order
+     */
+    private int[][] differentialGroups() {
+        double[] lower = new double[D];
+        Arrays.fill(lower, -range);
+        List<int[]> nonseparable = new ArrayList<int[]>();
+        List<Integer> separable = new ArrayList<Integer>();
+        groupingEvaluations = 0;
+
+        if (PartialEvaluation.supports(problem)) {
+            // Chains of interacting neighbors, the tests only evaluate terms
+            PartialEvaluation base = new PartialEvaluation(problem, lower);
+            int from = 0;
+            for (int k = 0; k < D; k++) {
+                boolean linked = k + 1 < D && base.interacts(k, range, 0);
+                if (!linked) {
+                    if (k == from) {
+                        separable.add(k);
+                    } else {
+                        int[] chain = new int[k - from + 1];
+                        for (int j = 0; j < chain.length; j++) {
+                            chain[j] = from + j;
+                        }
+                        nonseparable.add(chain);
+                    }
+                    from = k + 1;
+                }
+            }
+        } else {
+            double fll = objective.evaluate(lower);
+            groupingEvaluations++;
+            int[] remaining = new int[D - 1];
+            for (int k = 1; k < D; k++) {
+                remaining[k - 1] = k;
+            }
+            int[] set = { 0 };
+            while (true) {
+                int[] grown = interact(set, remaining, 0, remaining.length, lower, fll);
+                if (grown.length > set.length) {
+                    remaining = without(remaining, grown);
+                    set = grown;
+                    if (remaining.length > 0) {
+                        continue;
+                    }
+                }
+                if (set.length == 1) {
+                    separable.add(set[0]);
+                } else {
+                    nonseparable.add(set);
+                }
+                if (remaining.length == 0) {
+                    break;
+                }
+                set = new int[] { remaining[0] };
+                remaining = Arrays.copyOfRange(remaining, 1, remaining.length);
+            }
+        }
+
+        List<int[]> result = new ArrayList<int[]>();
+        for (int[] group : nonseparable) {
+            for (int from = 0; from < group.length; from += groupSize) {
+                result.add(Arrays.copyOfRange(group, from, Math.min(group.length, from + groupSize)));
+            }
+        }
+        for (int from = 0; from < separable.size(); from += groupSize) {
+            int[] group = new int[Math.min(groupSize, separable.size() - from)];
+            for (int j = 0; j < group.length; j++) {
+                group[j] = separable.get(from + j);
+            }
+            result.add(group);
+        }
+        return result.toArray(new int[0][]);
+    }
+
+    /**
+     * Returns a set together with the dimensions of remaining[from, to) that
+     * interact with it
+     *
+     * @param set       - the set, in increasing order
+     * @param remaining - the remaining dimensions, in increasing order
+     * @param from      - first index of remaining to test
+     * @param to        - index after the last one to test
+     * @param lower     - the vector at the lower bound
+     * @param fll       - its fitness
+     * @return - the grown set, in increasing order
+     */
+    private int[] interact(int[] set, int[] remaining, int from, int to, double[] lower, double fll) {
+        if (!nonseparable(set, remaining, from, to, lower, fll)) {
+            return set;
+        }
+        if (to - from == 1) {
+            return union(set, new int[] { remaining[from] });
+        }
+        int mid = (from + to) >>> 1;
+        return union(interact(set, remaining, from, mid, lower, fll), interact(set, remaining, mid, to, lower, fll));
+    }
+
+    /**
+     * Differential grouping test of a set against remaining[from, to)
+     *
+     * @param set       - the set
+     * @param remaining - the remaining dimensions
+     * @param from      - first index of remaining to test
+     * @param to        - index after the last one to test
+     * @param lower     - the vector at the lower bound
+     * @param fll       - its fitness
+     * @return - whether they interact
+     */
+    private boolean nonseparable(int[] set, int[] remaining, int from, int to, double[] lower, double fll) {
+        double[] x = lower.clone();
+        for (int k : set) {
+            x[k] = range;
+        }
+        double ful = objective.evaluate(x);
+        for (int j = from; j < to; j++) {
+            x[remaining[j]] = 0;
+        }
+        double fum = objective.evaluate(x);
+        for (int k : set) {
+            x[k] = -range;
+        }
+        double flm = objective.evaluate(x);
+        groupingEvaluations += 3;
+        double scale = Math.abs(fll) + Math.abs(ful) + Math.abs(flm) + Math.abs(fum);
+        return Math.abs((fll - ful) - (flm - fum)) > 1e-12 * scale;
+    }
+
+    /**
+     * @param a - a set in increasing order
+     * @param b - a set in increasing order
+     * @return - their union in increasing order
+     */
+    private static int[] union(int[] a, int[] b) {
+        int[] out = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                out[n++] = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                out[n++] = b[j++];
+            } else {
+                out[n++] = a[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * @param a - a set in increasing order
+     * @param b - a set in increasing order
+     * @return - the elements of a that are not in b, in increasing order
+     */
+    private static int[] without(int[] a, int[] b) {
+        int[] out = new int[a.length];
+        int n = 0;
+        for (int k : a) {
+            if (Arrays.binarySearch(b, k) < 0) {
+                out[n++] = k;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * @return - the number of groups of differential grouping, 0 before the
+     *         first run or with random grouping
+     */
+    public int getGroupCount() {
+        return groups == null ? 0 : groups.length;
+    }
+
+    /**
+     * @return - a copy of the context vector of the last run
+     */
+    @Override
+    public double[] getSolution() {
+        return context.clone();
+    }
+
+    @Override
+    public double getFitness() {
+        return fitness;
+    }
+
+    @Override
+    public long getEvaluations() {
+        return evaluations;
+    }
+}
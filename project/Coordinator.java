@@ -0,0 +1,350 @@
+/*
+ * Coordinator : Splits a campaign into shards and runs them on worker JVM
+ *               processes on the local host. Shards are sent to the workers
+ *               one line at a time over their standard input, results come
+ *               back over their standard output, and the shards of workers
+ *               that fail or take too long are given to a fresh worker.
+ *               Before its result, a worker can send records of the shard
+ *               as lines "R [id] [record]", they are handed on once the
+ *               shard is done, so the records of a failed attempt are
+ *               dropped.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class Coordinator {
+    // Seconds a shard may run before its worker is replaced
+    public static final long DEFAULT_TIMEOUT = 600;
+
+    // Times a shard is dispatched before the campaign fails
+    public static final int DEFAULT_ATTEMPTS = 3;
+
+    // Marks the end of a worker's output
+    private static final String EOF = new String("EOF");
+
+    // Command that starts a worker
+    private final List<String> command;
+
+    // The number of workers
+    private final int workers;
+
+    // Nanoseconds a shard may run before its worker is replaced
+    private final long timeout;
+
+    // Times a shard is dispatched before the campaign fails
+    private final int attempts;
+
+    // Shards waiting for a worker
+    private final LinkedBlockingDeque<Integer> pending = new LinkedBlockingDeque<Integer>();
+
+    // Shards not finished yet
+    private final AtomicInteger remaining = new AtomicInteger();
+
+    // The shards and their results
+    private String[] shards;
+    private String[] results;
+    private int[] dispatched;
+
+    // The first error that stopped the campaign
+    private volatile IOException error;
+
+    // Receives the records of the finished shards, null to drop them
+    private Consumer<String> records;
+
+    /**
+     * Constructor, the timeout is read from the shard.timeout system property
+     * (in seconds)
+     *
+     * @param command - command that starts a worker
+     * @param workers - the number of workers
+     */
+    public Coordinator(List<String> command, int workers) {
+        this(command, workers, Long.getLong("shard.timeout", DEFAULT_TIMEOUT), DEFAULT_ATTEMPTS);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param command  - command that starts a worker
+     * @param workers  - the number of workers
+     * @param timeout  - seconds a shard may run before its worker is replaced
+     * @param attempts - times a shard is dispatched before the campaign fails
+     */
+    public Coordinator(List<String> command, int workers, long timeout, int attempts) {
+        this.command = command;
+        this.workers = Math.max(1, workers);
+        this.timeout = TimeUnit.SECONDS.toNanos(timeout);
+        this.attempts = attempts;
+    }
+
+    /**
+     * Sets where the records of the finished shards go. It is called from one
+     * thread per worker.
+     *
+     * @param records - receives each record, null to drop them
+     */
+    public void setRecords(Consumer<String> records) {
+        this.records = records;
+    }
+
+    /**
+     * Returns the command that starts a worker running the given main class in a
+     * JVM like this one. The worker gets this JVM's campaign seed, output mode,
+     * checkpoint directory, objective command, evaluation cache size, problems
+     * file, result store and population settings, and its share of the cores.
+     * Unless the number of objective processes is set, the workers also split
+     * the objective processes of one JVM between them. Workers only read the
+     * result store. When this JVM writes a result file or store, the workers
+     * send the result of every run back as records.
+     *
+     * @param main    - the main class of the worker
+     * @param workers - the number of workers
+     * @param args    - arguments of the worker
+     * @return - the command
+     */
+    public static List<String> javaCommand(String main, int workers, String... args) {
+        List<String> command = new ArrayList<String>();
+        command.add(System.getProperty("java.home") + "/bin/java");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("-Dcampaign.seed=" + Campaign.seed());
+        int threads = Integer.getInteger("campaign.threads", Runtime.getRuntime().availableProcessors());
+        command.add("-Dcampaign.threads=" + Math.max(1, threads / Math.max(1, workers)));
+        command.add("-Dsummary=" + Boolean.getBoolean("summary"));
+        if (System.getProperty("checkpoint") != null) {
+            command.add("-Dcheckpoint=" + System.getProperty("checkpoint"));
+            command.add("-Dcheckpoint.interval="
+                    + Long.getLong("checkpoint.interval", Checkpoint.DEFAULT_INTERVAL));
+        }
+        if (System.getProperty("problems") != null) {
+            command.add("-Dproblems=" + System.getProperty("problems"));
+        }
+        if (System.getProperty("objective.command") != null) {
+            command.add("-Dobjective.command=" + System.getProperty("objective.command"));
+            int processes = Integer.getInteger("objective.processes",
+                    Math.max(1, Runtime.getRuntime().availableProcessors() / Math.max(1, workers)));
+            command.add("-Dobjective.processes=" + processes);
+        }
+
+        // The cache belongs to an experiment line, and a line runs on one worker
+        if (System.getProperty("cache.mb") != null) {
+            command.add("-Dcache.mb=" + Long.getLong("cache.mb", 0));
+        }
+        if (System.getProperty("store") != null) {
+            command.add("-Dstore=" + System.getProperty("store"));
+        }
+
+        // The population files of a line are named after its seed, so workers share the directory
+        command.add("-Dpopulation.offheap=" + Boolean.getBoolean("population.offheap"));
+        if (System.getProperty("population.dir") != null) {
+            command.add("-Dpopulation.dir=" + System.getProperty("population.dir"));
+        }
+        if (System.getProperty("results") != null || System.getProperty("store") != null) {
+            command.add("-Dshard.results=true");
+        }
+        command.add(main);
+        for (String arg : args) {
+            command.add(arg);
+        }
+        return command;
+    }
+
+    /**
+     * Runs every shard on the workers and returns the results in shard order.
+     * A shard and its result are single lines of text.
+     *
+     * @param shards - the shards
+     * @return - the result of each shard
+     * @exception IOException - if a shard failed on every attempt
+     */
+    public String[] run(List<String> shards) throws IOException {
+        this.shards = shards.toArray(new String[0]);
+        results = new String[this.shards.length];
+        dispatched = new int[this.shards.length];
+        error = null;
+        pending.clear();
+        for (int i = 0; i < this.shards.length; i++) {
+            pending.add(i);
+        }
+        remaining.set(this.shards.length);
+
+        // One thread drives each worker
+        Thread[] threads = new Thread[Math.min(workers, this.shards.length)];
+        for (int w = 0; w < threads.length; w++) {
+            threads[w] = new Thread(this::serve, "coordinator-" + w);
+            threads[w].start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the workers", e);
+            }
+        }
+
+        if (error != null) {
+            throw error;
+        }
+        return results;
+    }
+
+    /**
+     * Feeds shards to one worker until every shard is done, replacing the worker
+     * when it fails or a shard times out
+     */
+    private void serve() {
+        Worker worker = null;
+        try {
+            while (remaining.get() > 0 && error == null) {
+                Integer shard = pending.poll(100, TimeUnit.MILLISECONDS);
+                if (shard == null) {
+                    continue;
+                }
+
+                synchronized (this) {
+                    if (++dispatched[shard] > attempts) {
+                        error = new IOException("Shard " + shard + " failed " + attempts + " times: " + shards[shard]);
+                        break;
+                    }
+                }
+
+                try {
+                    if (worker == null) {
+                        worker = new Worker(command);
+                    }
+                    List<String> lines = new ArrayList<String>();
+                    results[shard] = worker.run(shard, shards[shard], timeout, lines);
+                    if (records != null) {
+                        for (String record : lines) {
+                            records.accept(record);
+                        }
+                    }
+                    remaining.decrementAndGet();
+                } catch (IOException e) {
+                    // Give the shard to the next free worker and start over with a new process
+                    System.err.println("Shard " + shard + " reassigned: " + e.getMessage());
+                    if (worker != null) {
+                        worker.destroy();
+                        worker = null;
+                    }
+                    pending.addFirst(shard);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (worker != null) {
+                worker.close();
+            }
+        }
+    }
+
+    /**
+     * A worker process and the thread reading its output
+     */
+    private static class Worker {
+        // The worker process
+        private final Process process;
+
+        // Shards to the worker
+        private final BufferedWriter in;
+
+        // Lines from the worker
+        private final BlockingQueue<String> out = new LinkedBlockingQueue<String>();
+
+        Worker(List<String> command) throws IOException {
+            process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            in = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            Thread reader = new Thread(() -> {
+                try (BufferedReader br = new BufferedReader(
+                        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = br.readLine()) != null) {
+                        out.add(line);
+                    }
+                } catch (IOException e) {
+                    // The process died, reported as the end of its output
+                }
+                out.add(EOF);
+            }, "worker-reader");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        /**
+         * Runs one shard on the worker
+         *
+         * @param id      - the id of the shard
+         * @param shard   - the shard
+         * @param timeout - nanoseconds to wait for the result
+         * @param records - receives the records of the shard
+         * @return - the result of the shard
+         * @exception IOException - if the worker failed or timed out
+         */
+        String run(int id, String shard, long timeout, List<String> records)
+                throws IOException, InterruptedException {
+            in.write(id + " " + shard + "\n");
+            in.flush();
+
+            long deadline = System.nanoTime() + timeout;
+            String prefix = id + " ";
+            String record = "R " + id + " ";
+            while (true) {
+                String line = out.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (line == null) {
+                    throw new IOException("timed out");
+                }
+                if (line == EOF) {
+                    throw new IOException("worker exited with " + process.waitFor());
+                }
+                if (line.startsWith(record)) {
+                    records.add(line.substring(record.length()));
+                } else if (line.startsWith(prefix)) {
+                    return line.substring(prefix.length());
+                }
+            }
+        }
+
+        /**
+         * Closes the worker's input so it exits once it is idle
+         */
+        void close() {
+            try {
+                in.close();
+                process.waitFor(10, TimeUnit.SECONDS);
+            } catch (IOException e) {
+                // Already gone
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            destroy();
+        }
+
+        /**
+         * Kills the worker
+         */
+        void destroy() {
+            process.destroyForcibly();
+        }
+    }
+}
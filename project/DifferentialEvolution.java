@@ -0,0 +1,592 @@
+/*
+ * DifferentialEvolution : Differential Evolution engine with the DE/best/1,
+ *                         DE/rand/1, DE/rand-to-best/1, DE/best/2 and
+ *                         DE/rand/2 mutations and exponential or binomial
+ *                         crossover. The budget of a run is its number of
+ *                         generations. With a batch objective, every trial
+ *                         vector of a generation is created before selection
+ *                         so the generation is evaluated in batches.
+ *                         The population of a run is kept off the heap when
+ *                         the starting population is, and is then read and
+ *                         written a vector at a time.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.nio.ByteBuffer;
+
+import mt.MTRandom;
+
+public class DifferentialEvolution implements Optimizer {
+    // Kind of the checkpoint payload
+    static final int STATE = 1;
+
+    // The function being minimized
+    private final Objective objective;
+
+    // The objective when it evaluates whole generations, null when it does not
+    private final BatchObjective batch;
+
+    // The mutation method (1 - DE/best/1, 2 - DE/rand/1, 3 - DE/rand-to-best/1, 4 - DE/best/2, 5 - DE/rand/2)
+    private final int method;
+
+    // The crossover type (1 - exponential, 2 - binomial)
+    private final int crosstype;
+
+    // Crossover rate and scaling factors
+    private final double CR;
+    private final double F;
+    private final double lambda;
+
+    // Dimensions and population size
+    private final int D;
+    private final int NP;
+
+    // The starting population, copied into x at the start of every run,
+    // null when it is read from startPop
+    private final double[][] start;
+    private final Population startPop;
+
+    // The population of the run, null when it is kept off the heap in xs
+    private final double[][] x;
+    private final VectorStore xs;
+
+    // Vectors read from xs for the trial vector being created: the vector,
+    // the best vector and the five random ones
+    private final double[][] rows;
+
+    // Fitness of each vector in the population
+    private final double[] fit;
+
+    // Trial vector, swapped into the population when it is selected
+    private double[] u;
+
+    // Trial vectors of a generation and their fitness, when the objective is a
+    // batch objective. They are on the heap even for off-heap populations.
+    private final double[][] trials;
+    private final double[] trialFit;
+
+    // Index of the best vector in the population
+    private int best;
+
+    // Number of function evaluations
+    private long evaluations;
+
+    // Random number generator, reseeded by every run
+    private final MTRandom r = new MTRandom(0L);
+
+    // Whether fitness values are compared as they are instead of by absolute value
+    private boolean signed;
+
+    // Where runs save their state, null to run without checkpoints
+    private Checkpoint checkpoint;
+
+    // Watches the runs, null to run without one
+    private RunHandle handle;
+
+    // Compared fitness last reported to the handle
+    private double reported;
+
+    /**
+     * Constructor with the crossover rate and scaling factors of Algorithms
+     *
+     * @param pop       - starting population
+     * @param objective - function to minimize
+     * @param crosstype - crossover type
+     * @param method    - mutation method
+     */
+    public DifferentialEvolution(Population pop, Objective objective, int crosstype, int method) {
+        this(pop, objective, crosstype, method, 0.6, 0.9, 0.8);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param pop       - starting population
+     * @param objective - function to minimize
+     * @param crosstype - crossover type
+     * @param method    - mutation method
+     * @param CR        - Crossover rate
+     * @param F         - Scaling factor
+     * @param lambda    - Scaling factor of DE/rand-to-best/1
+     */
+    public DifferentialEvolution(Population pop, Objective objective, int crosstype, int method, double CR,
+            double F, double lambda) {
+        this(null, pop, pop.getDimensions(), pop.size(), objective, crosstype, method, CR, F, lambda);
+    }
+
+    /**
+     * Constructor for a starting population that is not a Population, such as
+     * the columns of a subcomponent
+     *
+     * @param start     - starting population, one vector per row, kept
+     * @param objective - function to minimize
+     * @param crosstype - crossover type
+     * @param method    - mutation method
+     * @param CR        - Crossover rate
+     * @param F         - Scaling factor
+     * @param lambda    - Scaling factor of DE/rand-to-best/1
+     */
+    public DifferentialEvolution(double[][] start, Objective objective, int crosstype, int method, double CR,
+            double F, double lambda) {
+        this(start, null, start[0].length, start.length, objective, crosstype, method, CR, F, lambda);
+    }
+
+    /**
+     * Constructor for either kind of starting population. The population of a
+     * run is kept off the heap when the starting population is.
+     *
+     * @param start     - starting population, one vector per row, or null
+     * @param startPop  - starting population when start is null
+     * @param D         - Dimensions
+     * @param NP        - Population size
+     * @param objective - function to minimize
+     * @param crosstype - crossover type
+     * @param method    - mutation method
+     * @param CR        - Crossover rate
+     * @param F         - Scaling factor
+     * @param lambda    - Scaling factor of DE/rand-to-best/1
+     */
+    private DifferentialEvolution(double[][] start, Population startPop, int D, int NP, Objective objective,
+            int crosstype, int method, double CR, double F, double lambda) {
+        this.objective = objective;
+        this.crosstype = crosstype;
+        this.method = method;
+        this.CR = CR;
+        this.F = F;
+        this.lambda = lambda;
+        this.D = D;
+        this.NP = NP;
+        this.start = start;
+        this.startPop = startPop;
+        boolean offHeap = startPop != null && startPop.isOffHeap();
+        x = offHeap ? null : new double[NP][D];
+        xs = offHeap ? VectorStore.allocate(NP, D) : null;
+        rows = offHeap ? new double[7][D] : null;
+        fit = new double[NP];
+        u = new double[D];
+        batch = objective instanceof BatchObjective ? (BatchObjective) objective : null;
+        trials = batch != null ? new double[NP][D] : null;
+        trialFit = batch != null ? new double[NP] : null;
+    }
+
+    /**
+     * Copies a vector of the starting population
+     *
+     * @param i   - index of the vector
+     * @param out - receives the vector
+     */
+    private void startVector(int i, double[] out) {
+        if (start != null) {
+            System.arraycopy(start[i], 0, out, 0, D);
+        } else {
+            startPop.getVector(i, out);
+        }
+    }
+
+    /**
+     * Returns a vector of the population of the run
+     *
+     * @param i   - index of the vector
+     * @param out - receives the vector when the population is off the heap
+     * @return - the vector itself on the heap, otherwise out
+     */
+    private double[] row(int i, double[] out) {
+        if (x != null) {
+            return x[i];
+        }
+        xs.get(i, out);
+        return out;
+    }
+
+    /**
+     * Returns the checkpoint payload size needed by a population
+     *
+     * @param D  - Dimensions
+     * @param NP - Population size
+     * @return - the number of bytes
+     */
+    public static int checkpointSize(int D, int NP) {
+        return 32 + NP * (8 * D + 8) + 4 * MTRandom.stateSize();
+    }
+
+    @Override
+    public void setCheckpoint(Checkpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Compares fitness values as they are instead of by their absolute values,
+     * for objectives that can be negative
+     *
+     * @param signed - whether fitness values are compared as they are
+     */
+    public void setSigned(boolean signed) {
+        this.signed = signed;
+    }
+
+    @Override
+    public void setHandle(RunHandle handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Runs Differential Evolution
+     *
+     * @param seed        - seed of the random number generator
+     * @param generations - Number of generations
+     * @return - the fitness of the best vector
+     */
+    @Override
+    public double run(long seed, long generations) {
+        r.setSeed(seed);
+        evaluations = 0;
+        best = 0;
+        reported = Double.MAX_VALUE;
+        long generation = restore();
+        if (generation < 0) {
+            generation = 0;
+
+            // Evaluate the population once, afterwards only trial vectors are evaluated
+            if (batch != null) {
+                double[][] first = x != null ? x : trials;
+                BatchObjective.generation(batch, first, NP, fit, i -> startVector(i, first[i]));
+                evaluations += NP;
+                for (int i = 0; x == null && i < NP; i++) {
+                    xs.set(i, first[i]);
+                }
+            } else {
+                for (int i = 0; i < NP; i++) {
+                    double[] v = x != null ? x[i] : u;
+                    startVector(i, v);
+                    fit[i] = evaluate(v);
+                    if (x == null) {
+                        xs.set(i, v);
+                    }
+                }
+            }
+            for (int i = 0; i < NP; i++) {
+                if (score(fit[i]) <= score(fit[best])) {
+                    best = i;
+                }
+            }
+        }
+
+        while (generation < generations) {
+            if (handle != null) {
+                adopt(handle.injected());
+                report();
+                if (handle.isCancelled()) {
+                    break;
+                }
+            }
+            if (checkpoint != null && checkpoint.due()) {
+                save(generation);
+            }
+
+            if (batch != null) {
+                batchGeneration();
+            } else {
+                // Iterate over every solution in the population
+                for (int i = 0; i < NP; i++) {
+                    trial(i, u);
+
+                    // Selection, the replaced vector becomes the next trial vector
+                    u = select(i, evaluate(u), u);
+                }
+            }
+            generation++;
+        }
+        if (handle != null) {
+            report();
+        }
+        return fit[best];
+    }
+
+    /**
+     * Runs one generation with a batch objective. Every trial vector is created
+     * from the population at the start of the generation, the trial vectors
+     * are evaluated in batches while the next ones are created, then selection
+     * runs in order.
+     */
+    private void batchGeneration() {
+        BatchObjective.generation(batch, trials, NP, trialFit, i -> trial(i, trials[i]));
+        evaluations += NP;
+        for (int i = 0; i < NP; i++) {
+            trials[i] = select(i, trialFit[i], trials[i]);
+        }
+    }
+
+    /**
+     * Creates the trial vector of a vector of the population
+     *
+     * @param i - index of the vector
+     * @param v - receives the trial vector
+     */
+    private void trial(int i, double[] v) {
+        // Getting the randomly selected vector indexes
+        int r1 = i, r2 = i, r3 = i, r4 = i, r5 = i, jrand = r.nextInt(D);
+        while (same(i, r1, r2, r3, r4, r5)) {
+            r1 = r.nextInt(NP);
+            r2 = r.nextInt(NP);
+            r3 = r.nextInt(NP);
+            r4 = r.nextInt(NP);
+            r5 = r.nextInt(NP);
+        }
+
+        // The vectors the trial vector is made of, read once when they are off the heap
+        double[] xi = row(i, x == null ? rows[0] : null);
+        double[] xb = row(best, x == null ? rows[1] : null);
+        double[] a1 = row(r1, x == null ? rows[2] : null);
+        double[] a2 = row(r2, x == null ? rows[3] : null);
+        double[] a3 = row(r3, x == null ? rows[4] : null);
+        double[] a4 = row(r4, x == null ? rows[5] : null);
+        double[] a5 = row(r5, x == null ? rows[6] : null);
+
+        // Mutation of the trial vector
+        boolean crossed = false;
+        while (!crossed) {
+            for (int k = 0; k < D; k++) {
+                if (r.nextDouble() < CR || k == jrand) {
+                    v[k] = mutate(xi, xb, a1, a2, a3, a4, a5, k);
+                    crossed = true;
+                } else {
+                    v[k] = xi[k];
+                }
+            }
+            if (crosstype == 2) {
+                crossed = true;
+            }
+        }
+    }
+
+    /**
+     * Puts a trial vector in place of a vector of the population when it is at
+     * least as good
+     *
+     * @param i  - index of the vector
+     * @param fv - fitness of the trial vector
+     * @param v  - the trial vector
+     * @return - the vector that left the population or the trial vector, free
+     *         to hold the next trial vector
+     */
+    private double[] select(int i, double fv, double[] v) {
+        if (score(fv) > score(fit[i])) {
+            return v;
+        }
+        double[] old = v;
+        if (x != null) {
+            old = x[i];
+            x[i] = v;
+        } else {
+            xs.set(i, v);
+        }
+        fit[i] = fv;
+
+        // Fitness only goes down, so the replaced vector is the only new candidate
+        if (score(fv) < score(fit[best]) || (score(fv) == score(fit[best]) && i > best)) {
+            best = i;
+        }
+        return old;
+    }
+
+    /**
+     * @param f - a fitness value
+     * @return - the value compared by selection, its absolute value unless the
+     *         engine is signed
+     */
+    private double score(double f) {
+        return signed ? f : Math.abs(f);
+    }
+
+    /**
+     * Puts an injected solution in place of the worst vector when it is better
+     *
+     * @param in - the injected solution, null if there is none
+     */
+    private void adopt(Improvement in) {
+        if (in == null) {
+            return;
+        }
+        double[] v = in.getSolution();
+        if (v == null || v.length != D) {
+            return;
+        }
+        int worst = 0;
+        for (int i = 1; i < NP; i++) {
+            if (score(fit[i]) > score(fit[worst])) {
+                worst = i;
+            }
+        }
+        if (score(in.fitness) < score(fit[worst])) {
+            if (x != null) {
+                System.arraycopy(v, 0, x[worst], 0, D);
+            } else {
+                xs.set(worst, v);
+            }
+            fit[worst] = in.fitness;
+            if (score(in.fitness) < score(fit[best])) {
+                best = worst;
+            }
+        }
+    }
+
+    /**
+     * Reports the best vector to the handle when it improved
+     */
+    private void report() {
+        if (score(fit[best]) < reported) {
+            reported = score(fit[best]);
+            handle.improved(fit[best], row(best, u), evaluations);
+        }
+    }
+
+    /**
+     * @return - a copy of the best vector of the last run, the last one when
+     *         there are ties
+     */
+    @Override
+    public double[] getSolution() {
+        return x != null ? x[best].clone() : xs.get(best);
+    }
+
+    /**
+     * Copies a vector of the population of the last run
+     *
+     * @param i   - index of the vector
+     * @param out - receives the vector
+     */
+    public void getVector(int i, double[] out) {
+        if (x != null) {
+            System.arraycopy(x[i], 0, out, 0, D);
+        } else {
+            xs.get(i, out);
+        }
+    }
+
+    @Override
+    public double getFitness() {
+        return fit[best];
+    }
+
+    @Override
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * @param i  - first value to compare
+     * @param r1 - second value to compare
+     * @param r2 - third value to compare
+     * @param r3 - fourth value to compare
+     * @param r4 - fifth value to compare
+     * @param r5 - sixth value to compare
+     * @return - whether two or more inputs are equal
+     */
+    private static boolean same(int i, int r1, int r2, int r3, int r4, int r5) {
+        return i == r1 || i == r2 || i == r3 || i == r4 || i == r5 || r1 == r2 || r1 == r3 || r1 == r4
+                || r1 == r5 || r2 == r3 || r2 == r4 || r2 == r5 || r3 == r4 || r3 == r5 || r4 == r5;
+    }
+
+    /**
+     * Returns the mutated value of one element of the trial vector
+     *
+     * @param xi - the current vector
+     * @param xb - the best vector
+     * @param a1 - randomly selected vector
+     * @param a2 - randomly selected vector
+     * @param a3 - randomly selected vector
+     * @param a4 - randomly selected vector
+     * @param a5 - randomly selected vector
+     * @param k  - index of the element to be mutated
+     * @return - the mutated value or NaN if the method is not implemented
+     */
+    private double mutate(double[] xi, double[] xb, double[] a1, double[] a2, double[] a3, double[] a4,
+            double[] a5, int k) {
+        switch (method) {
+            case 1: // DE/best/1
+                return xb[k] + F * (a1[k] - a2[k]);
+            case 2: // DE/rand/1
+                return a1[k] + F * (a2[k] - a3[k]);
+            case 3: // DE/rand-to-best/1
+                return xi[k] + lambda * (xb[k] - xi[k]) + F * (a1[k] - a2[k]);
+            case 4: // DE/best/2
+                return xb[k] + F * (a1[k] + a2[k] - a3[k] - a4[k]);
+            case 5: // DE/rand/2
+                return a5[k] + F * (a1[k] + a2[k] - a3[k] - a4[k]);
+            default: // Invalid method
+                return Double.NaN;
+        }
+    }
+
+    /**
+     * Evaluates a vector and counts the evaluation
+     *
+     * @param v - the vector
+     * @return - the fitness of the vector
+     */
+    private double evaluate(double[] v) {
+        evaluations++;
+        return objective.evaluate(v);
+    }
+
+    /**
+     * Saves the state of the run at the start of a generation
+     *
+     * @param generation - the generation about to run
+     */
+    private void save(long generation) {
+        ByteBuffer out = checkpoint.begin();
+        out.putInt(STATE).putInt(D).putInt(NP).putInt((int) generation).putInt(best).putLong(evaluations);
+        for (int i = 0; i < NP; i++) {
+            out.putDouble(fit[i]);
+        }
+        for (int i = 0; i < NP; i++) {
+            double[] v = row(i, u);
+            for (int k = 0; k < D; k++) {
+                out.putDouble(v[k]);
+            }
+        }
+        for (int word : r.getState()) {
+            out.putInt(word);
+        }
+        checkpoint.commit();
+    }
+
+    /**
+     * Restores the state of a run from the checkpoint
+     *
+     * @return - the generation to resume at, -1 if there is no saved state
+     */
+    private long restore() {
+        ByteBuffer in = checkpoint == null ? null : checkpoint.restore();
+        if (in == null || in.getInt() != STATE || in.getInt() != D || in.getInt() != NP) {
+            return -1;
+        }
+        int generation = in.getInt();
+        best = in.getInt();
+        evaluations = in.getLong();
+        for (int i = 0; i < NP; i++) {
+            fit[i] = in.getDouble();
+        }
+        for (int i = 0; i < NP; i++) {
+            double[] v = x != null ? x[i] : u;
+            for (int k = 0; k < D; k++) {
+                v[k] = in.getDouble();
+            }
+            if (x == null) {
+                xs.set(i, v);
+            }
+        }
+        int[] state = new int[MTRandom.stateSize()];
+        for (int i = 0; i < state.length; i++) {
+            state[i] = in.getInt();
+        }
+        r.setState(state);
+        return generation;
+    }
+}
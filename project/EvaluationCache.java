@@ -0,0 +1,276 @@
+/*
+ * EvaluationCache : Remembers the fitness of the vectors an objective has
+ *                   evaluated, keyed on the exact bits of the vector, so
+ *                   evaluating the same vector again costs a lookup. Meant
+ *                   for expensive objectives, for the functions in Problem a
+ *                   lookup costs about as much as an evaluation.
+ *
+ *                   The entries are kept in flat primitive arrays and found
+ *                   through an open addressing index with linear probing.
+ *                   The number of entries is fixed, when the cache is full
+ *                   the CLOCK algorithm evicts an entry that was not hit
+ *                   since the clock hand last passed it.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+public class EvaluationCache implements Objective {
+    // Bytes an entry takes besides its key: the fitness, the hash, the
+    // reference bit and up to four index slots
+    private static final int ENTRY_BYTES = 8 + 4 + 1 + 4 * 4;
+
+    // The function being minimized
+    private final Objective objective;
+
+    // Length of the cached vectors, others are evaluated without the cache
+    private final int D;
+
+    // Largest number of entries
+    private final int capacity;
+
+    // Entry of each index slot plus one, 0 for an empty slot
+    private final int[] index;
+
+    // Mask of an index slot, the index has a power of two slots
+    private final int mask;
+
+    // The bits of the vector of each entry, D per entry
+    private final long[] keys;
+
+    // The fitness, the hash and the reference bit of each entry
+    private final double[] values;
+    private final int[] hashes;
+    private final boolean[] referenced;
+
+    // Number of entries in use
+    private int size;
+
+    // The clock hand, the next entry considered for eviction
+    private int hand;
+
+    // Lookups that found the vector, that did not, and evicted entries
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructor
+     *
+     * @param objective  - the function being minimized
+     * @param dimensions - length of the cached vectors
+     * @param capacity   - largest number of entries
+     */
+    public EvaluationCache(Objective objective, int dimensions, int capacity) {
+        if (dimensions < 1 || capacity < 1 || (long) capacity * dimensions > Integer.MAX_VALUE - 8
+                || capacity > 1 << 28) {
+            throw new IllegalArgumentException(
+                    "Can not cache " + capacity + " vectors of " + dimensions + " dimensions");
+        }
+        this.objective = objective;
+        this.D = dimensions;
+        this.capacity = capacity;
+
+        // Two to four times as many slots as entries keeps the probes short
+        int slots = Integer.highestOneBit(capacity) << 2;
+        index = new int[slots];
+        mask = slots - 1;
+        keys = new long[capacity * dimensions];
+        values = new double[capacity];
+        hashes = new int[capacity];
+        referenced = new boolean[capacity];
+    }
+
+    /**
+     * Returns the number of entries that fit in a memory budget, at least one
+     *
+     * @param bytes      - the memory budget
+     * @param dimensions - length of the cached vectors
+     * @return - the number of entries
+     */
+    public static int entries(long bytes, int dimensions) {
+        long entries = bytes / (8L * dimensions + ENTRY_BYTES);
+        return (int) Math.max(1, Math.min(entries, Math.min(1 << 28, (Integer.MAX_VALUE - 8) / dimensions)));
+    }
+
+    /**
+     * Returns the fitness of a vector from the cache, or evaluates it and
+     * caches it. The objective is evaluated outside of the lock, so the cache
+     * can be shared by threads; threads that miss on the same vector at the
+     * same time both evaluate it.
+     *
+     * @param x - the solution vector
+     * @return - the fitness value of the vector
+     */
+    @Override
+    public double evaluate(double[] x) {
+        if (x.length != D) {
+            synchronized (this) {
+                misses++;
+            }
+            return objective.evaluate(x);
+        }
+        int h = hash(x);
+        synchronized (this) {
+            int e = find(x, h);
+            if (e >= 0) {
+                hits++;
+                referenced[e] = true;
+                return values[e];
+            }
+            misses++;
+        }
+
+        double f = objective.evaluate(x);
+        synchronized (this) {
+            if (find(x, h) < 0) {
+                put(x, h, f);
+            }
+        }
+        return f;
+    }
+
+    /**
+     * @return - the number of evaluations answered by the cache
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return - the number of evaluations passed on to the objective
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return - the number of entries evicted to make room for new ones
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return - the share of the evaluations answered by the cache, 0 before the
+     *         first evaluation
+     */
+    public synchronized double getHitRate() {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    /**
+     * @return - the number of cached vectors
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @param x - a vector
+     * @return - a hash of the bits of the vector
+     */
+    private static int hash(double[] x) {
+        long h = 0;
+        for (double v : x) {
+            h = (h ^ Double.doubleToRawLongBits(v)) * 0x9E3779B97F4A7C15L;
+            h ^= h >>> 29;
+        }
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * @param x - a vector
+     * @param h - its hash
+     * @return - the entry holding the vector, -1 if it is not cached
+     */
+    private int find(double[] x, int h) {
+        for (int slot = h & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            int e = index[slot] - 1;
+            if (hashes[e] == h && matches(e, x)) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param e - an entry
+     * @param x - a vector
+     * @return - whether the entry holds exactly the bits of the vector
+     */
+    private boolean matches(int e, double[] x) {
+        int o = e * D;
+        for (int j = 0; j < D; j++) {
+            if (keys[o + j] != Double.doubleToRawLongBits(x[j])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Caches a vector that is not cached, evicting an entry when the cache is
+     * full
+     *
+     * @param x - the vector
+     * @param h - its hash
+     * @param f - its fitness
+     */
+    private void put(double[] x, int h, double f) {
+        int e = size < capacity ? size++ : evict();
+        int o = e * D;
+        for (int j = 0; j < D; j++) {
+            keys[o + j] = Double.doubleToRawLongBits(x[j]);
+        }
+        values[e] = f;
+        hashes[e] = h;
+        referenced[e] = false;
+
+        int slot = h & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = e + 1;
+    }
+
+    /**
+     * Advances the clock hand past the entries hit since it last passed them,
+     * clearing their reference bits, and removes the first entry that was not
+     * hit
+     *
+     * @return - the removed entry, free to reuse
+     */
+    private int evict() {
+        while (referenced[hand]) {
+            referenced[hand] = false;
+            hand = hand + 1 == capacity ? 0 : hand + 1;
+        }
+        int e = hand;
+        hand = hand + 1 == capacity ? 0 : hand + 1;
+        evictions++;
+
+        // Find the slot of the entry, then shift later entries of the probe
+        // sequence back so none of them is cut off by the empty slot
+        int i = hashes[e] & mask;
+        while (index[i] != e + 1) {
+            i = (i + 1) & mask;
+        }
+        index[i] = 0;
+        for (int j = (i + 1) & mask; index[j] != 0; j = (j + 1) & mask) {
+            int home = hashes[index[j] - 1] & mask;
+
+            // An entry stays when its home slot is cyclically in (i, j]
+            boolean stays = i <= j ? (home > i && home <= j) : (home > i || home <= j);
+            if (!stays) {
+                index[i] = index[j];
+                index[j] = 0;
+                i = j;
+            }
+        }
+        return e;
+    }
+}
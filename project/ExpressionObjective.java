@@ -0,0 +1,630 @@
+/*
+ * ExpressionObjective : Compiles objective functions written as formulas,
+ *                       such as the ones of a problems file, to JVM
+ *                       bytecode. A formula is parsed and translated to the
+ *                       Java code of a class that implements Objective, the
+ *                       class is compiled in memory by the system Java
+ *                       compiler and defined as a hidden class, so it runs
+ *                       as fast as the functions in Problem. The parser only
+ *                       accepts the formula language, so no other code ends
+ *                       up in the class.
+ *
+ *                       A formula uses the vector x[index], its dimension n,
+ *                       numbers, pi, e, + - * / ^ (power) and parentheses,
+ *                       the functions of one argument sin, cos, tan, asin,
+ *                       acos, atan, sinh, cosh, tanh, exp, log, log10, sqrt,
+ *                       cbrt, abs, floor and ceil, the functions of two
+ *                       arguments pow, atan2, hypot, min and max, and
+ *                       sum(i, from, to, term) and prod(i, from, to, term),
+ *                       the sum and product of the term for i from from to to,
+ *                       both included. Indexes, n, loop variables and integer
+ *                       numbers are ints, and + - * of ints are int
+ *                       arithmetic as in Java; / always divides as doubles.
+ *                       Rastrigin is 10*n + sum(i, 0, n-1, x[i]^2 -
+ *                       10*cos(2*pi*x[i])) and Rosenbrock, a sum over the
+ *                       pairs of neighbors, is sum(i, 0, n-2, 100*(x[i]^2 -
+ *                       x[i+1])^2 + (1 - x[i])^2).
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+public final class ExpressionObjective {
+    // Functions of one argument that return a double
+    private static final List<String> UNARY = Arrays.asList("sin", "cos", "tan", "asin", "acos", "atan", "sinh",
+            "cosh", "tanh", "exp", "log", "log10", "sqrt", "cbrt", "floor", "ceil");
+
+    // Functions of two arguments that return a double
+    private static final List<String> BINARY = Arrays.asList("pow", "atan2", "hypot");
+
+    // Names that can not be loop variables
+    private static final List<String> RESERVED = Arrays.asList("x", "n", "pi", "e", "sum", "prod", "abs", "min",
+            "max");
+
+    /**
+     * No instances, only static methods
+     */
+    private ExpressionObjective() {
+    }
+
+    /**
+     * Compiles a formula
+     *
+     * @param formula - the formula
+     * @return - the objective computing the formula
+     * @exception IllegalArgumentException - if the formula is not valid
+     * @exception IllegalStateException    - if the Java compiler is missing
+     */
+    public static Objective compile(String formula) {
+        return compile(Arrays.asList(formula)).get(0);
+    }
+
+    /**
+     * Compiles formulas, all of them in one run of the compiler
+     *
+     * @param formulas - the formulas
+     * @return - the objective computing each formula, in order
+     * @exception IllegalArgumentException - if a formula is not valid
+     * @exception IllegalStateException    - if the Java compiler is missing
+     */
+    public static List<Objective> compile(List<String> formulas) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Compiling formulas needs the Java compiler of a JDK");
+        }
+
+        List<JavaFileObject> sources = new ArrayList<JavaFileObject>();
+        for (int k = 0; k < formulas.size(); k++) {
+            String name = "Formula" + k;
+            sources.add(new Source(name, new Parser(formulas.get(k)).translate(name)));
+        }
+
+        // Compile in memory against the classes of the running program
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        StandardJavaFileManager standard = compiler.getStandardFileManager(diagnostics, null, null);
+        Classes classes = new Classes(standard);
+        List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"), "-proc:none");
+        if (!compiler.getTask(null, classes, diagnostics, options, null, sources).call()) {
+            throw new IllegalArgumentException("Formula does not compile: " + diagnostics.getDiagnostics());
+        }
+
+        // Define every class as a hidden class of this package and create it
+        List<Objective> objectives = new ArrayList<Objective>();
+        try {
+            for (int k = 0; k < formulas.size(); k++) {
+                MethodHandles.Lookup hidden = MethodHandles.lookup()
+                        .defineHiddenClass(classes.bytes("project.Formula" + k), true);
+                objectives.add((Objective) hidden
+                        .findConstructor(hidden.lookupClass(), MethodType.methodType(void.class)).invoke());
+            }
+        } catch (Throwable e) {
+            throw new IllegalStateException("Can not define the class of a formula", e);
+        }
+        return objectives;
+    }
+
+    /**
+     * Compiles the formulas of a problems file and defines them as problem
+     * types. A line of the file is a problem type above 10 followed by its
+     * formula; empty lines and lines starting with # are skipped.
+     *
+     * @param file - the problems file
+     * @exception UncheckedIOException     - if the file can not be read
+     * @exception IllegalArgumentException - if a line or formula is not valid
+     */
+    public static void load(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<Integer> types = new ArrayList<Integer>();
+        List<String> formulas = new ArrayList<String>();
+        for (String line : lines) {
+            String s = line.trim();
+            if (s.isEmpty() || s.startsWith("#")) {
+                continue;
+            }
+            String[] parts = s.split("\\s+", 2);
+            if (parts.length < 2) {
+                throw new IllegalArgumentException("Problem without a formula: " + line);
+            }
+            types.add(Integer.parseInt(parts[0]));
+            formulas.add(parts[1]);
+        }
+
+        List<Objective> objectives = compile(formulas);
+        for (int k = 0; k < types.size(); k++) {
+            Problem.define(types.get(k), objectives.get(k), formulas.get(k));
+        }
+    }
+
+    /**
+     * Translates a formula to the Java code of a class, by recursive descent
+     */
+    private static final class Parser {
+        // The formula
+        private final String text;
+
+        // Position of the next character
+        private int pos;
+
+        // Loop variables in scope, outermost first
+        private final List<String> scope = new ArrayList<String>();
+
+        // Methods of the sums and products
+        private final StringBuilder methods = new StringBuilder();
+
+        // Number of sums and products
+        private int loops;
+
+        // Whether the square helper is used
+        private boolean square;
+
+        /**
+         * Constructor
+         *
+         * @param text - the formula
+         */
+        Parser(String text) {
+            this.text = text;
+        }
+
+        /**
+         * @param name - simple name of the class
+         * @return - the Java code of the class
+         * @exception IllegalArgumentException - if the formula is not valid
+         */
+        String translate(String name) {
+            Code body = expression();
+            skip();
+            if (pos < text.length()) {
+                throw error("Unexpected '" + text.charAt(pos) + "'");
+            }
+            StringBuilder java = new StringBuilder();
+            java.append("package project;\n\n");
+            java.append("final class ").append(name).append(" implements Objective {\n");
+            java.append("    public double evaluate(double[] x) {\n");
+            java.append("        final int n = x.length;\n");
+            java.append("        return ").append(body.java).append(";\n");
+            java.append("    }\n");
+            if (square) {
+                java.append("    private static double sq(double v) {\n");
+                java.append("        return v * v;\n");
+                java.append("    }\n");
+            }
+            java.append(methods);
+            java.append("}\n");
+            return java.toString();
+        }
+
+        /**
+         * expression := product (('+' | '-') product)*
+         *
+         * @return - the code
+         */
+        private Code expression() {
+            Code left = product();
+            while (true) {
+                if (accept('+')) {
+                    left = arithmetic(left, "+", product());
+                } else if (accept('-')) {
+                    left = arithmetic(left, "-", product());
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        /**
+         * product := unary (('*' | '/') unary)*
+         *
+         * @return - the code
+         */
+        private Code product() {
+            Code left = unary();
+            while (true) {
+                if (accept('*')) {
+                    left = arithmetic(left, "*", unary());
+                } else if (accept('/')) {
+                    Code right = unary();
+                    left = new Code("(" + (left.integer && right.integer ? "(double) " : "") + left.java + " / "
+                            + right.java + ")", false);
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        /**
+         * unary := ('-' | '+') unary | power
+         *
+         * @return - the code
+         */
+        private Code unary() {
+            if (accept('-')) {
+                Code operand = unary();
+                return new Code("(-" + operand.java + ")", operand.integer);
+            }
+            if (accept('+')) {
+                return unary();
+            }
+            return power();
+        }
+
+        /**
+         * power := primary ('^' unary)?, so -x^2 is -(x^2) and x^y^z is x^(y^z)
+         *
+         * @return - the code
+         */
+        private Code power() {
+            Code base = primary();
+            if (!accept('^')) {
+                return base;
+            }
+            Code exponent = unary();
+            if (exponent.java.equals("2")) {
+                square = true;
+                return new Code("sq(" + base.java + ")", false);
+            }
+            return new Code("Math.pow(" + base.java + ", " + exponent.java + ")", false);
+        }
+
+        /**
+         * primary := number | '(' expression ')' | x '[' expression ']' | n |
+         * pi | e | variable | function '(' arguments ')'
+         *
+         * @return - the code
+         */
+        private Code primary() {
+            skip();
+            if (pos >= text.length()) {
+                throw error("Unexpected end of the formula");
+            }
+            char c = text.charAt(pos);
+            if (Character.isDigit(c) || c == '.') {
+                return number();
+            }
+            if (accept('(')) {
+                Code inner = expression();
+                expect(')');
+                return new Code("(" + inner.java + ")", inner.integer);
+            }
+            if (!Character.isLetter(c)) {
+                throw error("Unexpected '" + c + "'");
+            }
+
+            int at = pos;
+            String name = name();
+            if (scope.contains(name)) {
+                return new Code("v_" + name, true);
+            }
+            switch (name) {
+                case "x": {
+                    expect('[');
+                    Code index = expression();
+                    expect(']');
+                    if (!index.integer) {
+                        throw error("The index of x must be an integer");
+                    }
+                    return new Code("x[" + index.java + "]", false);
+                }
+                case "n":
+                    return new Code("n", true);
+                case "pi":
+                    return new Code("Math.PI", false);
+                case "e":
+                    return new Code("Math.E", false);
+                case "sum":
+                    return loop("+=", "0");
+                case "prod":
+                    return loop("*=", "1");
+                case "abs": {
+                    List<Code> args = arguments(1);
+                    return new Code("Math.abs(" + args.get(0).java + ")", args.get(0).integer);
+                }
+                case "min":
+                case "max": {
+                    List<Code> args = arguments(2);
+                    return new Code("Math." + name + "(" + args.get(0).java + ", " + args.get(1).java + ")",
+                            args.get(0).integer && args.get(1).integer);
+                }
+                default:
+                    break;
+            }
+            if (UNARY.contains(name)) {
+                return new Code("Math." + name + "(" + arguments(1).get(0).java + ")", false);
+            }
+            if (BINARY.contains(name)) {
+                List<Code> args = arguments(2);
+                return new Code("Math." + name + "(" + args.get(0).java + ", " + args.get(1).java + ")", false);
+            }
+            pos = at;
+            throw error("Unknown name '" + name + "'");
+        }
+
+        /**
+         * Translates sum(i, from, to, term) or prod(i, from, to, term) to a
+         * method with a loop, which gets x, n and the loop variables in scope
+         *
+         * @param op      - the compound assignment of the loop
+         * @param initial - the value of an empty loop
+         * @return - the code calling the method
+         */
+        private Code loop(String op, String initial) {
+            expect('(');
+            skip();
+            int at = pos;
+            String variable = name();
+            if (variable.isEmpty() || RESERVED.contains(variable) || UNARY.contains(variable)
+                    || BINARY.contains(variable) || scope.contains(variable)) {
+                pos = at;
+                throw error("Invalid loop variable '" + variable + "'");
+            }
+            expect(',');
+            Code from = expression();
+            expect(',');
+            Code to = expression();
+            expect(',');
+            if (!from.integer || !to.integer) {
+                throw error("The bounds of a loop must be integers");
+            }
+
+            List<String> outer = new ArrayList<String>(scope);
+            scope.add(variable);
+            Code term = expression();
+            scope.remove(scope.size() - 1);
+            expect(')');
+
+            String method = "loop" + loops++;
+            StringBuilder params = new StringBuilder("double[] x, int n");
+            StringBuilder args = new StringBuilder("x, n");
+            for (String v : outer) {
+                params.append(", int v_").append(v);
+                args.append(", v_").append(v);
+            }
+            String v = "v_" + variable;
+            methods.append("    private static double ").append(method).append("(").append(params).append(") {\n");
+            methods.append("        double s = ").append(initial).append(";\n");
+            methods.append("        for (int ").append(v).append(" = ").append(from.java).append(", end = ")
+                    .append(to.java).append("; ").append(v).append(" <= end; ").append(v).append("++) {\n");
+            methods.append("            s ").append(op).append(" ").append(term.java).append(";\n");
+            methods.append("        }\n");
+            methods.append("        return s;\n");
+            methods.append("    }\n");
+            return new Code(method + "(" + args + ")", false);
+        }
+
+        /**
+         * @param count - the number of arguments
+         * @return - the arguments of a function, in parentheses
+         */
+        private List<Code> arguments(int count) {
+            expect('(');
+            List<Code> args = new ArrayList<Code>();
+            for (int k = 0; k < count; k++) {
+                if (k > 0) {
+                    expect(',');
+                }
+                args.add(expression());
+            }
+            expect(')');
+            return args;
+        }
+
+        /**
+         * @return - a number, an int when it is written as one and fits
+         */
+        private Code number() {
+            int start = pos;
+            while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+                pos++;
+            }
+            if (pos < text.length() && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+                int mark = pos++;
+                if (pos < text.length() && (text.charAt(pos) == '+' || text.charAt(pos) == '-')) {
+                    pos++;
+                }
+                if (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                    while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                        pos++;
+                    }
+                } else {
+                    // Not an exponent, such as the constant e after a number
+                    pos = mark;
+                }
+            }
+            String s = text.substring(start, pos);
+            try {
+                if (s.matches("[0-9]+") && s.length() < 10) {
+                    return new Code(Integer.toString(Integer.parseInt(s)), true);
+                }
+                return new Code(Double.toString(Double.parseDouble(s)), false);
+            } catch (NumberFormatException e) {
+                pos = start;
+                throw error("Invalid number '" + s + "'");
+            }
+        }
+
+        /**
+         * @return - the letters, digits and underscores at the position
+         */
+        private String name() {
+            int start = pos;
+            while (pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '_')) {
+                pos++;
+            }
+            return text.substring(start, pos);
+        }
+
+        /**
+         * Translates + - * of two operands, int arithmetic when both are ints
+         *
+         * @param left  - the left operand
+         * @param op    - the operator
+         * @param right - the right operand
+         * @return - the code
+         */
+        private static Code arithmetic(Code left, String op, Code right) {
+            return new Code("(" + left.java + " " + op + " " + right.java + ")", left.integer && right.integer);
+        }
+
+        /**
+         * Skips a character if it is next after spaces
+         *
+         * @param c - the character
+         * @return - whether it was skipped
+         */
+        private boolean accept(char c) {
+            skip();
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Skips a character that must be next after spaces
+         *
+         * @param c - the character
+         * @exception IllegalArgumentException - if it is not next
+         */
+        private void expect(char c) {
+            if (!accept(c)) {
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        /**
+         * Skips spaces
+         */
+        private void skip() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        /**
+         * @param message - what is wrong
+         * @return - an exception pointing at the position in the formula
+         */
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos + " of formula: " + text);
+        }
+    }
+
+    /**
+     * Translated Java code and whether it is an int
+     */
+    private static final class Code {
+        // The Java code
+        final String java;
+
+        // Whether the code is an int
+        final boolean integer;
+
+        /**
+         * Constructor
+         *
+         * @param java    - the Java code
+         * @param integer - whether the code is an int
+         */
+        Code(String java, boolean integer) {
+            this.java = java;
+            this.integer = integer;
+        }
+    }
+
+    /**
+     * Java code of a class, kept in memory
+     */
+    private static final class Source extends SimpleJavaFileObject {
+        // The Java code
+        private final String code;
+
+        /**
+         * Constructor
+         *
+         * @param name - simple name of the class
+         * @param code - the Java code
+         */
+        Source(String name, String code) {
+            super(URI.create("string:///project/" + name + ".java"), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+    /**
+     * Keeps the compiled classes in memory
+     */
+    private static final class Classes extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        // Bytes of each class, by binary name
+        private final Map<String, ByteArrayOutputStream> classes = new HashMap<String, ByteArrayOutputStream>();
+
+        /**
+         * Constructor
+         *
+         * @param standard - the file manager that reads the class path
+         */
+        Classes(StandardJavaFileManager standard) {
+            super(standard);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String name, JavaFileObject.Kind kind,
+                FileObject sibling) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            classes.put(name, bytes);
+            return new SimpleJavaFileObject(URI.create("bytes:///" + name.replace('.', '/') + kind.extension),
+                    kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    return bytes;
+                }
+            };
+        }
+
+        /**
+         * @param name - binary name of a class
+         * @return - its bytes
+         */
+        byte[] bytes(String name) {
+            return classes.get(name).toByteArray();
+        }
+    }
+}
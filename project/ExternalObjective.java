@@ -0,0 +1,332 @@
+/*
+ * ExternalObjective : An objective computed by other programs, such as
+ *                     simulators. A pool of long-lived child processes
+ *                     each reads batches of vectors from its standard input
+ *                     and writes their fitness values to its standard output.
+ *                     Batches are evaluated on the processes in the
+ *                     background, so an engine can create the next batch
+ *                     while earlier ones are evaluated.
+ *
+ *                     A request is the number of vectors and their dimension
+ *                     as ints, followed by the vectors as doubles. The
+ *                     response is the fitness value of each vector as a
+ *                     double. Everything is little-endian. A process answers
+ *                     a request after it has read all of it, and exits when
+ *                     its standard input is closed. ObjectiveStub is such a
+ *                     process. A process that fails is killed and replaced
+ *                     by a new one, its batch fails.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class ExternalObjective implements BatchObjective, AutoCloseable {
+    // The program and its arguments
+    private final List<String> command;
+
+    // The number of processes
+    private final int processes;
+
+    // The child processes, guarded by itself
+    private final List<Child> children = new ArrayList<Child>();
+
+    // Child processes that are not evaluating a batch
+    private final BlockingQueue<Child> idle = new LinkedBlockingQueue<Child>();
+
+    // Evaluates the submitted batches, one thread per process
+    private final ExecutorService executor;
+
+    /**
+     * Constructor, starts the processes
+     *
+     * @param command   - the program and its arguments
+     * @param processes - number of processes
+     * @exception UncheckedIOException - if a process can not be started
+     */
+    public ExternalObjective(List<String> command, int processes) {
+        this.command = command;
+        this.processes = processes;
+        try {
+            for (int k = 0; k < processes; k++) {
+                Child child = new Child(command);
+                children.add(child);
+                idle.add(child);
+            }
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+        executor = Executors.newFixedThreadPool(processes, r -> {
+            Thread t = new Thread(r, "objective");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Constructor from a command line
+     *
+     * @param command   - the program and its arguments, separated by spaces
+     * @param processes - number of processes
+     * @exception UncheckedIOException - if a process can not be started
+     */
+    public ExternalObjective(String command, int processes) {
+        this(Arrays.asList(command.trim().split("\\s+")), processes);
+    }
+
+    /**
+     * Evaluates one vector on an idle process, in the calling thread
+     *
+     * @param x - the solution vector
+     * @return - the fitness value of the vector
+     * @exception UncheckedIOException - if the process fails
+     */
+    @Override
+    public double evaluate(double[] x) {
+        double[] fitness = new double[1];
+        evaluate(new double[][] { x }, 0, 1, fitness);
+        return fitness[0];
+    }
+
+    /**
+     * Evaluates vectors on one process in the background
+     *
+     * @param x       - the vectors, which must not change until the batch is
+     *                done
+     * @param from    - index of the first vector
+     * @param to      - index after the last vector
+     * @param fitness - receives the fitness value of x[i] in fitness[i]
+     * @return - completes when the fitness values are written, or with an
+     *         UncheckedIOException if the process fails
+     */
+    @Override
+    public CompletableFuture<Void> submit(double[][] x, int from, int to, double[] fitness) {
+        return CompletableFuture.runAsync(() -> evaluate(x, from, to, fitness), executor);
+    }
+
+    /**
+     * Splits a generation evenly over the processes
+     *
+     * @param n - number of vectors of the generation
+     * @return - the number of vectors per batch
+     */
+    @Override
+    public int batchSize(int n) {
+        return Math.max(1, (n + processes - 1) / processes);
+    }
+
+    /**
+     * @return - the number of processes
+     */
+    public int getProcesses() {
+        return processes;
+    }
+
+    /**
+     * Closes the standard input of the processes and waits for them to exit
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        synchronized (children) {
+            for (Child child : children) {
+                child.close();
+            }
+            children.clear();
+        }
+    }
+
+    /**
+     * Evaluates vectors on an idle process, waiting for one to be idle
+     *
+     * @param x       - the vectors
+     * @param from    - index of the first vector
+     * @param to      - index after the last vector
+     * @param fitness - receives the fitness value of x[i] in fitness[i]
+     * @exception UncheckedIOException - if the process fails, or every process
+     *                                  failed and could not be replaced
+     */
+    private void evaluate(double[][] x, int from, int to, double[] fitness) {
+        Child child = take();
+        try {
+            child.evaluate(x, from, to, fitness);
+        } catch (IOException e) {
+            child = replace(child);
+            throw new UncheckedIOException(e);
+        } finally {
+            if (child != null) {
+                idle.add(child);
+            }
+        }
+    }
+
+    /**
+     * Waits for an idle process
+     *
+     * @return - the process
+     * @exception UncheckedIOException - if no process is left
+     */
+    private Child take() {
+        try {
+            Child child;
+            while ((child = idle.poll(1, TimeUnit.SECONDS)) == null) {
+                synchronized (children) {
+                    if (children.isEmpty()) {
+                        throw new UncheckedIOException(new IOException("No objective process is running"));
+                    }
+                }
+            }
+            return child;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an objective process", e);
+        }
+    }
+
+    /**
+     * Kills a failed process and starts a new one in its place. The failed
+     * process may be in the middle of a frame, so it is never used again.
+     *
+     * @param failed - the failed process
+     * @return - the new process, or null if it could not be started
+     */
+    private Child replace(Child failed) {
+        failed.kill();
+        synchronized (children) {
+            int k = children.indexOf(failed);
+            if (k < 0) {
+                // Closed in the meantime
+                return null;
+            }
+            try {
+                Child child = new Child(command);
+                children.set(k, child);
+                return child;
+            } catch (IOException e) {
+                children.remove(k);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * One child process and its frame buffer
+     */
+    private static final class Child {
+        // The process
+        private final Process process;
+
+        // Its standard input and output
+        private final OutputStream in;
+        private final InputStream out;
+
+        // Frames to and from the process, grown to the largest batch
+        private ByteBuffer buffer = ByteBuffer.allocate(0);
+
+        /**
+         * Constructor, starts the process
+         *
+         * @param command - the program and its arguments
+         * @exception IOException - if the process can not be started
+         */
+        Child(List<String> command) throws IOException {
+            process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            in = process.getOutputStream();
+            out = process.getInputStream();
+        }
+
+        /**
+         * Sends one request and reads its response
+         *
+         * @param x       - the vectors
+         * @param from    - index of the first vector
+         * @param to      - index after the last vector
+         * @param fitness - receives the fitness value of x[i] in fitness[i]
+         * @exception IOException - if the process exited or failed
+         */
+        void evaluate(double[][] x, int from, int to, double[] fitness) throws IOException {
+            int n = to - from;
+            int D = n == 0 ? 0 : x[from].length;
+            int size = 8 + 8 * n * D;
+            if (buffer.capacity() < size) {
+                buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+            }
+
+            buffer.clear();
+            buffer.putInt(n).putInt(D);
+            for (int i = from; i < to; i++) {
+                for (int k = 0; k < D; k++) {
+                    buffer.putDouble(x[i][k]);
+                }
+            }
+            in.write(buffer.array(), 0, size);
+            in.flush();
+
+            if (out.readNBytes(buffer.array(), 0, 8 * n) < 8 * n) {
+                throw new EOFException("Objective process exited with " + exitValue());
+            }
+            buffer.clear();
+            for (int i = from; i < to; i++) {
+                fitness[i] = buffer.getDouble();
+            }
+        }
+
+        /**
+         * @return - the exit value of the process, after waiting briefly for
+         *         it to exit, or -1 if it is still running
+         */
+        private int exitValue() {
+            try {
+                return process.waitFor(1, TimeUnit.SECONDS) ? process.exitValue() : -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+
+        /**
+         * Kills the process without waiting for it
+         */
+        void kill() {
+            process.destroyForcibly();
+        }
+
+        /**
+         * Closes the standard input of the process so it exits, and kills it if
+         * it does not
+         */
+        void close() {
+            try {
+                in.close();
+                process.waitFor(10, TimeUnit.SECONDS);
+            } catch (IOException e) {
+                // Already gone
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            process.destroyForcibly();
+        }
+    }
+}
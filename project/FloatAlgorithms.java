@@ -0,0 +1,303 @@
+/*
+ * FloatAlgorithms : Single precision versions of Differential Evolution,
+ *                   Particle Swarm Optimization and Blind Search for
+ *                   screening runs. The population is a flat float array,
+ *                   mutation and evaluation are done in float, and the
+ *                   random numbers are drawn in the same order as the
+ *                   double engines, so a run only differs from the double run
+ *                   with the same seed by rounding.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import mt.MTRandom;
+
+public class FloatAlgorithms {
+    // The population of the algorithm
+    private Population population;
+
+    // The number of dimensions
+    private int m;
+
+    // The number of vectors in the population
+    private int n;
+
+    // Flat population, vector i starts at pop[i * m]
+    private float[] pop;
+
+    // Fitness of each vector in the population
+    private float[] fit;
+
+    // The problem type of the algorithm
+    private int problem;
+
+    // The crossover method for the algorithm
+    private int crosstype;
+
+    // The solution vector of the algorithm and its fitness
+    private float[] solution;
+    private float fitness = Float.MAX_VALUE;
+
+    // Random number generator
+    private MTRandom r;
+
+    // Number of function evaluations
+    private long evaluations;
+
+    /**
+     * Constructor, runs the algorithm on the population rounded to float
+     *
+     * @param algorithm - algorithm to run (1 - DE, 2 - PSO, 3 - Blind Search)
+     * @param pop       - population
+     * @param problem   - problem type
+     * @param crosstype - crossover type
+     * @param method    - DE mutation method
+     * @param index     - index of the starting vector of Blind Search
+     * @param seed      - seed of the random number generator
+     */
+    public FloatAlgorithms(int algorithm, Population pop, int problem, int crosstype, int method, int index,
+            long seed) {
+        this.population = pop;
+        this.m = pop.getDimensions();
+        this.n = pop.size();
+        this.problem = problem;
+        this.crosstype = crosstype;
+        this.r = new MTRandom(seed);
+        switch (algorithm) {
+            case 1:
+                load(pop.getPopulation());
+                DE(method, 0.6, 0.9f, 0.8f, 100);
+                break;
+            case 2:
+                load(pop.getPopulation());
+                PSO(100, 0.8, 1.2);
+                break;
+            case 3:
+                blindSearch(n, pop.getVector(index));
+                break;
+            default:
+                throw new IllegalArgumentException("No single precision version of algorithm " + algorithm);
+        }
+    }
+
+    /**
+     * @return - the number of function evaluations of the run
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * @return - solution vector of the algorithm, widened to double
+     */
+    public double[] getSolution() {
+        double[] x = new double[m];
+        for (int k = 0; k < m; k++) {
+            x[k] = solution[k];
+        }
+        return x;
+    }
+
+    /**
+     * @return - the single precision fitness of the solution vector
+     */
+    public double getFitness() {
+        return fitness;
+    }
+
+    /**
+     * Runs Differential Evolution, see DifferentialEvolution
+     *
+     * @param method      - mutation method
+     * @param CR          - Crossover rate
+     * @param F           - Scaling factor
+     * @param lambda      - Scaling factor
+     * @param generations - Number of generations
+     */
+    private void DE(int method, double CR, float F, float lambda, int generations) {
+        int D = m;
+        int NP = n;
+        fit = new float[NP];
+        int best = 0;
+        for (int i = 0; i < NP; i++) {
+            fit[i] = evaluate(pop, i * D);
+            if (Math.abs(fit[i]) <= Math.abs(fit[best])) {
+                best = i;
+            }
+        }
+
+        float[] u = new float[D];
+        for (int generation = 0; generation < generations; generation++) {
+            for (int i = 0; i < NP; i++) {
+                int r1 = i, r2 = i, r3 = i, r4 = i, r5 = i, jrand = r.nextInt(D);
+                while (i == r1 || i == r2 || i == r3 || i == r4 || i == r5 || r1 == r2 || r1 == r3 || r1 == r4
+                        || r1 == r5 || r2 == r3 || r2 == r4 || r2 == r5 || r3 == r4 || r3 == r5 || r4 == r5) {
+                    r1 = r.nextInt(NP);
+                    r2 = r.nextInt(NP);
+                    r3 = r.nextInt(NP);
+                    r4 = r.nextInt(NP);
+                    r5 = r.nextInt(NP);
+                }
+
+                // Mutation and crossover into the trial vector
+                int x = i * D, b = best * D, a1 = r1 * D, a2 = r2 * D, a3 = r3 * D, a4 = r4 * D, a5 = r5 * D;
+                boolean crossed = false;
+                while (!crossed) {
+                    for (int k = 0; k < D; k++) {
+                        if (r.nextDouble() < CR || k == jrand) {
+                            switch (method) {
+                                case 1: // DE/best/1
+                                    u[k] = pop[b + k] + F * (pop[a1 + k] - pop[a2 + k]);
+                                    break;
+                                case 2: // DE/rand/1
+                                    u[k] = pop[a1 + k] + F * (pop[a2 + k] - pop[a3 + k]);
+                                    break;
+                                case 3: // DE/rand-to-best/1
+                                    u[k] = pop[x + k] + lambda * (pop[b + k] - pop[x + k])
+                                            + F * (pop[a1 + k] - pop[a2 + k]);
+                                    break;
+                                case 4: // DE/best/2
+                                    u[k] = pop[b + k] + F * (pop[a1 + k] + pop[a2 + k] - pop[a3 + k] - pop[a4 + k]);
+                                    break;
+                                case 5: // DE/rand/2
+                                    u[k] = pop[a5 + k] + F * (pop[a1 + k] + pop[a2 + k] - pop[a3 + k] - pop[a4 + k]);
+                                    break;
+                                default: // Invalid method
+                                    u[k] = Float.NaN;
+                                    break;
+                            }
+                            crossed = true;
+                        } else {
+                            u[k] = pop[x + k];
+                        }
+                    }
+                    if (crosstype == 2) {
+                        crossed = true;
+                    }
+                }
+
+                // Selection
+                float fu = evaluate(u, 0);
+                if (Math.abs(fu) <= Math.abs(fit[i])) {
+                    System.arraycopy(u, 0, pop, x, D);
+                    fit[i] = fu;
+                    if (Math.abs(fu) < Math.abs(fit[best]) || (Math.abs(fu) == Math.abs(fit[best]) && i > best)) {
+                        best = i;
+                    }
+                }
+            }
+        }
+        keep(best, fit[best]);
+    }
+
+    /**
+     * Runs Particle Swarm Optimization, see ParticleSwarm
+     *
+     * @param iterations - Number of iterations
+     * @param c1         - cognitive factor
+     * @param c2         - social factor
+     */
+    private void PSO(int iterations, double c1, double c2) {
+        int D = m;
+        double range = population.getRange();
+        fit = new float[n];
+        float[] velocity = new float[n];
+        for (int i = 0; i < n; i++) {
+            fit[i] = evaluate(pop, i * D);
+            velocity[i] = (float) (r.nextDouble() * range);
+        }
+
+        int gBest = 0;
+        for (int i = 1; i < n; i++) {
+            if (Math.abs(fit[i]) < fit[gBest]) {
+                gBest = i;
+            }
+        }
+
+        for (int t = 0; t < iterations; t++) {
+            for (int j = 0; j < n; j++) {
+                // The personal best of a particle is the particle itself, as in
+                // ParticleSwarm, so the cognitive term only draws its random number
+                int x = j * D, g = gBest * D;
+                for (int k = 0; k < D; k++) {
+                    float cognitive = (float) (c1 * r.nextDouble()) * (pop[x + k] - pop[x + k]);
+                    float social = (float) (c2 * r.nextDouble()) * (pop[g + k] - pop[x + k]);
+                    pop[x + k] += velocity[j] + cognitive + social;
+                }
+
+                fit[j] = evaluate(pop, x);
+                if (Math.abs(fit[j]) < fit[gBest]) {
+                    gBest = j;
+                }
+            }
+        }
+        keep(gBest, fit[gBest]);
+    }
+
+    /**
+     * Runs Blind Search, see BlindSearch
+     *
+     * @param iterations - number of iterations
+     * @param start      - the starting vector
+     */
+    private void blindSearch(int iterations, double[] start) {
+        solution = new float[m];
+        for (int k = 0; k < m; k++) {
+            solution[k] = (float) start[k];
+        }
+        float[] arg = new float[m];
+        for (int i = 0; i < iterations; i++) {
+            double[] random = population.genRandomArray(m);
+            for (int k = 0; k < m; k++) {
+                arg[k] = (float) random[k];
+            }
+            float fitnessNew = evaluate(arg, 0);
+            if (fitnessNew < fitness) {
+                fitness = fitnessNew;
+                System.arraycopy(arg, 0, solution, 0, m);
+            }
+        }
+    }
+
+    /**
+     * Rounds the population to float
+     *
+     * @param matrix - the population matrix
+     */
+    private void load(double[][] matrix) {
+        pop = new float[n * m];
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < m; k++) {
+                pop[i * m + k] = (float) matrix[i][k];
+            }
+        }
+    }
+
+    /**
+     * Keeps a vector of the population as the solution
+     *
+     * @param i       - index of the vector
+     * @param fitness - its fitness
+     */
+    private void keep(int i, float fitness) {
+        solution = new float[m];
+        System.arraycopy(pop, i * m, solution, 0, m);
+        this.fitness = fitness;
+    }
+
+    /**
+     * Evaluates a vector and counts the evaluation
+     *
+     * @param x   - array holding the vector
+     * @param off - index of the first value of the vector
+     * @return - the fitness of the vector
+     */
+    private float evaluate(float[] x, int off) {
+        evaluations++;
+        return FloatProblem.evaluate(x, off, m, problem);
+    }
+}
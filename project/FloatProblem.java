@@ -0,0 +1,169 @@
+/*
+ * FloatProblem : Single precision versions of the ten functions of Problem,
+ *                evaluated on a vector stored in a flat float array. The
+ *                arithmetic is done in float; Java has no float sine, cosine
+ *                or power, so those are rounded to float from the double
+ *                versions.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+public class FloatProblem {
+    // Constants of the functions rounded to float
+    private static final float PI = (float) Math.PI;
+    private static final float E = (float) Math.E;
+    private static final float E_02 = (float) Math.pow(Math.E, -0.2);
+
+    /**
+     * Returns the fitness of a vector
+     *
+     * @param x       - array holding the vector
+     * @param off     - index of the first value of the vector
+     * @param len     - number of dimensions
+     * @param probNum - problem type
+     * @return - the fitness
+     * @exception IllegalArgumentException - if the problem type is not built in,
+     *                                     formulas have no single precision form
+     */
+    public static float evaluate(float[] x, int off, int len, int probNum) {
+        switch (probNum) {
+            case 1:
+                return schwefel(x, off, len);
+            case 2:
+                return de_jong_1(x, off, len);
+            case 3:
+                return rosenbrock(x, off, len);
+            case 4:
+                return rastrigin(x, off, len);
+            case 5:
+                return griewank(x, off, len);
+            case 6:
+                return sine_envelope(x, off, len);
+            case 7:
+                return sine_V(x, off, len);
+            case 8:
+                return ackley_one(x, off, len);
+            case 9:
+                return ackley_two(x, off, len);
+            case 10:
+                return egg_holder(x, off, len);
+            default:
+                throw new IllegalArgumentException("Problem type " + probNum + " has no single precision form");
+        }
+    }
+
+    private static float sin(float x) {
+        return (float) Math.sin(x);
+    }
+
+    private static float cos(float x) {
+        return (float) Math.cos(x);
+    }
+
+    private static float sqrt(float x) {
+        return (float) Math.sqrt(x);
+    }
+
+    private static float square(float x) {
+        return x * x;
+    }
+
+    private static float schwefel(float[] x, int off, int len) {
+        float sum = 0;
+        for (int i = off; i < off + len; i++) {
+            sum += -x[i] * sin(sqrt(Math.abs(x[i])));
+        }
+        return 418.9829f * len - sum;
+    }
+
+    private static float de_jong_1(float[] x, int off, int len) {
+        float sum = 0;
+        for (int i = off; i < off + len; i++) {
+            sum += x[i] * x[i];
+        }
+        return sum;
+    }
+
+    private static float rosenbrock(float[] x, int off, int len) {
+        float sum = 0;
+        for (int i = off; i < off + len - 1; i++) {
+            sum += 100 * square(x[i] * x[i] - x[i + 1]) + square(1 - x[i]);
+        }
+        return sum;
+    }
+
+    private static float rastrigin(float[] x, int off, int len) {
+        float sum = 0;
+        for (int i = off; i < off + len; i++) {
+            sum += x[i] * x[i] - 10 * cos(2 * PI * x[i]);
+        }
+        return 10 * len + sum;
+    }
+
+    private static float griewank(float[] x, int off, int len) {
+        float sum = 0;
+        float prod = 1;
+        for (int i = 0; i < len; i++) {
+            float v = x[off + i];
+            sum += v * v;
+            prod *= cos(v / sqrt(i + 1));
+        }
+        return sum / 4000 - prod + 1;
+    }
+
+    private static float sine_envelope(float[] x, int off, int len) {
+        float sum = 0;
+        for (int i = off; i < off + len - 1; i++) {
+            float r2 = x[i] * x[i] + x[i + 1] * x[i + 1];
+            float top = square(sin(r2 - 0.5f));
+            float bottom = square(1 + 0.001f * r2);
+            sum += 0.5f + top / bottom;
+        }
+        return -sum;
+    }
+
+    private static float sine_V(float[] x, int off, int len) {
+        float sum = 0;
+        for (int i = off; i < off + len - 1; i++) {
+            float r2 = x[i] * x[i] + x[i + 1] * x[i + 1];
+            float first = (float) Math.pow(r2, 0.25f);
+            float second = square(sin(50 * (float) Math.pow(r2, 0.1f)));
+            sum += first * second + 1;
+        }
+        return sum;
+    }
+
+    private static float ackley_one(float[] x, int off, int len) {
+        float sum = 0;
+        for (int i = off; i < off + len - 1; i++) {
+            float first = E_02 * sqrt(x[i] * x[i] + x[i + 1] * x[i + 1]);
+            float second = 3 * (cos(2 * x[i]) + sin(2 * x[i + 1]));
+            sum += first + second;
+        }
+        return sum;
+    }
+
+    private static float ackley_two(float[] x, int off, int len) {
+        float sum = 0;
+        for (int i = off; i < off + len - 1; i++) {
+            float first = (float) Math.exp(0.2f * sqrt((x[i] * x[i] + x[i + 1] * x[i + 1]) / 2));
+            float second = (float) Math.exp(0.5f * (cos(2 * PI * x[i]) + cos(2 * PI * x[i + 1])));
+            sum += 20 + E - (20 / first) - second;
+        }
+        return sum;
+    }
+
+    private static float egg_holder(float[] x, int off, int len) {
+        float sum = 0;
+        for (int i = off; i < off + len - 1; i++) {
+            float first = -x[i] * sin(sqrt(Math.abs(x[i] - x[i + 1] - 47)));
+            float second = (x[i + 1] + 47) * sin(sqrt(Math.abs(x[i + 1] + 47 + x[i] / 2)));
+            sum += first - second;
+        }
+        return sum;
+    }
+}
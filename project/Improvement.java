@@ -0,0 +1,59 @@
+/*
+ * Improvement : A best-so-far solution of a run, as published by a run
+ *               handle. Vector engines fill in the solution, scheduling
+ *               algorithms the schedule.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+public final class Improvement {
+    // Fitness of the solution, the makespan for schedules
+    public final double fitness;
+
+    // The solution vector, null for schedules
+    private final double[] solution;
+
+    // The schedule, null for solution vectors
+    private final int[] schedule;
+
+    // Number of function evaluations when the solution was found
+    public final long evaluations;
+
+    // Nanoseconds from the start of the run to the improvement
+    public final long time;
+
+    /**
+     * Constructor, keeps its own copies of the solution and the schedule
+     *
+     * @param fitness     - fitness of the solution
+     * @param solution    - the solution vector, null for schedules
+     * @param schedule    - the schedule, null for solution vectors
+     * @param evaluations - number of function evaluations so far
+     * @param time        - nanoseconds since the start of the run
+     */
+    public Improvement(double fitness, double[] solution, int[] schedule, long evaluations, long time) {
+        this.fitness = fitness;
+        this.solution = solution == null ? null : solution.clone();
+        this.schedule = schedule == null ? null : schedule.clone();
+        this.evaluations = evaluations;
+        this.time = time;
+    }
+
+    /**
+     * @return - a copy of the solution vector, null for schedules
+     */
+    public double[] getSolution() {
+        return solution == null ? null : solution.clone();
+    }
+
+    /**
+     * @return - a copy of the schedule, null for solution vectors
+     */
+    public int[] getSchedule() {
+        return schedule == null ? null : schedule.clone();
+    }
+}
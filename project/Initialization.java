@@ -0,0 +1,362 @@
+/*
+ * Initialization : Starting populations that cover the range more evenly
+ *                  than uniform random vectors. Sobol and scrambled Halton
+ *                  vectors are low-discrepancy sequences, opposition-based
+ *                  initialization keeps the better half of uniform random
+ *                  vectors and their opposites.
+ *
+ *                  The Sobol sequence uses the primitive polynomials over
+ *                  GF(2) in order of degree, found at run time, with odd
+ *                  initial direction numbers drawn from a fixed seed, and a
+ *                  random digital shift per population. The Halton sequence
+ *                  uses the first primes as bases with a random digit
+ *                  multiplier per dimension, which breaks up the correlated
+ *                  dimensions of large bases.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import mt.MTRandom;
+
+public final class Initialization {
+    // Initialization methods
+    public static final int UNIFORM = 0;
+    public static final int SOBOL = 1;
+    public static final int HALTON = 2;
+    public static final int OPPOSITION = 3;
+
+    // Names of the methods, in method order
+    public static final String[] NAMES = { "uniform", "Sobol", "scrambled Halton", "opposition" };
+
+    // Bits of a Sobol coordinate
+    private static final int BITS = 32;
+
+    // Seed of the initial Sobol direction numbers, changing it changes every
+    // Sobol population
+    private static final long DIRECTION_SEED = 0x50B01L;
+
+    // Direction numbers of each dimension, grown as more dimensions are needed
+    private static int[][] directions = new int[0][];
+
+    // The first primes, grown as more dimensions are needed
+    private static int[] primes = new int[0];
+
+    /**
+     * No instances, only static methods
+     */
+    private Initialization() {
+    }
+
+    /**
+     * Replaces the vectors of a population with those of an initialization
+     * method
+     *
+     * @param pop            - the population, its vectors are uniform random
+     *                       vectors
+     * @param initialization - initialization method (0 - uniform, 1 - Sobol, 2
+     *                       - scrambled Halton, 3 - opposition)
+     * @param seed           - seed of the scrambling
+     * @param objective      - function being minimized, only evaluated by
+     *                       opposition-based initialization
+     * @return - the number of function evaluations used
+     */
+    public static long apply(Population pop, int initialization, long seed, Objective objective) {
+        int n = pop.size();
+        int m = pop.getDimensions();
+        double range = pop.getRange();
+        switch (initialization) {
+            case UNIFORM:
+                return 0;
+            case SOBOL:
+                pop.setPopulation(sobol(n, m, range, seed));
+                return 0;
+            case HALTON:
+                pop.setPopulation(halton(n, m, range, seed));
+                return 0;
+            case OPPOSITION: {
+                double[][] start = new double[n][];
+                for (int i = 0; i < n; i++) {
+                    start[i] = pop.getVector(i).clone();
+                }
+                pop.setPopulation(opposition(start, objective));
+                return 2L * n;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown initialization " + initialization);
+        }
+    }
+
+    /**
+     * Returns the first vectors of the Sobol sequence, with a random digital
+     * shift
+     *
+     * @param n     - number of vectors
+     * @param m     - number of dimensions
+     * @param range - range of the values <strong>[-range, range]</strong>
+     * @param seed  - seed of the shift
+     * @return - n x m matrix
+     */
+    public static double[][] sobol(int n, int m, double range, long seed) {
+        int[][] v = directions(m);
+        MTRandom r = new MTRandom(seed);
+        int[] shift = new int[m];
+        for (int j = 0; j < m; j++) {
+            shift[j] = r.nextInt();
+        }
+
+        // Gray code order, each vector differs from the one before in one direction number
+        double[][] matrix = new double[n][m];
+        int[] x = shift.clone();
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                int k = Integer.numberOfTrailingZeros(i);
+                for (int j = 0; j < m; j++) {
+                    x[j] ^= v[j][k];
+                }
+            }
+            for (int j = 0; j < m; j++) {
+                matrix[i][j] = scale(Integer.toUnsignedLong(x[j]) * 0x1.0p-32, range);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Returns the first vectors of the Halton sequence, without the origin,
+     * with the digits of each dimension multiplied by a random multiplier
+     *
+     * @param n     - number of vectors
+     * @param m     - number of dimensions
+     * @param range - range of the values <strong>[-range, range]</strong>
+     * @param seed  - seed of the multipliers
+     * @return - n x m matrix
+     */
+    public static double[][] halton(int n, int m, double range, long seed) {
+        int[] bases = primes(m);
+        MTRandom r = new MTRandom(seed);
+        double[][] matrix = new double[n][m];
+        for (int j = 0; j < m; j++) {
+            int b = bases[j];
+            long a = 1 + r.nextInt(b - 1);
+            for (int i = 0; i < n; i++) {
+                // Radical inverse of i + 1 with scrambled digits, 0 stays 0 so
+                // the trailing zeros add nothing
+                double u = 0;
+                double f = 1.0 / b;
+                for (long k = i + 1; k > 0; k /= b) {
+                    u += (a * (k % b) % b) * f;
+                    f /= b;
+                }
+                matrix[i][j] = scale(u, range);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Opposition-based initialization, evaluates vectors and their opposites
+     * in a range centered on 0 and keeps the better half
+     *
+     * @param start     - the vectors, uniform random vectors
+     * @param objective - function being minimized
+     * @return - the best of the vectors and their opposites, as many as there
+     *         are vectors
+     */
+    public static double[][] opposition(double[][] start, Objective objective) {
+        int n = start.length;
+        double[][] all = new double[2 * n][];
+        double[] fit = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            all[i] = start[i];
+            all[n + i] = new double[start[i].length];
+            for (int j = 0; j < start[i].length; j++) {
+                all[n + i][j] = -start[i][j];
+            }
+        }
+        Campaign.forEach(2 * n, i -> fit[i] = objective.evaluate(all[i]));
+
+        // Sort by the absolute fitness, as DE compares, ties keep their order
+        Integer[] order = new Integer[2 * n];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (p, q) -> Double.compare(Math.abs(fit[p]), Math.abs(fit[q])));
+        double[][] best = new double[n][];
+        for (int i = 0; i < n; i++) {
+            best[i] = all[order[i]];
+        }
+        return best;
+    }
+
+    /**
+     * @param u     - a value in [0, 1)
+     * @param range - range of the values
+     * @return - the value mapped to <strong>[-range, range]</strong>
+     */
+    private static double scale(double u, double range) {
+        return u * (range - (-range)) + (-range);
+    }
+
+    /**
+     * Returns the direction numbers of the first dimensions of the Sobol
+     * sequence. The first dimension is the van der Corput sequence, dimension
+     * j uses the j-th primitive polynomial.
+     *
+     * @param m - number of dimensions
+     * @return - the direction numbers of at least m dimensions, BITS per
+     *         dimension
+     */
+    private static synchronized int[][] directions(int m) {
+        if (directions.length >= m) {
+            return directions;
+        }
+        List<Integer> polynomials = polynomials(m - 1);
+        MTRandom r = new MTRandom(DIRECTION_SEED);
+        int[][] v = new int[m][BITS];
+        for (int k = 0; k < BITS; k++) {
+            v[0][k] = 1 << (BITS - 1 - k);
+        }
+        for (int j = 1; j < m; j++) {
+            int p = polynomials.get(j - 1);
+            int s = 31 - Integer.numberOfLeadingZeros(p);
+
+            // Odd initial direction numbers m_k < 2^k, then the recurrence of the polynomial
+            long[] mk = new long[BITS + 1];
+            for (int k = 1; k <= s && k <= BITS; k++) {
+                mk[k] = 2L * r.nextInt(1 << (k - 1)) + 1;
+            }
+            for (int k = s + 1; k <= BITS; k++) {
+                long next = mk[k - s] ^ (mk[k - s] << s);
+                for (int i = 1; i < s; i++) {
+                    if (((p >>> (s - i)) & 1) != 0) {
+                        next ^= mk[k - i] << i;
+                    }
+                }
+                mk[k] = next;
+            }
+            for (int k = 1; k <= BITS; k++) {
+                v[j][k - 1] = (int) (mk[k] << (BITS - k));
+            }
+        }
+        directions = v;
+        return v;
+    }
+
+    /**
+     * Returns the first primitive polynomials over GF(2), by degree and then by
+     * value
+     *
+     * @param count - number of polynomials
+     * @return - the polynomials, bit i holds the coefficient of x^i
+     */
+    private static List<Integer> polynomials(int count) {
+        List<Integer> found = new ArrayList<Integer>();
+        for (int d = 1; found.size() < count; d++) {
+            long order = (1L << d) - 1;
+            List<Long> factors = primeFactors(order);
+            for (int p = (1 << d) + 1; p < (1 << (d + 1)) && found.size() < count; p += 2) {
+                boolean primitive = power(p, d, order) == 1;
+                for (int f = 0; primitive && f < factors.size(); f++) {
+                    primitive = power(p, d, order / factors.get(f)) != 1;
+                }
+                if (primitive) {
+                    found.add(p);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @param p - a polynomial over GF(2) of degree d
+     * @param d - its degree
+     * @param e - an exponent
+     * @return - x^e modulo p
+     */
+    private static long power(int p, int d, long e) {
+        long result = 1;
+        long base = multiply(1, 2, p, d);
+        for (; e > 0; e >>= 1) {
+            if ((e & 1) != 0) {
+                result = multiply(result, base, p, d);
+            }
+            base = multiply(base, base, p, d);
+        }
+        return result;
+    }
+
+    /**
+     * @param a - a polynomial over GF(2) of degree below d
+     * @param b - a polynomial over GF(2) of degree below d
+     * @param p - the modulus, of degree d
+     * @param d - its degree
+     * @return - a * b modulo p
+     */
+    private static long multiply(long a, long b, int p, int d) {
+        long product = 0;
+        for (; b != 0; b >>>= 1) {
+            if ((b & 1) != 0) {
+                product ^= a;
+            }
+            a <<= 1;
+            if ((a >>> d & 1) != 0) {
+                a ^= p;
+            }
+        }
+        return product;
+    }
+
+    /**
+     * @param n - a number above 0
+     * @return - its distinct prime factors
+     */
+    private static List<Long> primeFactors(long n) {
+        List<Long> factors = new ArrayList<Long>();
+        for (long f = 2; f * f <= n; f++) {
+            if (n % f == 0) {
+                factors.add(f);
+                while (n % f == 0) {
+                    n /= f;
+                }
+            }
+        }
+        if (n > 1) {
+            factors.add(n);
+        }
+        return factors;
+    }
+
+    /**
+     * @param m - number of primes
+     * @return - at least the first m primes
+     */
+    private static synchronized int[] primes(int m) {
+        if (primes.length >= m) {
+            return primes;
+        }
+        int[] p = new int[m];
+        int count = 0;
+        for (int c = 2; count < m; c++) {
+            boolean prime = true;
+            for (int k = 0; k < count && p[k] * p[k] <= c; k++) {
+                if (c % p[k] == 0) {
+                    prime = false;
+                    break;
+                }
+            }
+            if (prime) {
+                p[count++] = c;
+            }
+        }
+        primes = p;
+        return p;
+    }
+}
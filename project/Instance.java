@@ -0,0 +1,54 @@
+/*
+ * Instance : Processing times of a flow shop instance stored in one flat
+ *            job-major array, the layout the makespan kernels read, so
+ *            the loaded array is used by them as is.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+public final class Instance {
+    // The number of machines
+    public final int m;
+
+    // The number of jobs
+    public final int n;
+
+    // Flat job-major processing times, p[job * m + machine]
+    public final int[] p;
+
+    /**
+     * Constructor
+     *
+     * @param m - the number of machines
+     * @param n - the number of jobs
+     * @param p - flat job-major processing times
+     */
+    public Instance(int m, int n, int[] p) {
+        if (p.length != (long) m * n) {
+            throw new IllegalArgumentException(m + " x " + n + " instance with " + p.length + " times");
+        }
+        this.m = m;
+        this.n = n;
+        this.p = p;
+    }
+
+    /**
+     * Returns the processing times as a matrix, for the algorithms that still
+     * take one
+     *
+     * @return - the processing times of each job on each machine
+     */
+    public int[][] getTimes() {
+        int[][] matrix = new int[m][n];
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i < m; i++) {
+                matrix[i][j] = p[j * m + i];
+            }
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * InstanceLoader : Reads flow shop instances through memory-mapped files.
+ *                  Text files in the Taillard layout are parsed straight
+ *                  from the mapped bytes into the flat job-major array
+ *                  the makespan kernels read, and instances can be saved
+ *                  in a binary format that later runs load with bulk
+ *                  copies. Files are mapped a window at a time, so they
+ *                  can be larger than one mapping.
+ *
+ *                  Binary format, little-endian: the magic "FSPI", the
+ *                  format version, m, n, then the m * n processing times
+ *                  in job-major order, all as 32 bit ints. Version 1
+ *                  files hold the times in machine-major order and are
+ *                  still read.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public final class InstanceLoader {
+    // "FSPI" read as a little-endian int
+    public static final int MAGIC = 0x49505346;
+
+    // Version of the binary format
+    public static final int VERSION = 2;
+
+    // Bytes before the processing times of a binary file
+    public static final int HEADER = 16;
+
+    // Most processing times of an instance, the largest array the JVM allocates
+    public static final int MAX_TIMES = Integer.MAX_VALUE - 8;
+
+    // Most bytes mapped at once
+    private static final int WINDOW = 1 << 30;
+
+    private InstanceLoader() {
+    }
+
+    /**
+     * Reads an instance, in the binary format if the file starts with the magic
+     * and in the text format otherwise
+     *
+     * @param file - the instance file
+     * @return - the instance
+     * @exception IOException - if the file can not be read or is malformed
+     */
+    public static Instance read(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size >= HEADER) {
+                MappedByteBuffer header = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+                header.order(ByteOrder.LITTLE_ENDIAN);
+                if (header.getInt(0) == MAGIC) {
+                    return binary(ch, size, header, file);
+                }
+            }
+            return text(new Window(ch, size), file);
+        }
+    }
+
+    /**
+     * Reads an instance through a binary cache. The cache file is used when it
+     * is at least as new as the text file, otherwise the text file is parsed and
+     * the cache file is rewritten.
+     *
+     * @param text  - the text instance file
+     * @param cache - the binary cache file
+     * @return - the instance
+     * @exception IOException - if a file can not be read or written
+     */
+    public static Instance read(Path text, Path cache) throws IOException {
+        if (Files.exists(cache)
+                && Files.getLastModifiedTime(cache).compareTo(Files.getLastModifiedTime(text)) >= 0) {
+            return read(cache);
+        }
+        Instance instance = read(text);
+        write(instance, cache);
+        return instance;
+    }
+
+    /**
+     * Saves an instance in the binary format. The file is written next to its
+     * final name and moved in place, so readers never see a partial file.
+     *
+     * @param instance - the instance
+     * @param file     - the binary file
+     * @exception IOException - if the file can not be written
+     */
+    public static void write(Instance instance, Path file) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate((int) Math.min(WINDOW, HEADER + 4L * instance.p.length))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(instance.m).putInt(instance.n);
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (FileChannel ch = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            // The times go out a buffer at a time
+            int k = 0;
+            do {
+                int count = Math.min(instance.p.length - k, buf.remaining() / 4);
+                buf.asIntBuffer().put(instance.p, k, count);
+                buf.position(buf.position() + 4 * count);
+                k += count;
+                buf.flip();
+                while (buf.hasRemaining()) {
+                    ch.write(buf);
+                }
+                buf.clear();
+            } while (k < instance.p.length);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a binary instance, the processing times are copied out of the
+     * mapping with bulk gets, a window at a time
+     *
+     * @param ch     - the open file
+     * @param size   - the size of the file
+     * @param header - the mapped header
+     * @param file   - the file, for error messages
+     * @return - the instance
+     * @exception IOException - if the file is malformed
+     */
+    private static Instance binary(FileChannel ch, long size, ByteBuffer header, Path file) throws IOException {
+        int version = header.getInt(4);
+        int m = header.getInt(8);
+        int n = header.getInt(12);
+        if (version != 1 && version != VERSION) {
+            throw new IOException(file + ": unsupported version " + version);
+        }
+        if (m <= 0 || n <= 0 || (long) m * n * 4 != size - HEADER) {
+            throw new IOException(file + ": " + m + " x " + n + " does not match the file size");
+        }
+        int[] p = allocate(m, n, file);
+
+        // Version 1 files are machine-major, their times are read into a buffer and spread out
+        int[] chunk = version == 1 ? new int[Math.min(p.length, WINDOW / 4)] : null;
+        for (int k = 0; k < p.length;) {
+            int count = Math.min(p.length - k, WINDOW / 4);
+            IntBuffer times = ch.map(FileChannel.MapMode.READ_ONLY, HEADER + 4L * k, 4L * count)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            if (chunk == null) {
+                times.get(p, k, count);
+            } else {
+                times.get(chunk, 0, count);
+                for (int c = 0; c < count; c++) {
+                    int i = (k + c) / n;
+                    int j = (k + c) % n;
+                    p[j * m + i] = chunk[c];
+                }
+            }
+            k += count;
+        }
+        return new Instance(m, n, p);
+    }
+
+    /**
+     * Parses a text instance: the number of machines and jobs, then the
+     * processing times machine by machine, separated by any whitespace. Each
+     * time is stored at its job-major position as it is parsed.
+     *
+     * @param in   - the mapped file
+     * @param file - the file, for error messages
+     * @return - the instance
+     * @exception IOException - if the file is malformed
+     */
+    private static Instance text(Window in, Path file) throws IOException {
+        int m = nextInt(in, file);
+        int n = nextInt(in, file);
+        if (m <= 0 || n <= 0) {
+            throw new IOException(file + ": invalid size " + m + " x " + n);
+        }
+
+        // Every time takes a digit and a separator, except the last one
+        if ((long) m * n > (in.size - in.at + 1) / 2) {
+            throw new IOException(file + ": too short for " + m + " x " + n + " processing times");
+        }
+        int[] p = allocate(m, n, file);
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                p[j * m + i] = nextInt(in, file);
+            }
+        }
+        return new Instance(m, n, p);
+    }
+
+    /**
+     * @param m    - the number of machines
+     * @param n    - the number of jobs
+     * @param file - the file, for error messages
+     * @return - an array for the m * n processing times
+     * @exception IOException - if the instance has more times than an array holds
+     */
+    private static int[] allocate(int m, int n, Path file) throws IOException {
+        if ((long) m * n > MAX_TIMES) {
+            throw new IOException(file + ": " + m + " x " + n + " processing times do not fit in one array");
+        }
+        return new int[m * n];
+    }
+
+    /**
+     * Parses the next non-negative integer of a text file
+     *
+     * @param in   - the mapped file, its position is moved past the integer
+     * @param file - the file, for error messages
+     * @return - the integer
+     * @exception IOException - if the file ends or holds something else
+     */
+    private static int nextInt(Window in, Path file) throws IOException {
+        long pos = in.at;
+        long limit = in.size;
+
+        // Skip whitespace
+        while (pos < limit && in.get(pos) <= ' ') {
+            pos++;
+        }
+        if (pos == limit) {
+            throw new IOException(file + ": unexpected end of file");
+        }
+
+        long value = 0;
+        long start = pos;
+        while (pos < limit) {
+            int b = in.get(pos);
+            if (b <= ' ') {
+                break;
+            }
+            if (b < '0' || b > '9') {
+                throw new IOException(file + ": unexpected '" + (char) b + "' at byte " + pos);
+            }
+            value = value * 10 + (b - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw new IOException(file + ": number too large at byte " + start);
+            }
+            pos++;
+        }
+        in.at = pos;
+        return (int) value;
+    }
+
+    /**
+     * A file read through one mapped window at a time, the window moves when a
+     * byte outside of it is read
+     */
+    private static final class Window {
+        // The open file
+        private final FileChannel ch;
+
+        // The size of the file
+        final long size;
+
+        // Read position of the parser
+        long at;
+
+        // File offset of the window
+        private long base;
+
+        // The mapped window
+        private MappedByteBuffer buf;
+
+        Window(FileChannel ch, long size) throws IOException {
+            this.ch = ch;
+            this.size = size;
+            map(0);
+        }
+
+        /**
+         * @param pos - a file offset below the size
+         * @return - the byte at the offset
+         * @exception IOException - if the window can not be mapped
+         */
+        byte get(long pos) throws IOException {
+            long off = pos - base;
+            if (off < 0 || off >= buf.limit()) {
+                map(pos);
+                off = 0;
+            }
+            return buf.get((int) off);
+        }
+
+        /**
+         * Maps the window starting at an offset
+         *
+         * @param pos - the offset
+         * @exception IOException - if the window can not be mapped
+         */
+        private void map(long pos) throws IOException {
+            base = pos;
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(WINDOW, size - pos));
+        }
+    }
+}
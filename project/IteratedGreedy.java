@@ -0,0 +1,508 @@
+/*
+ * IteratedGreedy : A Java implementation of the Iterated Greedy (IG)
+ *                  permutation flow shop scheduling algorithm of Ruiz and
+ *                  Stutzle. Starts from the NEH schedule and repeats
+ *                  destruction, reconstruction and insertion local search.
+ *                  Supports the Flow Shop Scheduling (FSS) and Flow Shop
+ *                  Scheduling with Blocking (FSSB) makespans.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.nio.ByteBuffer;
+
+import mt.MTRandom;
+
+public class IteratedGreedy {
+    // The best schedule found by the algorithm
+    public int[] schedule;
+
+    // The makespan of the best schedule
+    public int makespan;
+
+    // The number of machines
+    public int m;
+
+    // The number of jobs
+    public int n;
+
+    // The number of iterations run so far
+    public long iterations;
+
+    // The time spent in run so far in nanoseconds
+    public long time;
+
+    // Flat job-major processing times, p[job * m + machine]
+    private int[] p;
+
+    // The makespan algorithm to use (0 - FSS, 1 - FSSB)
+    private int alg;
+
+    // Number of jobs removed in the destruction phase
+    private int d;
+
+    // Temperature used to accept worse schedules
+    private double temperature;
+
+    // Random number generator
+    private MTRandom r;
+
+    // The schedule the search is currently at and its makespan
+    private int[] current;
+    private int currentMake;
+
+    // Working schedule of the current iteration
+    private int[] work;
+
+    // Jobs taken out by the destruction phase
+    private int[] removed;
+
+    // Random visiting order of the local search
+    private int[] visit;
+
+    // Heads of the partial schedule, row j + 1 holds position j
+    private int[] e;
+
+    // Tails of the partial schedule, row j holds position j
+    private int[] q;
+
+    // Head and tail of the job being inserted
+    private int[] f;
+    private int[] g;
+
+    // Makespan of the last best insertion
+    private int insertMake;
+
+    // Where run saves its state, null to run without checkpoints
+    private Checkpoint checkpoint;
+
+    /**
+     * Constructor, runs NEH for the starting schedule
+     *
+     * @param times - the processing times of each job on each machine
+     * @param m     - the number of machines
+     * @param n     - the number of jobs
+     * @param alg   - the algorithm to use (0 - FSS, 1 - FSSB)
+     * @param seed  - seed for the random number generator
+     */
+    public IteratedGreedy(int[][] times, int m, int n, int alg, long seed) {
+        this(times, m, n, alg, seed, 4, 0.4);
+    }
+
+    /**
+     * Constructor, runs NEH for the starting schedule
+     *
+     * @param times - the processing times of each job on each machine
+     * @param m     - the number of machines
+     * @param n     - the number of jobs
+     * @param alg   - the algorithm to use (0 - FSS, 1 - FSSB)
+     * @param seed  - seed for the random number generator
+     * @param d     - number of jobs removed in each destruction
+     * @param T     - temperature factor for accepting worse schedules
+     */
+    public IteratedGreedy(int[][] times, int m, int n, int alg, long seed, int d, double T) {
+        this.m = m;
+        this.n = n;
+        this.alg = alg;
+        this.d = Math.min(d, n - 1);
+        this.p = Makespan.flatten(times, m, n);
+        this.r = new MTRandom(seed);
+
+        // Temperature of Osman and Potts as used by Ruiz and Stutzle
+        long total = 0;
+        for (int i = 0; i < p.length; i++) {
+            total += p[i];
+        }
+        this.temperature = T * total / (n * m * 10.0);
+
+        current = new int[n];
+        work = new int[n];
+        removed = new int[Math.max(this.d, 0)];
+        visit = new int[n];
+        e = new int[(n + 1) * m];
+        q = new int[(n + 1) * m];
+        f = new int[m];
+        g = new int[m];
+
+        NEH neh = new NEH(times, m, n, alg);
+        schedule = neh.schedule.clone();
+        makespan = n > 1 ? neh.makespan : evaluate(schedule, n);
+        System.arraycopy(schedule, 0, current, 0, n);
+        currentMake = makespan;
+    }
+
+    /**
+     * Runs the Iterated Greedy algorithm until either budget runs out, a budget
+     * of zero or less is ignored
+     *
+     * @param maxIterations - maximum number of iterations
+     * @param timeLimit     - maximum run time in nanoseconds
+     * @return the makespan of the best schedule found
+     */
+    public int run(long maxIterations, long timeLimit) {
+        if (maxIterations <= 0 && timeLimit <= 0) {
+            throw new IllegalArgumentException("Iterated Greedy needs an iteration or time budget");
+        }
+        if (d < 1) {
+            return makespan;
+        }
+
+        long start = System.nanoTime();
+        long done = 0;
+        while ((maxIterations <= 0 || done < maxIterations)
+                && (timeLimit <= 0 || System.nanoTime() - start < timeLimit)) {
+            if (checkpoint != null && checkpoint.due()) {
+                save(iterations + done, time + System.nanoTime() - start);
+            }
+            System.arraycopy(current, 0, work, 0, n);
+
+            // Destruction, take d random jobs out of the schedule
+            int len = n;
+            for (int k = 0; k < d; k++) {
+                int pos = r.nextInt(len);
+                removed[k] = work[pos];
+                System.arraycopy(work, pos + 1, work, pos, len - pos - 1);
+                len--;
+            }
+
+            // Reconstruction, insert them back at their best positions
+            for (int k = 0; k < d; k++) {
+                insert(work, len, removed[k], bestInsertion(work, len, removed[k]));
+                len++;
+            }
+
+            // Local search on the rebuilt schedule
+            int workMake = localSearch(work, insertMake);
+
+            // Acceptance criterion
+            if (workMake < currentMake) {
+                System.arraycopy(work, 0, current, 0, n);
+                currentMake = workMake;
+                if (workMake < makespan) {
+                    System.arraycopy(work, 0, schedule, 0, n);
+                    makespan = workMake;
+                }
+            } else if (r.nextDouble() <= Math.exp(-(workMake - currentMake) / temperature)) {
+                System.arraycopy(work, 0, current, 0, n);
+                currentMake = workMake;
+            }
+            done++;
+        }
+
+        iterations += done;
+        time += System.nanoTime() - start;
+        return makespan;
+    }
+
+    /**
+     * Saves the state of the search to a checkpoint at iteration boundaries while
+     * run is going
+     *
+     * @param checkpoint - the checkpoint, of at least checkpointSize bytes
+     */
+    public void setCheckpoint(Checkpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Returns the checkpoint payload size needed for n jobs
+     *
+     * @param n - the number of jobs
+     * @return - the number of bytes
+     */
+    public static int checkpointSize(int n) {
+        return 32 + 8 * n + 4 * MTRandom.stateSize();
+    }
+
+    /**
+     * Restores the search from the checkpoint. Running the remaining iterations
+     * afterwards gives the same schedule as a run that was never stopped.
+     *
+     * @return - true if a saved state was restored
+     */
+    public boolean resume() {
+        ByteBuffer in = checkpoint == null ? null : checkpoint.restore();
+        if (in == null || in.getInt() != n || in.getInt() != alg) {
+            return false;
+        }
+        iterations = in.getLong();
+        time = in.getLong();
+        makespan = in.getInt();
+        currentMake = in.getInt();
+        for (int i = 0; i < n; i++) {
+            schedule[i] = in.getInt();
+        }
+        for (int i = 0; i < n; i++) {
+            current[i] = in.getInt();
+        }
+        int[] state = new int[MTRandom.stateSize()];
+        for (int i = 0; i < state.length; i++) {
+            state[i] = in.getInt();
+        }
+        r.setState(state);
+        return true;
+    }
+
+    /**
+     * Saves the state of the search to the checkpoint
+     *
+     * @param iterations - the iterations run so far
+     * @param time       - the time spent in run so far in nanoseconds
+     */
+    private void save(long iterations, long time) {
+        ByteBuffer out = checkpoint.begin();
+        out.putInt(n).putInt(alg).putLong(iterations).putLong(time).putInt(makespan).putInt(currentMake);
+        for (int i = 0; i < n; i++) {
+            out.putInt(schedule[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            out.putInt(current[i]);
+        }
+        for (int word : r.getState()) {
+            out.putInt(word);
+        }
+        checkpoint.commit();
+    }
+
+    /**
+     * Returns the number of iterations per second over all runs so far
+     *
+     * @return - iterations per second
+     */
+    public double getIterationsPerSecond() {
+        return time == 0 ? 0 : iterations * 1e9 / time;
+    }
+
+    /**
+     * Iterative improvement by insertion, every job is taken out and put back at
+     * its best position until a full pass finds no improvement
+     *
+     * @param seq  - the schedule to improve, changed in place
+     * @param make - the makespan of seq
+     * @return the makespan of the improved schedule
+     */
+    private int localSearch(int[] seq, int make) {
+        for (int i = 0; i < n; i++) {
+            visit[i] = i;
+        }
+
+        boolean improve = true;
+        while (improve) {
+            improve = false;
+
+            // Shuffle the order the jobs are visited in
+            for (int i = n - 1; i > 0; i--) {
+                int k = r.nextInt(i + 1);
+                int temp = visit[i];
+                visit[i] = visit[k];
+                visit[k] = temp;
+            }
+
+            for (int i = 0; i < n; i++) {
+                int job = visit[i];
+                int pos = 0;
+                while (seq[pos] != job) {
+                    pos++;
+                }
+                System.arraycopy(seq, pos + 1, seq, pos, n - pos - 1);
+
+                insert(seq, n - 1, job, bestInsertion(seq, n - 1, job));
+                if (insertMake < make) {
+                    make = insertMake;
+                    improve = true;
+                }
+            }
+        }
+        return make;
+    }
+
+    /**
+     * Inserts a job into a partial schedule
+     *
+     * @param seq - the partial schedule
+     * @param len - the number of jobs in seq
+     * @param job - the job to insert
+     * @param pos - the position to insert the job at
+     */
+    private static void insert(int[] seq, int len, int job, int pos) {
+        System.arraycopy(seq, pos, seq, pos + 1, len - pos);
+        seq[pos] = job;
+    }
+
+    /**
+     * Finds the best position to insert a job into a partial schedule with the
+     * accelerations of Taillard (FSS) and its blocking counterpart (FSSB), all
+     * len + 1 positions are scored in O(len * m). The makespan at the returned
+     * position is left in insertMake.
+     *
+     * @param seq - the partial schedule
+     * @param len - the number of jobs in seq
+     * @param job - the job to insert
+     * @return the first position with the lowest makespan
+     */
+    private int bestInsertion(int[] seq, int len, int job) {
+        heads(seq, len);
+        tails(seq, len);
+
+        int jb = job * m;
+        int best = 0;
+        int bestMake = Integer.MAX_VALUE;
+        for (int j = 0; j <= len; j++) {
+            int prev = j * m;
+            int make = 0;
+            if (alg == 0) {
+                // Completion of the inserted job after position j - 1, plus the tail
+                // of position j
+                int c = 0;
+                for (int i = 0; i < m; i++) {
+                    int up = e[prev + i];
+                    c = (c > up ? c : up) + p[jb + i];
+                    int total = c + q[prev + i];
+                    if (total > make) {
+                        make = total;
+                    }
+                }
+            } else {
+                // Departure of the inserted job after position j - 1
+                int dep = e[prev] + p[jb];
+                for (int i = 0; i < m - 1; i++) {
+                    int next = e[prev + i + 1];
+                    if (next > dep) {
+                        dep = next;
+                    }
+                    f[i] = dep;
+                    dep += p[jb + i + 1];
+                }
+                f[m - 1] = dep;
+
+                // Longest path from the inserted job to the end, through position j
+                blockingTail(j < len ? seq[j] : -1, prev, jb, g, 0);
+                for (int i = 0; i < m; i++) {
+                    int total = f[i] + g[i];
+                    if (total > make) {
+                        make = total;
+                    }
+                }
+            }
+
+            if (make < bestMake) {
+                bestMake = make;
+                best = j;
+            }
+        }
+
+        insertMake = bestMake;
+        return best;
+    }
+
+    /**
+     * Fills e with the completion (FSS) or departure (FSSB) times of every
+     * position of the partial schedule, row 0 is all zeros
+     *
+     * @param seq - the partial schedule
+     * @param len - the number of jobs in seq
+     */
+    private void heads(int[] seq, int len) {
+        for (int i = 0; i < m; i++) {
+            e[i] = 0;
+        }
+        for (int j = 0; j < len; j++) {
+            int prev = j * m;
+            int cur = prev + m;
+            int base = seq[j] * m;
+            if (alg == 0) {
+                int c = 0;
+                for (int i = 0; i < m; i++) {
+                    int up = e[prev + i];
+                    c = (c > up ? c : up) + p[base + i];
+                    e[cur + i] = c;
+                }
+            } else {
+                int dep = e[prev] + p[base];
+                for (int i = 0; i < m - 1; i++) {
+                    int next = e[prev + i + 1];
+                    if (next > dep) {
+                        dep = next;
+                    }
+                    e[cur + i] = dep;
+                    dep += p[base + i + 1];
+                }
+                e[cur + m - 1] = dep;
+            }
+        }
+    }
+
+    /**
+     * Fills q with the tails of every position of the partial schedule, row len
+     * is all zeros. For FSS this is Taillard's tail including the position's own
+     * processing time, for FSSB it is the longest path from the position's
+     * departure time to the end of the schedule.
+     *
+     * @param seq - the partial schedule
+     * @param len - the number of jobs in seq
+     */
+    private void tails(int[] seq, int len) {
+        int end = len * m;
+        for (int i = 0; i < m; i++) {
+            q[end + i] = 0;
+        }
+        for (int j = len - 1; j >= 0; j--) {
+            int row = j * m;
+            int base = seq[j] * m;
+            if (alg == 0) {
+                int c = 0;
+                for (int i = m - 1; i >= 0; i--) {
+                    int right = q[row + m + i];
+                    c = (c > right ? c : right) + p[base + i];
+                    q[row + i] = c;
+                }
+            } else {
+                int next = j + 1 < len ? seq[j + 1] : -1;
+                blockingTail(next, row + m, base, q, row);
+            }
+        }
+    }
+
+    /**
+     * Computes blocking tails of the job at base, followed by the job next whose
+     * tails are in q at nextRow. Leaving machine i lets the next job leave
+     * machine i - 1 (or start on machine 0 when i is 0), and the job itself moves
+     * on to machine i + 1.
+     *
+     * @param next    - the following job, or -1 if there is none
+     * @param nextRow - offset of the following job's tails in q
+     * @param base    - offset of the job in p
+     * @param out     - where to store the tails
+     * @param off     - offset in out to store the tails at
+     */
+    private void blockingTail(int next, int nextRow, int base, int[] out, int off) {
+        int t = 0;
+        for (int i = m - 1; i >= 0; i--) {
+            if (i < m - 1) {
+                t += p[base + i + 1];
+            }
+            if (next >= 0) {
+                int via = i > 0 ? q[nextRow + i - 1] : q[nextRow] + p[next * m];
+                if (via > t) {
+                    t = via;
+                }
+            }
+            out[off + i] = t;
+        }
+    }
+
+    /**
+     * Returns the makespan of the first len jobs of a schedule
+     *
+     * @param seq - the schedule
+     * @param len - the number of jobs to schedule
+     * @return the makespan of the schedule
+     */
+    private int evaluate(int[] seq, int len) {
+        return alg == 0 ? Makespan.FSS(p, m, seq, len, f) : Makespan.FSSB(p, m, seq, len, f);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Makespan : Allocation-free makespan kernels for permutation flow shop
+ *            scheduling. Implements Flow Shop Scheduling (FSS) and
+ *            Flow Shop Scheduling with Blocking (FSSB) over a flat,
+ *            job-major processing times array using a single rolling
+ *            row of m completion (or departure) times.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+public final class Makespan {
+    // Returned by the bounded kernels when the schedule cannot beat the bound
+    public static final int ABORTED = Integer.MAX_VALUE;
+
+    private Makespan() {
+    }
+
+    /**
+     * Flattens a machine-major processing times matrix (times[machine][job]) into
+     * a job-major array where the time of job j on machine i is at p[j * m + i]
+     *
+     * @param times - the processing times of each job on each machine
+     * @param m     - the number of machines
+     * @param n     - the number of jobs
+     * @return - the flat job-major processing times
+     */
+    public static int[] flatten(int[][] times, int m, int n) {
+        int[] p = new int[m * n];
+        for (int i = 0; i < m; i++) {
+            int[] machine = times[i];
+            for (int j = 0; j < n; j++) {
+                p[j * m + i] = machine[j];
+            }
+        }
+        return p;
+    }
+
+    /**
+     * The FSS makespan of the first len jobs of order.
+     *
+     * @param p     - flat job-major processing times
+     * @param m     - the number of machines
+     * @param order - the job order
+     * @param len   - the number of jobs of order to schedule
+     * @param row   - buffer of at least m values, overwritten
+     * @return the makespan value of the schedule
+     */
+    public static int FSS(int[] p, int m, int[] order, int len, int[] row) {
+        return FSS(p, m, order, len, row, ABORTED);
+    }
+
+    /**
+     * The FSS makespan of the first len jobs of order, giving up as soon as the
+     * completion time on the last machine reaches the bound.
+     *
+     * @param p     - flat job-major processing times
+     * @param m     - the number of machines
+     * @param order - the job order
+     * @param len   - the number of jobs of order to schedule
+     * @param row   - buffer of at least m values, overwritten
+     * @param bound - makespan the schedule has to beat
+     * @return the makespan value of the schedule, or ABORTED if it is not below
+     *         the bound
+     */
+    public static int FSS(int[] p, int m, int[] order, int len, int[] row, int bound) {
+        for (int i = 0; i < m; i++) {
+            row[i] = 0;
+        }
+
+        int c = 0;
+        for (int j = 0; j < len; j++) {
+            int base = order[j] * m;
+
+            // Completion time on machine i is max(machine i free, job done on i - 1)
+            c = row[0] + p[base];
+            row[0] = c;
+            for (int i = 1; i < m; i++) {
+                int up = row[i];
+                c = (c > up ? c : up) + p[base + i];
+                row[i] = c;
+            }
+
+            // The last machine only gets later, so the bound can't be beaten anymore
+            if (c >= bound) {
+                return ABORTED;
+            }
+        }
+
+        return c;
+    }
+
+    /**
+     * The FSSB makespan of the first len jobs of order.
+     *
+     * @param p     - flat job-major processing times
+     * @param m     - the number of machines
+     * @param order - the job order
+     * @param len   - the number of jobs of order to schedule
+     * @param row   - buffer of at least m values, overwritten
+     * @return the makespan value of the schedule
+     */
+    public static int FSSB(int[] p, int m, int[] order, int len, int[] row) {
+        return FSSB(p, m, order, len, row, ABORTED);
+    }
+
+    /**
+     * The FSSB makespan of the first len jobs of order, giving up as soon as the
+     * departure time from the last machine reaches the bound.
+     *
+     * @param p     - flat job-major processing times
+     * @param m     - the number of machines
+     * @param order - the job order
+     * @param len   - the number of jobs of order to schedule
+     * @param row   - buffer of at least m values, overwritten
+     * @param bound - makespan the schedule has to beat
+     * @return the makespan value of the schedule, or ABORTED if it is not below
+     *         the bound
+     */
+    public static int FSSB(int[] p, int m, int[] order, int len, int[] row, int bound) {
+        for (int i = 0; i < m; i++) {
+            row[i] = 0;
+        }
+
+        int last = m - 1;
+        int d = 0;
+        for (int j = 0; j < len; j++) {
+            int base = order[j] * m;
+
+            // A job leaves machine i once it is done there and machine i + 1 is free,
+            // row[i + 1] still holds the departure of the previous job at this point
+            d = row[0] + p[base];
+            for (int i = 0; i < last; i++) {
+                int next = row[i + 1];
+                if (next > d) {
+                    d = next;
+                }
+                row[i] = d;
+                d += p[base + i + 1];
+            }
+            row[last] = d;
+
+            // The last machine only gets later, so the bound can't be beaten anymore
+            if (d >= bound) {
+                return ABORTED;
+            }
+        }
+
+        return d;
+    }
+}
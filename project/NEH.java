@@ -13,9 +13,13 @@
 package project;
 
 public class NEH {
-    // Hold the processing times of each job on each machine
+    // Hold the processing times of each job on each machine, null when the
+    // times were given flat
     public int[][] matrix;
 
+    // Flat job-major processing times, p[job * m + machine]
+    private final int[] p;
+
     // The schedule determined by the algorithm
     public int[] schedule;
 
@@ -28,6 +32,12 @@ public class NEH {
     // The number of jobs
     public int n;
 
+    // The number of (partial) schedules evaluated
+    public long evaluations;
+
+    // Watches the run, null to run without one
+    private RunHandle handle;
+
     /**
      * Constructor
      * 
@@ -38,12 +48,52 @@ public class NEH {
      */
     public NEH(int[][] times, int m, int n, int alg) {
         matrix = times;
+        p = Makespan.flatten(times, m, n);
+        schedule = new int[n];
+        this.m = m;
+        this.n = n;
+        makespan = runNEH(alg);
+    }
+
+    /**
+     * Constructor for flat processing times, such as those of a loaded
+     * Instance, which are used as they are
+     * 
+     * @param p   - flat job-major processing times, p[job * m + machine]
+     * @param m   - the number of machines
+     * @param n   - the number of jobs
+     * @param alg - the algorithm to use
+     */
+    public NEH(int[] p, int m, int n, int alg) {
+        this.p = p;
         schedule = new int[n];
         this.m = m;
         this.n = n;
         makespan = runNEH(alg);
     }
 
+    /**
+     * Constructor that reports to a handle. After every insertion the partial
+     * schedule completed with the remaining jobs in NEH order is a full
+     * schedule, it is reported when its makespan improves. A cancelled run
+     * stops inserting and returns that schedule.
+     * 
+     * @param times  - the processing times of each job on each machine
+     * @param m      - the number of machines
+     * @param n      - the number of jobs
+     * @param alg    - the algorithm to use
+     * @param handle - the handle of the run
+     */
+    public NEH(int[][] times, int m, int n, int alg, RunHandle handle) {
+        matrix = times;
+        p = Makespan.flatten(times, m, n);
+        schedule = new int[n];
+        this.m = m;
+        this.n = n;
+        this.handle = handle;
+        makespan = runNEH(alg);
+    }
+
     /**
      * The NEH algorithm to determine the schedule
      * 
@@ -58,7 +108,7 @@ public class NEH {
         for (int i = 0; i < n; i++) {
             totals[i] = 0;
             for (int j = 0; j < m; j++) {
-                totals[i] += matrix[j][i];
+                totals[i] += p[i * m + j];
             }
         }
 
@@ -77,8 +127,9 @@ public class NEH {
             }
         }
 
-        // Transpose matrix for ease of use
-        int[][] transMatrix = transposeMatrix(matrix);
+        // Reused buffers for the candidate orders and the makespan kernels
+        int[] order = new int[n];
+        int[] row = new int[m];
 
         // Current number of jobs in the schedule
         int L = 2;
@@ -87,44 +138,56 @@ public class NEH {
         schedule[0] = sorted[0];
         int currMake = -1;
 
+        // Makespan of the last schedule reported to the handle
+        int reported = Integer.MAX_VALUE;
+
         // Find the best schedule with the shortest makespan
         while (L < n + 1) {
-            // Best schedule and makespan for the current L
-            int[] best = new int[L];
+            if (handle != null) {
+                // Complete the schedule with the jobs not inserted yet
+                System.arraycopy(sorted, L - 1, schedule, L - 1, n - L + 1);
+                int full = alg == 0 ? Makespan.FSS(p, m, schedule, n, row) : Makespan.FSSB(p, m, schedule, n, row);
+                if (full < reported) {
+                    reported = full;
+                    handle.improved(full, schedule, evaluations);
+                }
+                if (handle.isCancelled()) {
+                    return full;
+                }
+            }
+
+            // Best insertion position and makespan for the current L
+            int best = 0;
             int bestScore = Integer.MAX_VALUE;
 
+            // Start with the new job in front of the current schedule
+            int newJob = sorted[L - 1];
+            order[0] = newJob;
+            System.arraycopy(schedule, 0, order, 1, L - 1);
+
             // For every possible schedule of length L
             for (int i = 0; i < L; i++) {
-                // Creating job order
-                int[] order = new int[L];
-                int newJob = sorted[L - 1];
-                order[i] = newJob;
-                for (int j = 0, k = 0; j < L; j++) {
-                    if (i != j) {
-                        order[j] = schedule[k];
-                        k++;
-                    }
+                // Move the new job one position further back
+                if (i > 0) {
+                    order[i - 1] = order[i];
+                    order[i] = newJob;
                 }
 
-                // Calculating makespan
-                int[][] tempMatrix = new int[L][m];
-                for (int j = 0; j < L; j++) {
-                    tempMatrix[j] = transMatrix[order[j]];
-                }
-                tempMatrix = transposeMatrix(tempMatrix);
-                int makespan = alg == 0 ? FSS(tempMatrix, m, L) : FSSB(tempMatrix, m, L);
+                // Calculating makespan, candidates that can't beat the best are cut short
+                int makespan = alg == 0 ? Makespan.FSS(p, m, order, L, row, bestScore)
+                        : Makespan.FSSB(p, m, order, L, row, bestScore);
+                evaluations++;
 
                 // If the makespan is better than the best one, update the best
                 if (makespan < bestScore) {
                     bestScore = makespan;
-                    best = order;
+                    best = i;
                 }
             }
 
             // Update the schedule
-            for (int i = 0; i < L; i++) {
-                schedule[i] = best[i];
-            }
+            System.arraycopy(schedule, best, schedule, best + 1, L - 1 - best);
+            schedule[best] = newJob;
 
             // Update the best makespan for the current L
             currMake = bestScore;
@@ -133,6 +196,9 @@ public class NEH {
             L += 1;
         }
 
+        if (handle != null && currMake < reported) {
+            handle.improved(currMake, schedule, evaluations);
+        }
         return currMake;
     }
 
@@ -168,27 +234,18 @@ public class NEH {
      * @return the makespan value of the schedule
      */
     public int FSS(int[][] times, int m, int n) {
-        int[][] makespan = new int[m][n];
-        makespan[0][0] = times[0][0];
-
-        // Processing job 1 on all machines
-        for (int i = 1; i < m; i++) {
-            makespan[i][0] = makespan[i - 1][0] + times[i][0];
-        }
-
-        // Processing all jobs on machine 1
-        for (int j = 1; j < n; j++) {
-            makespan[0][j] = makespan[0][j - 1] + times[0][j];
-        }
+        // Completion times of the previous job on each machine
+        int[] row = new int[m];
 
         // Processing all jobs on all machines
-        for (int i = 1; i < m; i++) {
-            for (int j = 1; j < n; j++) {
-                makespan[i][j] = Math.max(makespan[i - 1][j], makespan[i][j - 1]) + times[i][j];
+        for (int j = 0; j < n; j++) {
+            row[0] += times[0][j];
+            for (int i = 1; i < m; i++) {
+                row[i] = Math.max(row[i - 1], row[i]) + times[i][j];
             }
         }
 
-        return makespan[m - 1][n - 1];
+        return row[m - 1];
     }
 
     /**
@@ -200,22 +257,20 @@ public class NEH {
      * @return the makespan value of the schedule
      */
     public int FSSB(int[][] times, int m, int n) {
-        int[][] makespan = new int[m][n];
-        makespan[0][0] = times[0][0];
-
-        // Processing job 1 on all machines
-        for (int i = 1; i < m; i++) {
-            makespan[i][0] = makespan[i - 1][0] + times[i][0];
-        }
+        // Departure times of the previous job from each machine
+        int[] row = new int[m];
 
         // Finding departure times for all jobs on all machines
-        for (int j = 1; j < n; j++) {
-            for (int i = 1; i < m - 1; i++) {
-                makespan[i][j] = Math.max(makespan[i - 1][j] + times[i][j], makespan[i + 1][j - 1]);
+        for (int j = 0; j < n; j++) {
+            int d = row[0] + times[0][j];
+            for (int i = 0; i < m - 1; i++) {
+                d = Math.max(d, row[i + 1]);
+                row[i] = d;
+                d += times[i + 1][j];
             }
-            makespan[m - 1][j] = makespan[m - 2][j] + times[m - 1][j];
+            row[m - 1] = d;
         }
 
-        return makespan[m - 1][n - 1];
+        return row[m - 1];
     }
 }
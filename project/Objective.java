@@ -0,0 +1,21 @@
+/*
+ * Objective : The function minimized by the optimization algorithms. The
+ *             ten mathematical functions in Problem are used by default,
+ *             other objectives such as random-key scheduling plug in here.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+public interface Objective {
+    /**
+     * Returns the fitness value of a solution vector
+     * 
+     * @param x - the solution vector
+     * @return - the fitness value of the vector
+     */
+    double evaluate(double[] x);
+}
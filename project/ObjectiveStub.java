@@ -0,0 +1,67 @@
+/*
+ * ObjectiveStub : A stand-in for an external simulator, speaks the protocol
+ *                 of ExternalObjective on its standard input and output and
+ *                 evaluates one of the functions in Problem. Run it as
+ *                 "java -cp <classes> project.ObjectiveStub <problem type>
+ *                 [milliseconds per vector]"; the delay makes it as slow as
+ *                 a real simulator.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class ObjectiveStub {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int problem = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        long delay = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        Objective objective = Problem.objective(problem);
+
+        InputStream in = new BufferedInputStream(System.in);
+        OutputStream out = new BufferedOutputStream(System.out);
+        ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer buffer = ByteBuffer.allocate(0);
+
+        // Answer requests until the standard input is closed
+        while (in.readNBytes(header.array(), 0, 8) == 8) {
+            int n = header.getInt(0);
+            int D = header.getInt(4);
+            if (buffer.capacity() < 8 * n * Math.max(D, 1)) {
+                buffer = ByteBuffer.allocate(8 * n * Math.max(D, 1)).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            if (in.readNBytes(buffer.array(), 0, 8 * n * D) < 8 * n * D) {
+                break;
+            }
+
+            double[] x = new double[D];
+            double[] fitness = new double[n];
+            buffer.clear();
+            for (int i = 0; i < n; i++) {
+                for (int k = 0; k < D; k++) {
+                    x[k] = buffer.getDouble();
+                }
+                fitness[i] = objective.evaluate(x);
+            }
+            if (delay > 0) {
+                Thread.sleep(delay * n);
+            }
+
+            buffer.clear();
+            for (int i = 0; i < n; i++) {
+                buffer.putDouble(fitness[i]);
+            }
+            out.write(buffer.array(), 0, 8 * n);
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Optimizer : A minimization engine that is set up once and run many times.
+ *             An engine keeps its working buffers between runs, so a
+ *             campaign only pays for its setup once per thread. Engines are
+ *             not thread-safe, give each thread its own.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+public interface Optimizer {
+    /**
+     * Runs the engine from its starting population. Runs with the same seed and
+     * budget give the same result.
+     *
+     * @param seed   - seed of the random number generator
+     * @param budget - generations or iterations of the run, see the engine
+     * @return - the fitness of the best solution found
+     */
+    double run(long seed, long budget);
+
+    /**
+     * @return - the best solution vector of the last run
+     */
+    double[] getSolution();
+
+    /**
+     * @return - the fitness of the best solution vector of the last run
+     */
+    double getFitness();
+
+    /**
+     * @return - the number of function evaluations of the last run
+     */
+    long getEvaluations();
+
+    /**
+     * Chooses the population vector the next runs start from. Population based
+     * engines start from the whole population and ignore it.
+     *
+     * @param index - index of the vector
+     */
+    default void setStart(int index) {
+    }
+
+    /**
+     * Saves the state of the next runs to a checkpoint and resumes from it.
+     * Engines without checkpoints ignore it.
+     *
+     * @param checkpoint - the checkpoint, null to run without one
+     */
+    default void setCheckpoint(Checkpoint checkpoint) {
+    }
+
+    /**
+     * Reports the improvements of the next runs to a handle and stops them when
+     * the handle is cancelled. Engines without handles ignore it.
+     *
+     * @param handle - the handle, null to run without one
+     */
+    default void setHandle(RunHandle handle) {
+    }
+}
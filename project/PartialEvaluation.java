@@ -0,0 +1,237 @@
+/*
+ * PartialEvaluation : Keeps the fitness of a context vector as a sum of
+ *                     terms, so changing a few elements only costs as many
+ *                     terms as they appear in. The problems in Problem are
+ *                     sums of a term per element (Schwefel, De Jong 1,
+ *                     Rastrigin) or of a term per pair of neighboring
+ *                     elements (the others), except Griewank, whose product
+ *                     couples every element.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+public class PartialEvaluation {
+    // The problem type
+    private final int problem;
+
+    // Whether a term depends on an element and the next one
+    private final boolean pairwise;
+
+    // The fitness is offset + sign * the sum of the terms
+    private final double offset;
+    private final double sign;
+
+    // The context vector
+    private final double[] x;
+
+    // The term of each element, or of each element and the next one
+    private final double[] terms;
+
+    // Sum of the terms, updated as they change
+    private double sum;
+
+    /**
+     * Constructor
+     *
+     * @param problem - problem type, see supports
+     * @param context - the context vector, copied
+     */
+    public PartialEvaluation(int problem, double[] context) {
+        if (!supports(problem)) {
+            throw new IllegalArgumentException("Problem " + problem + " is not a sum of terms");
+        }
+        this.problem = problem;
+        int n = context.length;
+        pairwise = problem != 1 && problem != 2 && problem != 4;
+        offset = problem == 1 ? 418.9829 * n : problem == 4 ? 10 * n : 0;
+        sign = problem == 1 || problem == 6 ? -1 : 1;
+        x = context.clone();
+        terms = new double[pairwise ? Math.max(n - 1, 0) : n];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = term(i);
+        }
+        resync();
+    }
+
+    /**
+     * @param problem - problem type
+     * @return - whether the problem can be evaluated partially, every problem
+     *         but Griewank
+     */
+    public static boolean supports(int problem) {
+        return problem >= 1 && problem <= 10 && problem != 5;
+    }
+
+    /**
+     * @return - the fitness of the context vector
+     */
+    public double fitness() {
+        return offset + sign * sum;
+    }
+
+    /**
+     * @return - a copy of the context vector
+     */
+    public double[] context() {
+        return x.clone();
+    }
+
+    /**
+     * @param k - index of an element
+     * @return - the element of the context vector
+     */
+    public double get(int k) {
+        return x[k];
+    }
+
+    /**
+     * Returns the fitness of the context vector with some of its elements
+     * replaced, without changing it. Only reads, so trials can run in parallel
+     * while the context does not change.
+     *
+     * @param dims   - indexes of the replaced elements, in increasing order
+     * @param values - their new values
+     * @return - the fitness of the changed vector
+     */
+    public double trial(int[] dims, double[] values) {
+        double delta = 0;
+        for (int j = 0; j < dims.length; j++) {
+            int k = dims[j];
+            if (!pairwise) {
+                delta += term(values[j], 0) - terms[k];
+                continue;
+            }
+
+            // The term of the previous element, unless it was replaced too and counted
+            if (k > 0 && (j == 0 || dims[j - 1] != k - 1)) {
+                delta += term(x[k - 1], values[j]) - terms[k - 1];
+            }
+
+            // The term of this element and the next one
+            if (k < terms.length) {
+                double next = j + 1 < dims.length && dims[j + 1] == k + 1 ? values[j + 1] : x[k + 1];
+                delta += term(values[j], next) - terms[k];
+            }
+        }
+        return offset + sign * (sum + delta);
+    }
+
+    /**
+     * Replaces some elements of the context vector
+     *
+     * @param dims   - indexes of the replaced elements, in increasing order
+     * @param values - their new values
+     */
+    public void apply(int[] dims, double[] values) {
+        for (int j = 0; j < dims.length; j++) {
+            x[dims[j]] = values[j];
+        }
+        for (int j = 0; j < dims.length; j++) {
+            int k = dims[j];
+            if (pairwise && k > 0) {
+                update(k - 1);
+            }
+            if (k < terms.length) {
+                update(k);
+            }
+        }
+    }
+
+    /**
+     * Differential grouping test of the elements k and k + 1, whether changing
+     * one of them changes what changing the other does to the fitness:
+     * (f(x) - f(x, x_k = a)) - (f(x, x_k+1 = b) - f(x, x_k = a, x_k+1 = b)).
+     * Only a term that holds both elements can make it non-zero, so only that
+     * term is evaluated. Elements that are further apart never share a term.
+     *
+     * @param k - index of the first element
+     * @param a - the changed value of element k
+     * @param b - the changed value of element k + 1
+     * @return - whether the elements interact
+     */
+    public boolean interacts(int k, double a, double b) {
+        if (!pairwise) {
+            return false;
+        }
+        double ll = terms[k];
+        double ul = term(a, x[k + 1]);
+        double lm = term(x[k], b);
+        double um = term(a, b);
+        double scale = Math.abs(ll) + Math.abs(ul) + Math.abs(lm) + Math.abs(um);
+        return Math.abs((ll - ul) - (lm - um)) > 1e-12 * scale;
+    }
+
+    /**
+     * Sums the terms again, rounding errors of the updates do not add up
+     */
+    public void resync() {
+        sum = 0;
+        for (double t : terms) {
+            sum += t;
+        }
+    }
+
+    /**
+     * Recomputes a term from the context vector
+     *
+     * @param i - index of the term
+     */
+    private void update(int i) {
+        double t = term(i);
+        sum += t - terms[i];
+        terms[i] = t;
+    }
+
+    /**
+     * @param i - index of the term
+     * @return - the term computed from the context vector
+     */
+    private double term(int i) {
+        return pairwise ? term(x[i], x[i + 1]) : term(x[i], 0);
+    }
+
+    /**
+     * Returns one term of the problem, as summed by Problem
+     *
+     * @param a - the element
+     * @param b - the next element, ignored by problems with a term per element
+     * @return - the term
+     */
+    private double term(double a, double b) {
+        switch (problem) {
+            case 1: // Schwefel
+                return -a * Math.sin(Math.sqrt(Math.abs(a)));
+            case 2: // De Jong 1
+                return a * a;
+            case 3: // Rosenbrock
+                return 100 * (a * a - b) * (a * a - b) + (1 - a) * (1 - a);
+            case 4: // Rastrigin
+                return a * a - 10 * Math.cos(2 * Math.PI * a);
+            case 6: { // Sine Envelope Sine Wave
+                double s = a * a + b * b;
+                double top = Math.sin(s - 0.5);
+                double bottom = 1 + 0.001 * s;
+                return 0.5 + (top * top) / (bottom * bottom);
+            }
+            case 7: { // Stretch V Sine Wave
+                double s = a * a + b * b;
+                double wave = Math.sin(50 * Math.pow(s, 0.1));
+                return Math.pow(s, 0.25) * wave * wave + 1;
+            }
+            case 8: // Ackley One
+                return Math.exp(-0.2) * Math.sqrt(a * a + b * b) + 3 * (Math.cos(2 * a) + Math.sin(2 * b));
+            case 9: // Ackley Two
+                return 20 + Math.E - 20 / Math.exp(0.2 * Math.sqrt((a * a + b * b) / 2))
+                        - Math.exp(0.5 * (Math.cos(2 * Math.PI * a) + Math.cos(2 * Math.PI * b)));
+            case 10: // Egg Holder
+                return -a * Math.sin(Math.sqrt(Math.abs(a - b - 47)))
+                        - (b + 47) * Math.sin(Math.sqrt(Math.abs(b + 47 + a / 2)));
+            default:
+                return Double.NaN;
+        }
+    }
+}
@@ -32,10 +32,21 @@ public class Particle {
      * @param problem  - problem type
      */
     public Particle(double[] solution, double range, int problem) {
+        this(solution, range, problem, new MTRandom());
+    }
+
+    /**
+     * Constructor for Particle with a given random number generator
+     * 
+     * @param solution - solution vector
+     * @param range    - range of values for the particle
+     * @param problem  - problem type
+     * @param r        - random number generator
+     */
+    public Particle(double[] solution, double range, int problem, MTRandom r) {
         this.solution = solution;
         this.fitness = new Problem(solution, problem).getFitness();
         this.pBest = null;
-        MTRandom r = new MTRandom();
         // Upper bound is [range] and lower bound is [-range], so 50% of
         // [U - L] = [range]
         this.velocity = r.nextDouble() * range;
@@ -0,0 +1,424 @@
+/*
+ * ParticleSwarm : Particle Swarm Optimization engine. Every particle keeps
+ *                 the velocity it starts with and is pulled towards the
+ *                 best particle of the swarm. The budget of a run is its
+ *                 number of iterations. With a batch objective, every
+ *                 particle of an iteration is pulled towards the best one at
+ *                 the start of the iteration so the iteration is evaluated
+ *                 in batches. The positions are kept off the heap when
+ *                 the starting positions are, and are then read and written
+ *                 a particle at a time.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.nio.ByteBuffer;
+
+import mt.MTRandom;
+
+public class ParticleSwarm implements Optimizer {
+    // Kind of the checkpoint payload
+    static final int STATE = 2;
+
+    // The function being minimized
+    private final Objective objective;
+
+    // The objective when it evaluates whole iterations, null when it does not
+    private final BatchObjective batch;
+
+    // Cognitive and social factors
+    private final double c1;
+    private final double c2;
+
+    // Range of the starting velocities
+    private final double range;
+
+    // Dimensions and number of particles
+    private final int D;
+    private final int NP;
+
+    // The starting positions, copied into x at the start of every run
+    private final Population start;
+
+    // Positions, velocities and fitness of the particles, the positions are in
+    // xs and x is null when they are kept off the heap
+    private final double[][] x;
+    private final VectorStore xs;
+    private final double[] velocity;
+    private final double[] fit;
+
+    // Index of the best particle
+    private int gBest;
+
+    // Off the heap, the particle being moved and a copy of the best one
+    private final double[] p;
+    private final double[] gRow;
+
+    // Off the heap with a batch objective, the particles of an iteration while
+    // they are evaluated
+    private final double[][] moved;
+
+    // Position of the best particle at the start of an iteration, when the
+    // objective is a batch objective
+    private final double[] guide;
+
+    // Number of function evaluations
+    private long evaluations;
+
+    // Random number generator, reseeded by every run
+    private final MTRandom r = new MTRandom(0L);
+
+    // Where runs save their state, null to run without checkpoints
+    private Checkpoint checkpoint;
+
+    // Watches the runs, null to run without one
+    private RunHandle handle;
+
+    // Fitness last reported to the handle
+    private double reported;
+
+    /**
+     * Constructor with the factors of Algorithms
+     *
+     * @param pop       - starting positions
+     * @param objective - function to minimize
+     */
+    public ParticleSwarm(Population pop, Objective objective) {
+        this(pop, objective, 0.8, 1.2);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param pop       - starting positions, its range sets the velocities
+     * @param objective - function to minimize
+     * @param c1        - cognitive factor
+     * @param c2        - social factor
+     */
+    public ParticleSwarm(Population pop, Objective objective, double c1, double c2) {
+        this.objective = objective;
+        this.c1 = c1;
+        this.c2 = c2;
+        this.range = pop.getRange();
+        this.D = pop.getDimensions();
+        this.NP = pop.size();
+        this.start = pop;
+        velocity = new double[NP];
+        fit = new double[NP];
+        batch = objective instanceof BatchObjective ? (BatchObjective) objective : null;
+        guide = batch != null ? new double[D] : null;
+        boolean offHeap = pop.isOffHeap();
+        x = offHeap ? null : new double[NP][D];
+        xs = offHeap ? VectorStore.allocate(NP, D) : null;
+        p = offHeap ? new double[D] : null;
+        gRow = offHeap ? new double[D] : null;
+        moved = offHeap && batch != null ? new double[NP][D] : null;
+    }
+
+    /**
+     * Returns the position of a particle
+     *
+     * @param i   - index of the particle
+     * @param out - receives the position when the positions are off the heap
+     * @return - the position itself on the heap, otherwise out
+     */
+    private double[] position(int i, double[] out) {
+        if (x != null) {
+            return x[i];
+        }
+        xs.get(i, out);
+        return out;
+    }
+
+    /**
+     * Returns the checkpoint payload size needed by a swarm
+     *
+     * @param D  - Dimensions
+     * @param NP - Number of particles
+     * @return - the number of bytes
+     */
+    public static int checkpointSize(int D, int NP) {
+        return 32 + NP * (8 * D + 16) + 4 * MTRandom.stateSize();
+    }
+
+    @Override
+    public void setCheckpoint(Checkpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    @Override
+    public void setHandle(RunHandle handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Runs Particle Swarm Optimization
+     *
+     * @param seed       - seed of the random number generator
+     * @param iterations - Number of iterations
+     * @return - the fitness of the best particle
+     */
+    @Override
+    public double run(long seed, long iterations) {
+        r.setSeed(seed);
+        evaluations = 0;
+        reported = Double.MAX_VALUE;
+        long t = restore();
+        if (t < 0) {
+            t = 0;
+
+            // Initialize the particles
+            if (batch != null) {
+                double[][] placed = x != null ? x : moved;
+                BatchObjective.generation(batch, placed, NP, fit, i -> place(i, placed[i]));
+                evaluations += NP;
+                for (int i = 0; x == null && i < NP; i++) {
+                    xs.set(i, placed[i]);
+                }
+            } else {
+                for (int i = 0; i < NP; i++) {
+                    double[] v = x != null ? x[i] : p;
+                    place(i, v);
+                    fit[i] = evaluate(v);
+                    if (x == null) {
+                        xs.set(i, v);
+                    }
+                }
+            }
+
+            // Initialize the best particle
+            gBest = 0;
+            for (int i = 1; i < NP; i++) {
+                if (Math.abs(fit[i]) < fit[gBest]) {
+                    gBest = i;
+                }
+            }
+        }
+        if (x == null) {
+            xs.get(gBest, gRow);
+        }
+
+        for (; t < iterations; t++) {
+            if (handle != null) {
+                adopt(handle.injected());
+                report();
+                if (handle.isCancelled()) {
+                    break;
+                }
+            }
+            if (checkpoint != null && checkpoint.due()) {
+                save(t);
+            }
+
+            if (batch != null) {
+                // Move every particle towards the best one of the start of the
+                // iteration, evaluate them in batches, then update the best one
+                System.arraycopy(position(gBest, gRow), 0, guide, 0, D);
+                if (x != null) {
+                    BatchObjective.generation(batch, x, NP, fit, j -> move(j, x[j], guide));
+                } else {
+                    BatchObjective.generation(batch, moved, NP, fit, j -> {
+                        xs.get(j, moved[j]);
+                        move(j, moved[j], guide);
+                    });
+                    for (int j = 0; j < NP; j++) {
+                        xs.set(j, moved[j]);
+                    }
+                }
+                evaluations += NP;
+                for (int j = 0; j < NP; j++) {
+                    if (Math.abs(fit[j]) < fit[gBest]) {
+                        gBest = j;
+                    }
+                }
+                if (x == null) {
+                    xs.get(gBest, gRow);
+                }
+            } else {
+                // Update the states of every particle in the swarm
+                for (int j = 0; j < NP; j++) {
+                    double[] v = position(j, p);
+                    move(j, v, x != null ? x[gBest] : gRow);
+
+                    // Update the fitness of the particle and the best particle
+                    fit[j] = evaluate(v);
+                    if (Math.abs(fit[j]) < fit[gBest]) {
+                        gBest = j;
+                    }
+                    if (x == null) {
+                        xs.set(j, v);
+                        if (gBest == j) {
+                            System.arraycopy(v, 0, gRow, 0, D);
+                        }
+                    }
+                }
+            }
+        }
+        if (handle != null) {
+            report();
+        }
+        return fit[gBest];
+    }
+
+    /**
+     * Puts a particle at its starting position and draws its velocity
+     *
+     * @param i - index of the particle
+     * @param v - receives the position
+     */
+    private void place(int i, double[] v) {
+        start.getVector(i, v);
+        // Upper bound is [range] and lower bound is [-range], so 50% of
+        // [U - L] = [range]
+        velocity[i] = r.nextDouble() * range;
+    }
+
+    /**
+     * Moves a particle towards the best particle
+     *
+     * @param j - index of the particle
+     * @param p - position of the particle, moved in place
+     * @param g - position of the best particle
+     */
+    private void move(int j, double[] p, double[] g) {
+        for (int k = 0; k < D; k++) {
+            // The personal best of a particle is the particle itself, so the
+            // cognitive term only draws its random number
+            double addVel = velocity[j] + c1 * r.nextDouble() * (p[k] - p[k]) + c2 * r.nextDouble() * (g[k] - p[k]);
+            p[k] += addVel;
+        }
+    }
+
+    /**
+     * Moves the worst particle to an injected solution when it is better
+     *
+     * @param in - the injected solution, null if there is none
+     */
+    private void adopt(Improvement in) {
+        if (in == null) {
+            return;
+        }
+        double[] v = in.getSolution();
+        if (v == null || v.length != D) {
+            return;
+        }
+        int worst = 0;
+        for (int i = 1; i < NP; i++) {
+            if (fit[i] > fit[worst]) {
+                worst = i;
+            }
+        }
+        if (in.fitness < fit[worst]) {
+            if (x != null) {
+                System.arraycopy(v, 0, x[worst], 0, D);
+            } else {
+                xs.set(worst, v);
+            }
+            fit[worst] = in.fitness;
+            if (in.fitness < fit[gBest]) {
+                gBest = worst;
+                if (x == null) {
+                    System.arraycopy(v, 0, gRow, 0, D);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reports the best particle to the handle when it improved. Particles keep
+     * moving, so the best particle can get worse, only improvements on the best
+     * one reported so far are reported.
+     */
+    private void report() {
+        if (fit[gBest] < reported) {
+            reported = fit[gBest];
+            handle.improved(fit[gBest], position(gBest, gRow), evaluations);
+        }
+    }
+
+    /**
+     * @return - a copy of the position of the best particle of the last run
+     */
+    @Override
+    public double[] getSolution() {
+        return x != null ? x[gBest].clone() : xs.get(gBest);
+    }
+
+    @Override
+    public double getFitness() {
+        return fit[gBest];
+    }
+
+    @Override
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * Evaluates a position and counts the evaluation
+     *
+     * @param v - the position
+     * @return - the fitness of the position
+     */
+    private double evaluate(double[] v) {
+        evaluations++;
+        return objective.evaluate(v);
+    }
+
+    /**
+     * Saves the state of the run at the start of an iteration
+     *
+     * @param t - the iteration about to run
+     */
+    private void save(long t) {
+        ByteBuffer out = checkpoint.begin();
+        out.putInt(STATE).putInt(D).putInt(NP).putInt((int) t).putInt(gBest).putLong(evaluations);
+        for (int i = 0; i < NP; i++) {
+            out.putDouble(velocity[i]).putDouble(fit[i]);
+            double[] v = position(i, p);
+            for (int k = 0; k < D; k++) {
+                out.putDouble(v[k]);
+            }
+        }
+        for (int word : r.getState()) {
+            out.putInt(word);
+        }
+        checkpoint.commit();
+    }
+
+    /**
+     * Restores the state of a run from the checkpoint
+     *
+     * @return - the iteration to resume at, -1 if there is no saved state
+     */
+    private long restore() {
+        ByteBuffer in = checkpoint == null ? null : checkpoint.restore();
+        if (in == null || in.getInt() != STATE || in.getInt() != D || in.getInt() != NP) {
+            return -1;
+        }
+        int t = in.getInt();
+        gBest = in.getInt();
+        evaluations = in.getLong();
+        for (int i = 0; i < NP; i++) {
+            velocity[i] = in.getDouble();
+            fit[i] = in.getDouble();
+            double[] v = x != null ? x[i] : p;
+            for (int k = 0; k < D; k++) {
+                v[k] = in.getDouble();
+            }
+            if (x == null) {
+                xs.set(i, v);
+            }
+        }
+        int[] state = new int[MTRandom.stateSize()];
+        for (int i = 0; i < state.length; i++) {
+            state[i] = in.getInt();
+        }
+        r.setState(state);
+        return t;
+    }
+}
@@ -16,6 +16,12 @@ public class Population {
     // Holds the generated values for each experiment
     private double[][] population;
 
+    // Holds the generated values off the heap instead, null for heap populations
+    private VectorStore store;
+
+    // Holds the solution vectors off the heap instead, null for heap slots
+    private VectorStore solutionStore;
+
     // Holds the fitness values of each experiment
     private double[] fitness;
 
@@ -25,6 +31,9 @@ public class Population {
     // Range of possible values
     private double range;
 
+    // Random number generator for the initial and generated vectors
+    private MTRandom r;
+
     /**
      * Constructor for the Population class.
      * 
@@ -33,12 +42,110 @@ public class Population {
      * @param range - range of the values selected <strong>[-range, range]</strong>
      */
     public Population(int n, int m, double range) {
+        this(n, m, range, new MTRandom(false));
+    }
+
+    /**
+     * Constructor for a reproducible population
+     * 
+     * @param n     - number of experiments
+     * @param m     - number of dimensions
+     * @param range - range of the values selected <strong>[-range, range]</strong>
+     * @param seed  - seed of the random number generator
+     */
+    public Population(int n, int m, double range, long seed) {
+        this(n, m, range, new MTRandom(seed));
+    }
+
+    /**
+     * Copy constructor, gives a run its own population matrix so runs on the
+     * same population do not see each other's changes. A copy of an off-heap
+     * population shares its store, which getPopulation copies to the heap. The
+     * copy has no result slots.
+     * 
+     * @param pop  - population to copy
+     * @param seed - seed of the random number generator of the copy
+     */
+    public Population(Population pop, long seed) {
+        this.range = pop.range;
+        this.r = new MTRandom(seed);
+        fitness = new double[0];
+        solutions = new double[0][];
+        if (pop.store != null) {
+            // Only read through getVector, and getPopulation hands out heap copies
+            store = pop.store;
+            return;
+        }
+        int n = pop.population.length;
+        population = new double[n][];
+        for (int i = 0; i < n; i++) {
+            population[i] = pop.population[i].clone();
+        }
+    }
+
+    /**
+     * Constructor for a reproducible population kept off the heap. The vectors
+     * are the same as those of the heap population with the same seed.
+     * 
+     * @param n     - number of experiments
+     * @param m     - number of dimensions
+     * @param range - range of the values selected <strong>[-range, range]</strong>
+     * @param seed  - seed of the random number generator
+     * @param store - store of n vectors of m dimensions for the population
+     */
+    public Population(int n, int m, double range, long seed, VectorStore store) {
+        if (store.size() != n || store.dimensions() != m) {
+            throw new IllegalArgumentException("Store holds " + store.size() + " x " + store.dimensions()
+                    + " values, the population needs " + n + " x " + m);
+        }
         this.range = range;
+        this.r = new MTRandom(seed);
+        this.store = store;
+        fitness = new double[n];
+        solutions = new double[n][];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                store.set(i, j, r.nextDouble() * (range - (-range)) + (-range));
+            }
+        }
+    }
+
+    private Population(int n, int m, double range, MTRandom r) {
+        this.range = range;
+        this.r = r;
         fitness = new double[n];
         solutions = new double[n][m];
         population = genRandomMatrix(n, m);
     }
 
+    /**
+     * Resizes the result slots to hold one fitness value and solution vector per
+     * run. With 0 slots the population holds no results, for campaigns that only
+     * keep summary statistics.
+     * 
+     * @param runs - number of runs
+     */
+    public void setRuns(int runs) {
+        fitness = new double[runs];
+        solutions = new double[runs][];
+        solutionStore = null;
+    }
+
+    /**
+     * Resizes the result slots, keeping the solution vectors off the heap
+     * 
+     * @param runs      - number of runs
+     * @param solutions - store of a solution vector per run
+     */
+    public void setRuns(int runs, VectorStore solutions) {
+        if (solutions.size() < runs) {
+            throw new IllegalArgumentException("Store holds " + solutions.size() + " vectors, needs " + runs);
+        }
+        fitness = new double[runs];
+        this.solutions = new double[0][];
+        solutionStore = solutions;
+    }
+
     /**
      * Returns the fitness vector
      * 
@@ -49,7 +156,9 @@ public class Population {
     }
 
     /**
-     * Sets the value of the fitness at the index
+     * Sets the value of the fitness at the index. Every run owns its own index,
+     * so parallel runs can store their results without locking as long as the
+     * results are read after the runs are joined.
      * 
      * @param i       - index
      * @param fitness - fitness value
@@ -59,40 +168,124 @@ public class Population {
     }
 
     /**
-     * Sets the values of the solution vector at the index
+     * Sets the values of the solution vector at the index, see setFitness
      * 
      * @param i   - index
      * @param sol - solution vector
      */
     public void setSolution(int i, double[] sol) {
-        solutions[i] = sol;
+        if (solutionStore != null) {
+            solutionStore.set(i, sol);
+        } else {
+            solutions[i] = sol;
+        }
+    }
+
+    /**
+     * Returns the number of vectors in the population
+     * 
+     * @return - population size
+     */
+    public int size() {
+        return store != null ? store.size() : population.length;
+    }
+
+    /**
+     * Returns the number of dimensions of the vectors
+     * 
+     * @return - number of dimensions
+     */
+    public int getDimensions() {
+        if (store != null) {
+            return store.dimensions();
+        }
+        return population.length == 0 ? 0 : population[0].length;
+    }
+
+    /**
+     * Returns a vector of the population, the vector itself for heap populations
+     * and a copy for off-heap ones
+     * 
+     * @param i - index
+     * @return - the vector
+     */
+    public double[] getVector(int i) {
+        return store != null ? store.get(i) : population[i];
+    }
+
+    /**
+     * Copies a vector of the population
+     * 
+     * @param i   - index
+     * @param out - receives the vector
+     */
+    public void getVector(int i, double[] out) {
+        if (store != null) {
+            store.get(i, out);
+        } else {
+            System.arraycopy(population[i], 0, out, 0, out.length);
+        }
+    }
+
+    /**
+     * Overwrites a vector of the population, in the store for off-heap ones
+     * 
+     * @param i      - index
+     * @param vector - the new vector
+     */
+    public void setVector(int i, double[] vector) {
+        if (store != null) {
+            store.set(i, vector);
+        } else {
+            System.arraycopy(vector, 0, population[i], 0, vector.length);
+        }
     }
 
     /**
-     * Returns the population matrix
+     * Returns whether the population is kept off the heap
+     * 
+     * @return - true if the vectors are in a VectorStore
+     */
+    public boolean isOffHeap() {
+        return store != null;
+    }
+
+    /**
+     * Returns the population matrix. Off-heap populations return a new heap
+     * copy on every call, changes to it do not reach the store.
      * 
      * @return - population matrix
      */
     public double[][] getPopulation() {
-        return population;
+        return store != null ? copy(store) : population;
     }
 
     /**
-     * Returns the solutions matrix
+     * Returns the solutions matrix, a new heap copy for off-heap slots
      * 
      * @return - solutions matrix
      */
     public double[][] getSolution() {
-        return solutions;
+        return solutionStore != null ? copy(solutionStore) : solutions;
     }
 
     /**
-     * Sets the population matrix to the given matrix
+     * Sets the population matrix to the given matrix, off-heap populations copy
+     * it into their store
      * 
      * @param population - given population matrix
      */
     public void setPopulation(double[][] population) {
-        this.population = population;
+        if (store == null) {
+            this.population = population;
+            return;
+        }
+        if (population.length != store.size()) {
+            throw new IllegalArgumentException("Population needs " + store.size() + " vectors");
+        }
+        for (int i = 0; i < population.length; i++) {
+            store.set(i, population[i]);
+        }
     }
 
     /**
@@ -104,6 +297,20 @@ public class Population {
         return range;
     }
 
+    /**
+     * Copies the vectors of a store to the heap
+     * 
+     * @param vectors - the store
+     * @return - the vectors
+     */
+    private static double[][] copy(VectorStore vectors) {
+        double[][] matrix = new double[vectors.size()][];
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] = vectors.get(i);
+        }
+        return matrix;
+    }
+
     /**
      * Creates an n x m matrix initialized to pseudo-random values
      * 
@@ -113,7 +320,6 @@ public class Population {
      */
     public double[][] genRandomMatrix(int n, int m) {
         double[][] matrix = new double[n][m];
-        MTRandom r = new MTRandom(false);
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < m; j++) {
                 matrix[i][j] = r.nextDouble() * (range - (-range)) + (-range);
@@ -130,7 +336,6 @@ public class Population {
      */
     public double[] genRandomArray(int m) {
         double[] array = new double[m];
-        MTRandom r = new MTRandom(false);
         for (int i = 0; i < m; i++) {
             array[i] = r.nextDouble() * (range - (-range)) + (-range);
         }
@@ -147,7 +352,6 @@ public class Population {
      */
     public double[][] genNeighborhood(int n, int m, double[] solution) {
         double[][] neighborhood = new double[n][m];
-        MTRandom r = new MTRandom(false);
 
         // Fill a neighborhood with pseudo-random values based off of the solution
         // vector within a given range
@@ -0,0 +1,289 @@
+/*
+ * Portfolio : Runs Differential Evolution, Particle Swarm Optimization,
+ *             Blind Search and Repeated Local Search at the same time on
+ *             the same problem, each on its own thread. The members share
+ *             an incumbent, the best solution found by any of them, which
+ *             is only replaced by compare-and-set. Optionally every new
+ *             incumbent is injected into the other members. The portfolio
+ *             stops when the incumbent reaches the target fitness or the
+ *             members used up the shared evaluation budget.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class Portfolio implements AutoCloseable {
+    // Names of the members, in member order
+    public static final String[] NAMES = { "DE", "PSO", "Blind Search", "Repeated Local Search" };
+
+    // Evaluations a member counts before adding them to the shared count
+    private static final int BATCH = 1024;
+
+    // The members and the counters of their evaluations
+    private final Optimizer[] engines;
+    private final Counter[] counters;
+
+    // One thread per member
+    private final ExecutorService executor;
+
+    // Shared number of function evaluations
+    private final long budget;
+
+    // Fitness at which the portfolio stops
+    private final double target;
+
+    // Whether new incumbents are injected into the other members
+    private final boolean share;
+
+    // The current run
+    private volatile Race race;
+
+    // Number of function evaluations of the last run
+    private long evaluations;
+
+    /**
+     * Constructor
+     *
+     * @param pop       - starting population of DE and PSO, Blind Search and
+     *                  Repeated Local Search start from its first vector
+     * @param problem   - problem type
+     * @param crosstype - crossover type for DE
+     * @param method    - mutation method for DE
+     * @param budget    - shared number of function evaluations
+     * @param target    - fitness at which the portfolio stops
+     * @param share     - whether new incumbents are injected into the other
+     *                  members
+     */
+    public Portfolio(Population pop, int problem, int crosstype, int method, long budget, double target,
+            boolean share) {
+        this.budget = budget;
+        this.target = target;
+        this.share = share;
+        Objective objective = Problem.objective(problem);
+        counters = new Counter[NAMES.length];
+        for (int k = 0; k < counters.length; k++) {
+            counters[k] = new Counter(objective);
+        }
+        engines = new Optimizer[] { new DifferentialEvolution(pop, counters[0], crosstype, method),
+                new ParticleSwarm(pop, counters[1]), new BlindSearch(pop, counters[2]),
+                new RepeatedLocalSearch(pop, counters[3]) };
+        executor = Executors.newFixedThreadPool(engines.length, r -> {
+            Thread t = new Thread(r, "portfolio");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Runs the members until one of them reaches the target or the budget is
+     * used up. Members only stop at their generation or iteration boundaries,
+     * so the run can use a little more than the budget.
+     *
+     * @param seed - seed of the run, every member derives its own
+     * @return - the best solution found by the members
+     */
+    public Improvement run(long seed) {
+        Race run = new Race();
+        for (int k = 0; k < engines.length; k++) {
+            counters[k].count = 0;
+            run.handles[k].subscribe(new Member(run, k));
+        }
+        race = run;
+        for (int k = 0; k < engines.length; k++) {
+            run.handles[k].submit(engines[k], Campaign.seed(seed, k), Long.MAX_VALUE, executor);
+        }
+
+        // The final solutions, improvements delivered late are covered by these
+        evaluations = 0;
+        for (int k = 0; k < engines.length; k++) {
+            run.offer(k, run.handles[k].result().join());
+            evaluations += engines[k].getEvaluations();
+        }
+        return run.incumbent.get().improvement;
+    }
+
+    /**
+     * @return - index in NAMES of the member that found the best solution of the
+     *         last run
+     */
+    public int getWinner() {
+        return race.incumbent.get().member;
+    }
+
+    /**
+     * @return - the number of function evaluations of the last run, of all
+     *         members together
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * The objective of one member, counts its evaluations and adds them to the
+     * shared count in batches
+     */
+    private final class Counter implements Objective {
+        // The function being minimized
+        private final Objective objective;
+
+        // Evaluations of the member in the current run, only used by its thread
+        private long count;
+
+        /**
+         * Constructor
+         *
+         * @param objective - the function being minimized
+         */
+        Counter(Objective objective) {
+            this.objective = objective;
+        }
+
+        @Override
+        public double evaluate(double[] x) {
+            if (++count % BATCH == 0) {
+                Race run = race;
+                if (run.used.addAndGet(BATCH) >= budget) {
+                    run.stop();
+                }
+            }
+            return objective.evaluate(x);
+        }
+    }
+
+    /**
+     * Receives the improvements of one member
+     */
+    private static final class Member implements Flow.Subscriber<Improvement> {
+        // The run of the member
+        private final Race run;
+
+        // Index of the member
+        private final int member;
+
+        /**
+         * Constructor
+         *
+         * @param run    - the run of the member
+         * @param member - index of the member
+         */
+        Member(Race run, int member) {
+            this.run = run;
+            this.member = member;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(Improvement improvement) {
+            run.offer(member, improvement);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    /**
+     * The shared state of one run, improvements that are delivered after the
+     * run ended can not reach the next one
+     */
+    private final class Race {
+        // Evaluations used by the members, in batches
+        final AtomicLong used = new AtomicLong();
+
+        // The best solution and the member that found it
+        final AtomicReference<Incumbent> incumbent = new AtomicReference<Incumbent>();
+
+        // Handles of the members
+        final RunHandle[] handles = new RunHandle[engines.length];
+
+        /**
+         * Constructor
+         */
+        Race() {
+            for (int k = 0; k < handles.length; k++) {
+                handles[k] = new RunHandle();
+            }
+        }
+
+        /**
+         * Makes a solution the incumbent if it is better, stops the run when it
+         * reaches the target and otherwise injects it into the other members
+         *
+         * @param member - the member that found it
+         * @param in     - the solution
+         */
+        void offer(int member, Improvement in) {
+            Incumbent next = new Incumbent(in, member);
+            Incumbent current;
+            do {
+                current = incumbent.get();
+                if (current != null && current.improvement.fitness <= in.fitness) {
+                    return;
+                }
+            } while (!incumbent.compareAndSet(current, next));
+
+            if (in.fitness <= target) {
+                stop();
+            } else if (share) {
+                for (int k = 0; k < handles.length; k++) {
+                    if (k != member) {
+                        handles[k].inject(in);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Cancels every member
+         */
+        void stop() {
+            for (RunHandle handle : handles) {
+                handle.cancel();
+            }
+        }
+    }
+
+    /**
+     * The incumbent and the member that found it
+     */
+    private static final class Incumbent {
+        // The best solution
+        final Improvement improvement;
+
+        // Index of the member that found it
+        final int member;
+
+        /**
+         * Constructor
+         *
+         * @param improvement - the best solution
+         * @param member      - index of the member that found it
+         */
+        Incumbent(Improvement improvement, int member) {
+            this.improvement = improvement;
+            this.member = member;
+        }
+    }
+}
@@ -9,7 +9,16 @@
  */
 package project;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class Problem {
+    // Problem types above 10 defined at run time, such as compiled formulas
+    private static final Map<Integer, Objective> defined = new ConcurrentHashMap<Integer, Objective>();
+
+    // Source of the problem types defined from formulas
+    private static final Map<Integer, String> sources = new ConcurrentHashMap<Integer, String>();
+
     // Holds the generated values passed to the constructor
     private double[] values;
 
@@ -21,6 +30,7 @@ public class Problem {
      * 
      * @param vector  - vector of values
      * @param probNum - problem type
+     * @exception IllegalArgumentException - if the problem type is not defined
      */
     public Problem(double[] vector, int probNum) {
         values = vector;
@@ -55,7 +65,70 @@ public class Problem {
             case 10:
                 fitness = egg_holder();
                 break;
+            default:
+                fitness = objective(probNum).evaluate(values);
+                break;
+        }
+    }
+
+    /**
+     * Defines a problem type, replacing an earlier definition of it
+     * 
+     * @param probNum   - problem type, above 10
+     * @param objective - the function of the problem type
+     */
+    public static void define(int probNum, Objective objective) {
+        define(probNum, objective, null);
+    }
+
+    /**
+     * Defines a problem type from the source it was compiled from, replacing
+     * an earlier definition of it
+     * 
+     * @param probNum   - problem type, above 10
+     * @param objective - the function of the problem type
+     * @param source    - the source of the function, such as its formula
+     */
+    public static void define(int probNum, Objective objective, String source) {
+        if (probNum <= 10) {
+            throw new IllegalArgumentException("Problem type " + probNum + " is built in");
+        }
+        defined.put(probNum, objective);
+        if (source != null) {
+            sources.put(probNum, source);
+        } else {
+            sources.remove(probNum);
+        }
+    }
+
+    /**
+     * Returns the source of a problem type defined from one
+     * 
+     * @param probNum - problem type
+     * @return - the source, null for the built-in types and types defined
+     *         without one
+     */
+    public static String source(int probNum) {
+        return sources.get(probNum);
+    }
+
+    /**
+     * Returns the function of a problem type as an objective
+     * 
+     * @param probNum - problem type
+     * @return - the objective
+     * @exception IllegalArgumentException - if the problem type is not defined
+     */
+    public static Objective objective(int probNum) {
+        Objective objective = defined.get(probNum);
+        if (objective != null) {
+            return objective;
+        }
+        if (probNum < 1 || probNum > 10) {
+            throw new IllegalArgumentException("Problem type " + probNum + " is not defined"
+                    + (probNum > 10 ? ", it needs a formula in the problems file" : ""));
         }
+        return x -> new Problem(x, probNum).getFitness();
     }
 
     /**
@@ -0,0 +1,262 @@
+/*
+ * RandomKeySchedule : Permutation flow shop scheduling as an objective for
+ *                     the continuous optimization algorithms. A vector is
+ *                     decoded into a job order by sorting its keys, and the
+ *                     order is scored with the Flow Shop Scheduling (FSS)
+ *                     or Flow Shop Scheduling with Blocking (FSSB) makespan.
+ *                     Every thread decodes into its own buffers, so one
+ *                     instance can be shared by the runs of a campaign.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import mt.MTRandom;
+
+public class RandomKeySchedule implements Objective {
+    // Flat job-major processing times, p[job * m + machine]
+    private final int[] p;
+
+    // The number of machines
+    private final int m;
+
+    // The number of jobs
+    private final int n;
+
+    // The makespan algorithm to use (0 - FSS, 1 - FSSB)
+    private final int alg;
+
+    // The NEH schedule used to seed populations
+    private final int[] neh;
+
+    // Decoding and evaluation buffers of each thread
+    private final ThreadLocal<Buffers> buffers;
+
+    /**
+     * Constructor
+     *
+     * @param times - the processing times of each job on each machine
+     * @param m     - the number of machines
+     * @param n     - the number of jobs
+     * @param alg   - the algorithm to use (0 - FSS, 1 - FSSB)
+     */
+    public RandomKeySchedule(int[][] times, int m, int n, int alg) {
+        this(Makespan.flatten(times, m, n), m, n, alg);
+    }
+
+    /**
+     * Constructor for flat processing times, such as those of a loaded
+     * Instance, which are used as they are
+     *
+     * @param p   - flat job-major processing times, p[job * m + machine]
+     * @param m   - the number of machines
+     * @param n   - the number of jobs
+     * @param alg - the algorithm to use (0 - FSS, 1 - FSSB)
+     */
+    public RandomKeySchedule(int[] p, int m, int n, int alg) {
+        this.p = p;
+        this.m = m;
+        this.n = n;
+        this.alg = alg;
+        this.neh = new NEH(p, m, n, alg).schedule;
+        buffers = ThreadLocal.withInitial(() -> new Buffers(m, n));
+    }
+
+    /**
+     * Returns the makespan of the job order encoded by the vector
+     *
+     * @param x - vector of n keys
+     * @return - the makespan of the decoded schedule
+     */
+    @Override
+    public double evaluate(double[] x) {
+        Buffers b = buffers.get();
+        decode(x, b.order, b.keys);
+        return alg == 0 ? Makespan.FSS(p, m, b.order, n, b.row) : Makespan.FSSB(p, m, b.order, n, b.row);
+    }
+
+    /**
+     * Decodes a vector into a job order, jobs are ordered by increasing key and
+     * ties go to the lower job
+     *
+     * @param x     - vector of n keys
+     * @param order - receives the job order
+     */
+    public void decode(double[] x, int[] order) {
+        decode(x, order, buffers.get().keys);
+    }
+
+    /**
+     * Decodes a vector into a job order using the given keys buffer
+     *
+     * @param x     - vector of n keys
+     * @param order - receives the job order
+     * @param keys  - buffer of n keys, overwritten
+     */
+    private void decode(double[] x, int[] order, double[] keys) {
+        for (int j = 0; j < n; j++) {
+            keys[j] = x[j];
+            order[j] = j;
+        }
+        sort(keys, order, 0, n - 1);
+    }
+
+    /**
+     * Returns the job order encoded by a vector
+     *
+     * @param x - vector of n keys
+     * @return - the decoded job order
+     */
+    public int[] getSchedule(double[] x) {
+        int[] schedule = new int[n];
+        decode(x, schedule);
+        return schedule;
+    }
+
+    /**
+     * Encodes a job order as evenly spaced keys in [-range, range]
+     *
+     * @param schedule - the job order
+     * @param range    - range of the keys
+     * @param x        - receives the n keys
+     */
+    public void encode(int[] schedule, double range, double[] x) {
+        double step = 2 * range / n;
+        for (int k = 0; k < n; k++) {
+            x[schedule[k]] = -range + (k + 0.5) * step;
+        }
+    }
+
+    /**
+     * Replaces the first count vectors of the population with the NEH schedule,
+     * the first one exactly and the others with a few random adjacent swaps so
+     * the seeded part of the population stays diverse
+     *
+     * @param pop   - the population to seed
+     * @param count - the number of vectors to seed
+     * @param r     - random number generator
+     */
+    public void seed(Population pop, int count, MTRandom r) {
+        double[] x = new double[n];
+        int[] perturbed = new int[n];
+        for (int i = 0; i < count && i < pop.size(); i++) {
+            System.arraycopy(neh, 0, perturbed, 0, n);
+            for (int s = 0; s < i && n > 1; s++) {
+                int k = r.nextInt(n - 1);
+                int temp = perturbed[k];
+                perturbed[k] = perturbed[k + 1];
+                perturbed[k + 1] = temp;
+            }
+            encode(perturbed, pop.getRange(), x);
+            pop.setVector(i, x);
+        }
+    }
+
+    /**
+     * @return - the NEH schedule the populations are seeded with
+     */
+    public int[] getNEH() {
+        return neh.clone();
+    }
+
+    /**
+     * Sorts keys in place by value, carrying the jobs along. Quicksort with an
+     * insertion sort for short ranges, so decoding allocates nothing.
+     *
+     * @param keys - the keys
+     * @param jobs - the jobs of the keys
+     * @param lo   - first index of the range
+     * @param hi   - last index of the range
+     */
+    private static void sort(double[] keys, int[] jobs, int lo, int hi) {
+        while (hi - lo > 16) {
+            // Median of three pivot
+            int mid = (lo + hi) >>> 1;
+            if (less(keys, jobs, mid, lo)) {
+                swap(keys, jobs, mid, lo);
+            }
+            if (less(keys, jobs, hi, lo)) {
+                swap(keys, jobs, hi, lo);
+            }
+            if (less(keys, jobs, hi, mid)) {
+                swap(keys, jobs, hi, mid);
+            }
+            double pk = keys[mid];
+            int pj = jobs[mid];
+
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (keys[i] < pk || (keys[i] == pk && jobs[i] < pj)) {
+                    i++;
+                }
+                while (keys[j] > pk || (keys[j] == pk && jobs[j] > pj)) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, jobs, i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            // Recurse into the smaller half, loop on the larger one
+            if (j - lo < hi - i) {
+                sort(keys, jobs, lo, j);
+                lo = i;
+            } else {
+                sort(keys, jobs, i, hi);
+                hi = j;
+            }
+        }
+
+        for (int i = lo + 1; i <= hi; i++) {
+            double k = keys[i];
+            int job = jobs[i];
+            int j = i - 1;
+            while (j >= lo && (keys[j] > k || (keys[j] == k && jobs[j] > job))) {
+                keys[j + 1] = keys[j];
+                jobs[j + 1] = jobs[j];
+                j--;
+            }
+            keys[j + 1] = k;
+            jobs[j + 1] = job;
+        }
+    }
+
+    private static boolean less(double[] keys, int[] jobs, int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && jobs[a] < jobs[b]);
+    }
+
+    private static void swap(double[] keys, int[] jobs, int a, int b) {
+        double k = keys[a];
+        keys[a] = keys[b];
+        keys[b] = k;
+        int j = jobs[a];
+        jobs[a] = jobs[b];
+        jobs[b] = j;
+    }
+
+    /**
+     * Decoding and evaluation buffers of one thread
+     */
+    private static final class Buffers {
+        // Keys being sorted
+        final double[] keys;
+
+        // Decoded job order
+        final int[] order;
+
+        // Rolling row of the makespan kernels
+        final int[] row;
+
+        Buffers(int m, int n) {
+            keys = new double[n];
+            order = new int[n];
+            row = new int[m];
+        }
+    }
+}
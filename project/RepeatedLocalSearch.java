@@ -0,0 +1,198 @@
+/*
+ * RepeatedLocalSearch : Repeated Local Search engine. Every iteration runs a
+ *                       local search over random neighborhoods of the best
+ *                       vector found so far, then starts the next one from a
+ *                       random vector. The budget of a run is its number of
+ *                       iterations, a neighborhood holds as many vectors as
+ *                       the population.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import mt.MTRandom;
+
+public class RepeatedLocalSearch implements Optimizer {
+    // The function being minimized
+    private final Objective objective;
+
+    // Range of the random values, [-range, range]
+    private final double range;
+
+    // The number of dimensions
+    private final int m;
+
+    // The population the starting vector is taken from
+    private final Population population;
+
+    // The vector runs start from
+    private double[] start;
+
+    // The neighborhood of the local search
+    private final double[][] neighborhood;
+
+    // Best vector overall and best vector of the current iteration
+    private final double[] global;
+    private final double[] iter;
+
+    // Best fitness seen by the local searches
+    private double fitness;
+
+    // Fitness of the best vector overall
+    private double globalFitness;
+
+    // Number of function evaluations
+    private long evaluations;
+
+    // Random number generator, reseeded by every run
+    private final MTRandom r = new MTRandom(0L);
+
+    // Watches the runs, null to run without one
+    private RunHandle handle;
+
+    /**
+     * Constructor, runs start from the first vector of the population
+     *
+     * @param pop       - population, its size sets the neighborhood size and its
+     *                  range bounds the random vectors
+     * @param objective - function to minimize
+     */
+    public RepeatedLocalSearch(Population pop, Objective objective) {
+        this.objective = objective;
+        this.population = pop;
+        this.range = pop.getRange();
+        this.m = pop.getDimensions();
+        neighborhood = new double[pop.size()][m];
+        global = new double[m];
+        iter = new double[m];
+        setStart(0);
+    }
+
+    @Override
+    public void setStart(int index) {
+        start = population.getVector(index).clone();
+    }
+
+    @Override
+    public void setHandle(RunHandle handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Runs Repeated Local Search
+     *
+     * @param seed       - seed of the random number generator
+     * @param iterations - maximum number of iterations
+     * @return - the fitness of the best vector
+     */
+    @Override
+    public double run(long seed, long iterations) {
+        r.setSeed(seed);
+        evaluations = 0;
+        fitness = Double.MAX_VALUE;
+        System.arraycopy(start, 0, global, 0, m);
+        System.arraycopy(start, 0, iter, 0, m);
+
+        for (long t = 1; t <= iterations; t++) {
+            if (handle != null) {
+                if (handle.isCancelled()) {
+                    break;
+                }
+
+                // An injected solution that is better becomes the center of the
+                // next local search
+                Improvement in = handle.injected();
+                double[] v = in == null ? null : in.getSolution();
+                if (v != null && v.length == m && in.fitness < fitness) {
+                    fitness = in.fitness;
+                    System.arraycopy(v, 0, global, 0, m);
+                }
+            }
+
+            // Local search from the best vector overall, improving iter
+            localSearch();
+
+            // If the vector of the iteration is better than the best vector overall,
+            // keep it
+            evaluations += 2;
+            double iterFitness = objective.evaluate(iter);
+            if (iterFitness < objective.evaluate(global)) {
+                System.arraycopy(iter, 0, global, 0, m);
+                if (handle != null) {
+                    handle.improved(iterFitness, global, evaluations);
+                }
+            }
+
+            // Start the next iteration from a random vector
+            for (int k = 0; k < m; k++) {
+                iter[k] = r.nextDouble() * (range - (-range)) + (-range);
+            }
+        }
+        globalFitness = objective.evaluate(global);
+        return globalFitness;
+    }
+
+    /**
+     * Searches random neighborhoods of the best vector overall until one brings
+     * no improvement, the improvements are copied into iter
+     */
+    private void localSearch() {
+        boolean tau = true;
+        while (tau) {
+            tau = false;
+
+            // Generate the neighborhood of the best vector overall
+            for (double[] neighbor : neighborhood) {
+                for (int k = 0; k < m; k++) {
+                    double value = global[k] + r.nextDouble() * (range - (-range)) + (-range);
+                    if (value > range) {
+                        value = range;
+                    } else if (value < -range) {
+                        value = -range;
+                    }
+                    neighbor[k] = value;
+                }
+            }
+
+            // The last neighbor that is no worse than the best fitness seen
+            double bestFitnessInNeighborhood = Double.MAX_VALUE;
+            int bestInNeighborhood = -1;
+            for (int i = 0; i < neighborhood.length; i++) {
+                evaluations++;
+                double fitnessNew = objective.evaluate(neighborhood[i]);
+                if (fitnessNew <= fitness) {
+                    bestFitnessInNeighborhood = fitnessNew;
+                    bestInNeighborhood = i;
+                }
+            }
+
+            // If it is better than the best fitness seen, keep it and search again
+            if (bestFitnessInNeighborhood < fitness) {
+                fitness = bestFitnessInNeighborhood;
+                System.arraycopy(neighborhood[bestInNeighborhood], 0, iter, 0, m);
+                tau = true;
+            }
+        }
+    }
+
+    /**
+     * @return - a copy of the best vector of the last run
+     */
+    @Override
+    public double[] getSolution() {
+        return global.clone();
+    }
+
+    @Override
+    public double getFitness() {
+        return globalFitness;
+    }
+
+    @Override
+    public long getEvaluations() {
+        return evaluations;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Result : One run of an experiment, as stored by the result sink.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+public final class Result {
+    // The configuration that was run, such as an experiments.txt line
+    public final String config;
+
+    // Seed of the run
+    public final long seed;
+
+    // Fitness of the best solution
+    public final double fitness;
+
+    // Makespan of the best schedule, 0 for minimization runs
+    public final int makespan;
+
+    // Run time in nanoseconds
+    public final long time;
+
+    // Number of function evaluations
+    public final long evaluations;
+
+    /**
+     * Constructor
+     *
+     * @param config      - the configuration that was run
+     * @param seed        - seed of the run
+     * @param fitness     - fitness of the best solution
+     * @param makespan    - makespan of the best schedule, 0 for minimization runs
+     * @param time        - run time in nanoseconds
+     * @param evaluations - number of function evaluations
+     */
+    public Result(String config, long seed, double fitness, int makespan, long time, long evaluations) {
+        this.config = config;
+        this.seed = seed;
+        this.fitness = fitness;
+        this.makespan = makespan;
+        this.time = time;
+        this.evaluations = evaluations;
+    }
+
+    /**
+     * Returns the result as one line of text, the configuration last since it
+     * may hold spaces
+     *
+     * @return - the line
+     */
+    public String toLine() {
+        return seed + " " + fitness + " " + makespan + " " + time + " " + evaluations + " " + config;
+    }
+
+    /**
+     * Reads a result from a line written by toLine
+     *
+     * @param line - the line
+     * @return - the result
+     * @exception IllegalArgumentException - if the line is malformed
+     */
+    public static Result parse(String line) {
+        String[] parts = line.split(" ", 6);
+        if (parts.length < 6) {
+            throw new IllegalArgumentException("Not a result: " + line);
+        }
+        return new Result(parts[5], Long.parseLong(parts[0]), Double.parseDouble(parts[1]),
+                Integer.parseInt(parts[2]), Long.parseLong(parts[3]), Long.parseLong(parts[4]));
+    }
+}
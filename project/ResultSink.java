@@ -0,0 +1,357 @@
+/*
+ * ResultSink : Collects run results from the compute threads on a bounded
+ *              queue and writes them on a dedicated thread in large
+ *              batches, as CSV or in a compact binary columnar format.
+ *
+ *              Binary format, little-endian: the magic "FSPR" and the
+ *              format version as ints, then blocks of up to BATCH rows.
+ *              A block is the row count, the number of configurations
+ *              seen for the first time followed by each of them as a
+ *              byte length and UTF-8 bytes, then the columns one after
+ *              another: config id (int, in order of first appearance),
+ *              seed (long), fitness (double), makespan (int), time in
+ *              nanoseconds (long) and function evaluations (long).
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class ResultSink implements AutoCloseable {
+    // Output formats
+    public static final int CSV = 0;
+    public static final int BINARY = 1;
+
+    // "FSPR" read as a little-endian int
+    public static final int MAGIC = 0x52505346;
+
+    // Version of the binary format
+    public static final int VERSION = 1;
+
+    // Results queued before the compute threads have to wait for the writer
+    public static final int CAPACITY = 1 << 16;
+
+    // Most results written at once
+    public static final int BATCH = 4096;
+
+    // Queued by close to stop the writer
+    private static final Result END = new Result(null, 0, 0, 0, 0, 0);
+
+    // The output file
+    private final FileChannel channel;
+
+    // The output format (0 - CSV, 1 - binary)
+    private final int format;
+
+    // Results waiting to be written
+    private final BlockingQueue<Result> queue;
+
+    // The writer thread
+    private final Thread writer;
+
+    // Ids of the configurations written so far (binary)
+    private final Map<String, Integer> configs = new HashMap<String, Integer>();
+
+    // Serialization buffer, grown as needed
+    private ByteBuffer buf = ByteBuffer.allocate(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+
+    // Set by close
+    private volatile boolean closed;
+
+    // Held shared while a result is queued and exclusively while close sets
+    // closed, so no result is queued after END
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // The first error of the writer thread
+    private volatile IOException error;
+
+    /**
+     * Constructor, files ending in .bin are written in the binary format and all
+     * others as CSV
+     *
+     * @param file - the output file
+     * @exception IOException - if the file can not be created
+     */
+    public ResultSink(Path file) throws IOException {
+        this(file, file.toString().endsWith(".bin") ? BINARY : CSV, CAPACITY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param file     - the output file
+     * @param format   - the output format (0 - CSV, 1 - binary)
+     * @param capacity - results queued before the compute threads wait
+     * @exception IOException - if the file can not be created
+     */
+    public ResultSink(Path file, int format, int capacity) throws IOException {
+        this.format = format;
+        this.queue = new ArrayBlockingQueue<Result>(capacity);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        // File header
+        if (format == BINARY) {
+            buf.putInt(MAGIC).putInt(VERSION);
+        } else {
+            buf.put("Config,Seed,Fitness,Makespan,Time,Evaluations\n".getBytes(StandardCharsets.UTF_8));
+        }
+        flush();
+
+        writer = new Thread(this::drain, "result-sink");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a result. Only waits when the writer is a full queue behind.
+     *
+     * @param result - the result
+     * @exception IllegalStateException - if the sink is closed
+     */
+    public void accept(Result result) {
+        lock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Result sink is closed");
+            }
+            queue.put(result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing a result", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the queued results and closes the file
+     *
+     * @exception IOException - if a result could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        // Waits for the results being queued, the writer keeps taking them
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            queue.put(END);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Reads a binary result file
+     *
+     * @param file - the result file
+     * @return - the results in the order they were written
+     * @exception IOException - if the file can not be read or is malformed
+     */
+    public static List<Result> read(Path file) throws IOException {
+        List<Result> results = new ArrayList<Result>();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()).order(ByteOrder.LITTLE_ENDIAN);
+            if (in.remaining() < 8 || in.getInt() != MAGIC || in.getInt() != VERSION) {
+                throw new IOException(file + ": not a result file");
+            }
+
+            List<String> names = new ArrayList<String>();
+            while (in.hasRemaining()) {
+                int rows = in.getInt();
+                int added = in.getInt();
+                for (int k = 0; k < added; k++) {
+                    byte[] bytes = new byte[in.getInt()];
+                    in.get(bytes);
+                    names.add(new String(bytes, StandardCharsets.UTF_8));
+                }
+
+                // Column offsets within the block
+                int ids = in.position();
+                int seeds = ids + 4 * rows;
+                int fits = seeds + 8 * rows;
+                int spans = fits + 8 * rows;
+                int times = spans + 4 * rows;
+                int fes = times + 8 * rows;
+                for (int r = 0; r < rows; r++) {
+                    results.add(new Result(names.get(in.getInt(ids + 4 * r)), in.getLong(seeds + 8 * r),
+                            in.getDouble(fits + 8 * r), in.getInt(spans + 4 * r), in.getLong(times + 8 * r),
+                            in.getLong(fes + 8 * r)));
+                }
+                in.position(fes + 8 * rows);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Writer thread, takes whatever is queued up to a batch at a time and writes
+     * it with one channel write
+     */
+    private void drain() {
+        List<Result> batch = new ArrayList<Result>(BATCH);
+        boolean done = false;
+        while (!done) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, BATCH - 1);
+            done = batch.remove(END);
+
+            // After an error the results are still taken so compute threads never wait
+            if (error == null && !batch.isEmpty()) {
+                try {
+                    if (format == BINARY) {
+                        binary(batch);
+                    } else {
+                        csv(batch);
+                    }
+                    flush();
+                } catch (IOException e) {
+                    error = e;
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Serializes a batch as CSV rows
+     *
+     * @param batch - the results
+     */
+    private void csv(List<Result> batch) {
+        StringBuilder sb = new StringBuilder(batch.size() * 64);
+        for (Result r : batch) {
+            String config = r.config;
+            if (config.indexOf(',') >= 0 || config.indexOf('"') >= 0) {
+                config = '"' + config.replace("\"", "\"\"") + '"';
+            }
+            sb.append(config).append(',').append(r.seed).append(',').append(r.fitness).append(',')
+                    .append(r.makespan).append(',').append(r.time).append(',').append(r.evaluations).append('\n');
+        }
+        put(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Serializes a batch as one binary block
+     *
+     * @param batch - the results
+     */
+    private void binary(List<Result> batch) {
+        int rows = batch.size();
+
+        // Configurations seen for the first time
+        List<byte[]> added = new ArrayList<byte[]>();
+        int[] ids = new int[rows];
+        for (int r = 0; r < rows; r++) {
+            String config = batch.get(r).config;
+            Integer id = configs.get(config);
+            if (id == null) {
+                id = configs.size();
+                configs.put(config, id);
+                added.add(config.getBytes(StandardCharsets.UTF_8));
+            }
+            ids[r] = id;
+        }
+
+        int size = 8 + 36 * rows;
+        for (byte[] bytes : added) {
+            size += 4 + bytes.length;
+        }
+        reserve(size);
+
+        buf.putInt(rows).putInt(added.size());
+        for (byte[] bytes : added) {
+            buf.putInt(bytes.length).put(bytes);
+        }
+        for (int r = 0; r < rows; r++) {
+            buf.putInt(ids[r]);
+        }
+        for (Result r : batch) {
+            buf.putLong(r.seed);
+        }
+        for (Result r : batch) {
+            buf.putDouble(r.fitness);
+        }
+        for (Result r : batch) {
+            buf.putInt(r.makespan);
+        }
+        for (Result r : batch) {
+            buf.putLong(r.time);
+        }
+        for (Result r : batch) {
+            buf.putLong(r.evaluations);
+        }
+    }
+
+    /**
+     * Appends bytes to the serialization buffer
+     *
+     * @param bytes - the bytes
+     */
+    private void put(byte[] bytes) {
+        reserve(bytes.length);
+        buf.put(bytes);
+    }
+
+    /**
+     * Grows the serialization buffer to hold size more bytes
+     *
+     * @param size - the number of bytes
+     */
+    private void reserve(int size) {
+        if (buf.remaining() < size) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(2 * buf.capacity(), buf.position() + size))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            buf.flip();
+            grown.put(buf);
+            buf = grown;
+        }
+    }
+
+    /**
+     * Writes the serialization buffer to the file
+     *
+     * @exception IOException - if the write fails
+     */
+    private void flush() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+}
@@ -0,0 +1,452 @@
+/*
+ * ResultStore : On-disk store of run results keyed by the configuration and
+ *               seed of the run, so campaigns only compute the runs that are
+ *               not stored yet.
+ *
+ *               results.dat is append-only: the magic "FSPD" and the format
+ *               version, then fixed size records of key, seed, fitness,
+ *               makespan, a hash of the configuration, time and
+ *               evaluations. A run is found by its key and then checked
+ *               against the seed and configuration hash of the record, so
+ *               a key collision is a miss rather than another run. Version
+ *               1 records have no configuration hash, it is 0 and is not
+ *               checked. results.idx is a memory mapped open addressing
+ *               hash table from key to record number. The index can always
+ *               be rebuilt from the data file, records appended after the
+ *               last index update are replayed when the store is opened.
+ *
+ *               A store has one writer. Other processes may open it read
+ *               only while it is written, they see the runs indexed when
+ *               they opened it and any indexed later.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public class ResultStore implements AutoCloseable {
+    // "FSPD" and "FSPX" read as little-endian ints
+    public static final int DATA_MAGIC = 0x44505346;
+    public static final int INDEX_MAGIC = 0x58505346;
+
+    // Version of the data file, version 1 files are still read
+    public static final int VERSION = 2;
+
+    // Version of the index file
+    public static final int INDEX_VERSION = 1;
+
+    // Bytes of a data record: key, seed, fitness, makespan, configuration hash, time, evaluations
+    private static final int RECORD = 48;
+
+    // Bytes before the first record or slot
+    private static final int DATA_HEADER = 8;
+    private static final int INDEX_HEADER = 32;
+
+    // Bytes of an index slot: key and record number plus one (0 marks an empty slot)
+    private static final int SLOT = 16;
+
+    // Smallest number of index slots
+    private static final int MIN_CAPACITY = 1024;
+
+    // The data and index files
+    private final Path dataFile;
+    private final Path indexFile;
+
+    // Appends records to the data file
+    private final FileChannel data;
+
+    // The mapped index
+    private MappedByteBuffer index;
+
+    // Number of index slots, a power of two
+    private long capacity;
+
+    // Number of records in the data file, all of them indexed
+    private long count;
+
+    // Whether the store was opened read only
+    private final boolean readOnly;
+
+    // Reused record buffer
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Constructor, opens or creates the store in a directory
+     *
+     * @param dir - directory of the store
+     * @exception IOException - if the store can not be opened
+     */
+    public ResultStore(Path dir) throws IOException {
+        this(dir, false);
+    }
+
+    /**
+     * Constructor, opens a store in a directory. A store opened read only must
+     * exist and have an up to date index, such as a store another process has
+     * open for writing.
+     *
+     * @param dir      - directory of the store
+     * @param readOnly - true to only look up runs
+     * @exception IOException - if the store can not be opened
+     */
+    public ResultStore(Path dir, boolean readOnly) throws IOException {
+        this.readOnly = readOnly;
+        dataFile = dir.resolve("results.dat");
+        indexFile = dir.resolve("results.idx");
+        if (readOnly) {
+            data = FileChannel.open(dataFile, StandardOpenOption.READ);
+            ByteBuffer header = ByteBuffer.allocate(DATA_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            data.read(header, 0);
+            if (header.getInt(0) != DATA_MAGIC || (header.getInt(4) != 1 && header.getInt(4) != VERSION)) {
+                throw new IOException(dataFile + ": not a result store");
+            }
+            // The writer may replace the index while it is opened
+            for (int tries = 1; !openIndex((data.size() - DATA_HEADER) / RECORD); tries++) {
+                if (tries == 3) {
+                    throw new IOException(indexFile + ": no valid index");
+                }
+            }
+            return;
+        }
+
+        Files.createDirectories(dir);
+        data = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (data.size() < DATA_HEADER) {
+            ByteBuffer header = ByteBuffer.allocate(DATA_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(DATA_MAGIC).putInt(VERSION).flip();
+            data.truncate(0);
+            data.write(header, 0);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(DATA_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            data.read(header, 0);
+            if (header.getInt(0) != DATA_MAGIC || (header.getInt(4) != 1 && header.getInt(4) != VERSION)) {
+                throw new IOException(dataFile + ": not a result store");
+            }
+        }
+
+        // Drop a record cut short by a crash
+        long records = (data.size() - DATA_HEADER) / RECORD;
+        data.truncate(DATA_HEADER + records * RECORD);
+
+        if (!openIndex(records)) {
+            rebuild(records);
+        }
+
+        // Index the records appended after the last index update
+        for (long r = count; r < records; r++) {
+            readRecord(r);
+            insert(record.getLong(0), r);
+            count++;
+        }
+        writeCount();
+    }
+
+    /**
+     * Returns the key of a run
+     *
+     * @param config - the configuration of the run
+     * @param seed   - seed of the run
+     * @return - the key
+     */
+    public static long key(String config, long seed) {
+        // FNV-1a over the configuration, the seed and the code version
+        long h = 0xCBF29CE484222325L;
+        for (byte b : (config + " " + seed + " " + Algorithms.VERSION).getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * Returns the hash of a configuration kept in its records, never 0
+     *
+     * @param config - the configuration of the run
+     * @return - the hash
+     */
+    private static int check(String config) {
+        int h = config.hashCode();
+        return h == 0 ? 1 : h;
+    }
+
+    /**
+     * Returns the stored result of a run
+     *
+     * @param config - the configuration of the run
+     * @param seed   - seed of the run
+     * @return - the result, null if the run is not stored
+     * @exception IOException - if the data file can not be read
+     */
+    public synchronized Result get(String config, long seed) throws IOException {
+        long r = find(key(config, seed), seed, check(config));
+        if (r < 0) {
+            return null;
+        }
+        readRecord(r);
+        return new Result(config, record.getLong(8), record.getDouble(16), record.getInt(24), record.getLong(32),
+                record.getLong(40));
+    }
+
+    /**
+     * Stores the result of a run, unless the run is already stored
+     *
+     * @param result - the result
+     * @exception IOException - if the store can not be written
+     * @exception IllegalStateException - if the store was opened read only
+     */
+    public synchronized void put(Result result) throws IOException {
+        if (readOnly) {
+            throw new IllegalStateException(dataFile + " is open read only");
+        }
+        long key = key(result.config, result.seed);
+        int check = check(result.config);
+        if (find(key, result.seed, check) >= 0) {
+            return;
+        }
+
+        // Data first, so the index never points past the data file
+        record.clear();
+        record.putLong(key).putLong(result.seed).putDouble(result.fitness).putInt(result.makespan).putInt(check)
+                .putLong(result.time).putLong(result.evaluations).flip();
+        long at = DATA_HEADER + count * RECORD;
+        while (record.hasRemaining()) {
+            at += data.write(record, at);
+        }
+
+        if (2 * (count + 1) > capacity) {
+            grow();
+        }
+        insert(key, count);
+        count++;
+        writeCount();
+    }
+
+    /**
+     * @return - the number of stored runs
+     */
+    public synchronized long size() {
+        return count;
+    }
+
+    /**
+     * Flushes both files to disk and closes the store
+     *
+     * @exception IOException - if the files can not be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!readOnly) {
+            data.force(false);
+            index.force();
+        }
+        data.close();
+        index = null;
+    }
+
+    /**
+     * Maps an existing index file if it is valid and covers at most the given
+     * records. A read only store takes the index of its writer as it is.
+     *
+     * @param records - the number of records in the data file
+     * @return - true if the index was mapped
+     * @exception IOException - if the index file can not be read
+     */
+    private boolean openIndex(long records) throws IOException {
+        if (!Files.exists(indexFile) || Files.size(indexFile) < INDEX_HEADER) {
+            return false;
+        }
+        MappedByteBuffer map = map(indexFile, Files.size(indexFile), readOnly);
+        long cap = map.getLong(8);
+        long indexed = map.getLong(16);
+        if (map.getInt(0) != INDEX_MAGIC || map.getInt(4) != INDEX_VERSION || Long.bitCount(cap) != 1
+                || map.capacity() != INDEX_HEADER + cap * SLOT
+                || (!readOnly && (indexed > records || 2 * records > cap))) {
+            return false;
+        }
+        index = map;
+        capacity = cap;
+        count = indexed;
+        return true;
+    }
+
+    /**
+     * Builds a new index of the given records
+     *
+     * @param records - the number of records in the data file
+     * @exception IOException - if the files can not be read or written
+     */
+    private void rebuild(long records) throws IOException {
+        long cap = MIN_CAPACITY;
+        while (cap < 2 * (records + 1)) {
+            cap <<= 1;
+        }
+        index = create(indexFile, cap);
+        capacity = cap;
+        count = 0;
+        for (long r = 0; r < records; r++) {
+            readRecord(r);
+            insert(record.getLong(0), r);
+            count++;
+        }
+    }
+
+    /**
+     * Doubles the index, rehashing into a new file that replaces the old one
+     *
+     * @exception IOException - if the index can not be written
+     */
+    private void grow() throws IOException {
+        Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        MappedByteBuffer old = index;
+        long oldCapacity = capacity;
+
+        index = create(temp, 2 * capacity);
+        capacity *= 2;
+        for (long s = 0; s < oldCapacity; s++) {
+            long r = old.getLong(INDEX_HEADER + (int) (s * SLOT) + 8);
+            if (r != 0) {
+                insert(old.getLong(INDEX_HEADER + (int) (s * SLOT)), r - 1);
+            }
+        }
+        index.putLong(16, count);
+        index.force();
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Creates an empty index file
+     *
+     * @param file     - the index file
+     * @param capacity - the number of slots
+     * @return - the mapped file
+     * @exception IOException - if the file can not be written
+     */
+    private static MappedByteBuffer create(Path file, long capacity) throws IOException {
+        Files.deleteIfExists(file);
+        MappedByteBuffer map = map(file, INDEX_HEADER + capacity * SLOT, false);
+        map.putInt(0, INDEX_MAGIC).putInt(4, INDEX_VERSION).putLong(8, capacity).putLong(16, 0);
+        return map;
+    }
+
+    /**
+     * Maps a file for reading and writing, or only for reading
+     *
+     * @param file     - the file
+     * @param size     - size of the mapping
+     * @param readOnly - true to map it for reading only
+     * @return - the mapped file
+     * @exception IOException - if the file can not be mapped
+     */
+    private static MappedByteBuffer map(Path file, long size, boolean readOnly) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException(file + ": index larger than 2 GB");
+        }
+        if (readOnly) {
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                map.order(ByteOrder.LITTLE_ENDIAN);
+                return map;
+            }
+        }
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            return map;
+        }
+    }
+
+    /**
+     * Returns the record number of a run. Records with the key of the run but
+     * another seed or configuration hash are skipped.
+     *
+     * @param key   - the key of the run
+     * @param seed  - seed of the run
+     * @param check - hash of the configuration of the run
+     * @return - the record number, -1 if the run is not stored
+     * @exception IOException - if the data file can not be read
+     */
+    private long find(long key, long seed, int check) throws IOException {
+        long mask = capacity - 1;
+        for (long s = key & mask;; s = (s + 1) & mask) {
+            int at = INDEX_HEADER + (int) (s * SLOT);
+            long r = index.getLong(at + 8);
+            if (r == 0) {
+                return -1;
+            }
+            if (index.getLong(at) == key) {
+                readRecord(r - 1);
+                int stored = record.getInt(28);
+                if (record.getLong(8) == seed && (stored == 0 || stored == check)) {
+                    return r - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a key to the index, linear probing from its home slot
+     *
+     * @param key - the key
+     * @param r   - the record number
+     */
+    private void insert(long key, long r) {
+        long mask = capacity - 1;
+        long s = key & mask;
+        while (index.getLong(INDEX_HEADER + (int) (s * SLOT) + 8) != 0) {
+            s = (s + 1) & mask;
+        }
+        int at = INDEX_HEADER + (int) (s * SLOT);
+        index.putLong(at, key);
+        index.putLong(at + 8, r + 1);
+    }
+
+    /**
+     * Records the number of indexed records in the index header
+     */
+    private void writeCount() {
+        index.putLong(16, count);
+    }
+
+    /**
+     * Reads a record of the data file into the record buffer
+     *
+     * @param r - the record number
+     * @exception IOException - if the data file can not be read
+     */
+    private void readRecord(long r) throws IOException {
+        record.clear();
+        long at = DATA_HEADER + r * RECORD;
+        while (record.hasRemaining()) {
+            if (data.read(record, at + record.position()) < 0) {
+                throw new IOException(dataFile + ": record " + r + " is cut short");
+            }
+        }
+        record.flip();
+    }
+
+    /**
+     * SplitMix64 finalizer, spreads the hash over the index slots
+     *
+     * @param z - the value to mix
+     * @return - the mixed value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * RunHandle : Watches and controls a run while it executes. The engine
+ *             offers every improvement of its best solution to the handle,
+ *             which keeps the latest one for polling and publishes it to
+ *             subscribers. Cancelling only sets a flag, the engine reads it
+ *             at its generation or iteration boundaries and returns its best
+ *             solution so far.
+ *
+ *             Improvements are offered to subscribers without waiting, a
+ *             subscriber that falls more than its buffer behind misses
+ *             improvements instead of slowing the run down. The latest one
+ *             is always available from best().
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class RunHandle implements Flow.Publisher<Improvement>, AutoCloseable {
+    // Publishes the improvements to the subscribers
+    private final SubmissionPublisher<Improvement> publisher;
+
+    // Completed with the result of the run
+    private final CompletableFuture<Improvement> result = new CompletableFuture<Improvement>();
+
+    // Set by cancel, read by the engine at its boundaries
+    private volatile boolean cancelled;
+
+    // The latest improvement, null before the first one
+    private volatile Improvement best;
+
+    // Start of the run
+    private volatile long started = System.nanoTime();
+
+    // A solution found elsewhere, taken by the engine at its next boundary
+    private final AtomicReference<Improvement> injected = new AtomicReference<Improvement>();
+
+    /**
+     * Constructor, delivers the improvements on the common pool
+     */
+    public RunHandle() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param executor - the threads that deliver improvements to subscribers
+     */
+    public RunHandle(Executor executor) {
+        publisher = new SubmissionPublisher<Improvement>(executor, Flow.defaultBufferSize());
+    }
+
+    /**
+     * Starts a run of an engine. The engine must not be used by another run
+     * until the result of this one is complete.
+     *
+     * @param engine   - the engine
+     * @param seed     - seed of the run
+     * @param budget   - budget of the run, see the engine
+     * @param executor - the thread the run executes on, improvements are
+     *                 delivered on the common pool
+     * @return - the handle of the run
+     */
+    public static RunHandle start(Optimizer engine, long seed, long budget, Executor executor) {
+        return new RunHandle().submit(engine, seed, budget, executor);
+    }
+
+    /**
+     * Starts a run of an engine on this handle, which lets subscribers
+     * subscribe before the first improvement. A handle runs once.
+     *
+     * @param engine   - the engine
+     * @param seed     - seed of the run
+     * @param budget   - budget of the run, see the engine
+     * @param executor - the thread the run executes on
+     * @return - this handle
+     */
+    public RunHandle submit(Optimizer engine, long seed, long budget, Executor executor) {
+        executor.execute(() -> {
+            started = System.nanoTime();
+            engine.setHandle(this);
+            Improvement last;
+            try {
+                engine.run(seed, budget);
+                last = new Improvement(engine.getFitness(), engine.getSolution(), null, engine.getEvaluations(),
+                        elapsed());
+            } catch (RuntimeException | Error e) {
+                engine.setHandle(null);
+                fail(e);
+                return;
+            }
+
+            // The engine is free for its next run once the result is complete
+            engine.setHandle(null);
+            finish(last);
+        });
+        return this;
+    }
+
+    /**
+     * Starts a run of NEH
+     *
+     * @param times    - the processing times of each job on each machine
+     * @param m        - the number of machines
+     * @param n        - the number of jobs
+     * @param alg      - the makespan algorithm (0 - FSS, 1 - FSSB)
+     * @param executor - the thread the run executes on, improvements are
+     *                 delivered on the common pool
+     * @return - the handle of the run
+     */
+    public static RunHandle start(int[][] times, int m, int n, int alg, Executor executor) {
+        RunHandle handle = new RunHandle();
+        executor.execute(() -> {
+            handle.started = System.nanoTime();
+            try {
+                NEH neh = new NEH(times, m, n, alg, handle);
+                handle.finish(new Improvement(neh.makespan, null, neh.schedule, neh.evaluations,
+                        handle.elapsed()));
+            } catch (RuntimeException | Error e) {
+                handle.fail(e);
+            }
+        });
+        return handle;
+    }
+
+    /**
+     * Asks the run to stop at its next boundary
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Cancels the run after a delay, such as the time left until a deadline
+     *
+     * @param timeout - the delay
+     * @param unit    - the unit of the delay
+     * @return - this handle
+     */
+    public RunHandle cancelAfter(long timeout, TimeUnit unit) {
+        CompletableFuture.delayedExecutor(timeout, unit).execute(this::cancel);
+        return this;
+    }
+
+    /**
+     * @return - whether the run was asked to stop
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return - the best solution so far, null before the first one, never
+     *         blocks
+     */
+    public Improvement best() {
+        return best;
+    }
+
+    /**
+     * @return - completed with the result of the run, whether it ran out of
+     *         budget or was cancelled
+     */
+    public CompletableFuture<Improvement> result() {
+        return result;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Improvement> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    /**
+     * Called by the engine when its best solution improves
+     *
+     * @param fitness     - fitness of the solution
+     * @param solution    - the solution vector, copied
+     * @param evaluations - number of function evaluations so far
+     */
+    public void improved(double fitness, double[] solution, long evaluations) {
+        publish(new Improvement(fitness, solution, null, evaluations, elapsed()));
+    }
+
+    /**
+     * Called by a scheduling algorithm when its best schedule improves
+     *
+     * @param makespan    - makespan of the schedule
+     * @param schedule    - the schedule, copied
+     * @param evaluations - number of (partial) schedules evaluated so far
+     */
+    public void improved(int makespan, int[] schedule, long evaluations) {
+        publish(new Improvement(makespan, null, schedule, evaluations, elapsed()));
+    }
+
+    /**
+     * Offers a solution found elsewhere, such as by another member of a
+     * portfolio, to the engine. Engines that take injected solutions put it in
+     * place of their worst vector at their next boundary, a newer solution
+     * replaces one that was not taken yet.
+     *
+     * @param improvement - the solution
+     */
+    public void inject(Improvement improvement) {
+        injected.set(improvement);
+    }
+
+    /**
+     * Called by the engine at its boundaries
+     *
+     * @return - the solution injected since the last call, null if there is none
+     */
+    public Improvement injected() {
+        return injected.get() == null ? null : injected.getAndSet(null);
+    }
+
+    /**
+     * Completes the run, no improvements are published afterwards
+     */
+    @Override
+    public void close() {
+        publisher.close();
+    }
+
+    /**
+     * Keeps an improvement and offers it to the subscribers
+     *
+     * @param improvement - the improvement
+     */
+    private void publish(Improvement improvement) {
+        best = improvement;
+        if (publisher.hasSubscribers()) {
+            publisher.offer(improvement, null);
+        }
+    }
+
+    /**
+     * Completes the run with its result
+     *
+     * @param last - the result of the run
+     */
+    private void finish(Improvement last) {
+        if (best == null) {
+            best = last;
+        }
+        publisher.close();
+        result.complete(last);
+    }
+
+    /**
+     * Completes the run with an error
+     *
+     * @param e - the error of the engine
+     */
+    private void fail(Throwable e) {
+        publisher.closeExceptionally(e);
+        result.completeExceptionally(e);
+    }
+
+    /**
+     * @return - nanoseconds since the start of the run
+     */
+    private long elapsed() {
+        return System.nanoTime() - started;
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Summary : Streaming summary statistics of the runs of an experiment.
+ *           Keeps the count, mean and variance (Welford), the minimum and
+ *           maximum, and the quartiles, in constant memory however many
+ *           runs are added. The quartiles are exact up to EXACT values
+ *           and P-squared estimates after that.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.util.Arrays;
+
+public class Summary {
+    // Values kept to compute exact quartiles
+    public static final int EXACT = 1024;
+
+    // Number of values added
+    private long count;
+
+    // Running mean and sum of squared differences from the mean
+    private double mean;
+    private double m2;
+
+    // Smallest and largest value
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    // Total run time in nanoseconds
+    private long time;
+
+    // The first EXACT values
+    private final double[] exact = new double[EXACT];
+
+    // Sorted copy of the exact values, null when out of date
+    private double[] sorted;
+
+    // Quartile estimates, used once there are more than EXACT values
+    private final Quantile q1 = new Quantile(0.25);
+    private final Quantile median = new Quantile(0.5);
+    private final Quantile q3 = new Quantile(0.75);
+
+    /**
+     * Adds a value. The quantile estimates depend on the order of the values, so
+     * add them in run order to get reproducible summaries.
+     *
+     * @param x - the value
+     */
+    public void add(double x) {
+        count++;
+        double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+        min = Math.min(min, x);
+        max = Math.max(max, x);
+        if (count <= EXACT) {
+            exact[(int) count - 1] = x;
+            sorted = null;
+            return;
+        }
+        if (count == EXACT + 1) {
+            double[] all = exact.clone();
+            Arrays.sort(all);
+            q1.init(all);
+            median.init(all);
+            q3.init(all);
+            sorted = null;
+        }
+        q1.add(x);
+        median.add(x);
+        q3.add(x);
+    }
+
+    /**
+     * Adds the run time of a run
+     *
+     * @param nanos - run time in nanoseconds
+     */
+    public void addTime(long nanos) {
+        time += nanos;
+    }
+
+    /**
+     * @return - the number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return - the mean of the values
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * @return - the sample variance of the values
+     */
+    public double getVariance() {
+        return count < 2 ? 0 : m2 / (count - 1);
+    }
+
+    /**
+     * @return - the sample standard deviation of the values
+     */
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return - the smallest value
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * @return - the largest value
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * @return - estimate of the first quartile
+     */
+    public double getQ1() {
+        return count > EXACT ? q1.get() : quantile(0.25);
+    }
+
+    /**
+     * @return - estimate of the median
+     */
+    public double getMedian() {
+        return count > EXACT ? median.get() : quantile(0.5);
+    }
+
+    /**
+     * @return - estimate of the third quartile
+     */
+    public double getQ3() {
+        return count > EXACT ? q3.get() : quantile(0.75);
+    }
+
+    /**
+     * @return - estimate of the interquartile range
+     */
+    public double getIQR() {
+        return getQ3() - getQ1();
+    }
+
+    /**
+     * @return - total run time in nanoseconds
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Exact quantile of the values, interpolated between the closest ranks
+     *
+     * @param p - the quantile, in [0, 1]
+     * @return - the quantile
+     */
+    private double quantile(double p) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (sorted == null) {
+            sorted = Arrays.copyOf(exact, (int) count);
+            Arrays.sort(sorted);
+        }
+        double rank = p * (count - 1);
+        int lo = (int) rank;
+        int hi = Math.min(lo + 1, (int) count - 1);
+        return sorted[lo] + (rank - lo) * (sorted[hi] - sorted[lo]);
+    }
+
+    /**
+     * P-squared estimate of one quantile (Jain and Chlamtac, 1985). Five markers
+     * track the minimum, the quantile, the maximum and the points halfway to the
+     * quantile, and are moved along a parabola as values arrive.
+     */
+    private static class Quantile {
+        // Desired positions of the markers, as fractions of the values
+        private final double[] at;
+
+        // Marker heights
+        private final double[] q = new double[5];
+
+        // Actual and desired marker positions
+        private final double[] n = new double[5];
+        private final double[] want = new double[5];
+
+        Quantile(double p) {
+            at = new double[] { 0, p / 2, p, (1 + p) / 2, 1 };
+        }
+
+        /**
+         * Places the markers on sorted values
+         *
+         * @param sorted - the first values, sorted
+         */
+        void init(double[] sorted) {
+            int last = sorted.length - 1;
+            for (int i = 0; i < 5; i++) {
+                want[i] = last * at[i];
+                n[i] = Math.round(want[i]);
+                q[i] = sorted[(int) n[i]];
+            }
+        }
+
+        void add(double x) {
+            // Cell of the new value, stretching the extremes if needed
+            int k;
+            if (x < q[0]) {
+                q[0] = x;
+                k = 0;
+            } else if (x >= q[4]) {
+                q[4] = x;
+                k = 3;
+            } else {
+                k = 0;
+                while (x >= q[k + 1]) {
+                    k++;
+                }
+            }
+            for (int i = k + 1; i < 5; i++) {
+                n[i]++;
+            }
+            for (int i = 0; i < 5; i++) {
+                want[i] += at[i];
+            }
+
+            // Move the middle markers that are off their desired position
+            for (int i = 1; i < 4; i++) {
+                double d = want[i] - n[i];
+                if ((d >= 1 && n[i + 1] - n[i] > 1) || (d <= -1 && n[i - 1] - n[i] < -1)) {
+                    int s = d > 0 ? 1 : -1;
+                    double h = q[i] + s / (n[i + 1] - n[i - 1])
+                            * ((n[i] - n[i - 1] + s) * (q[i + 1] - q[i]) / (n[i + 1] - n[i])
+                                    + (n[i + 1] - n[i] - s) * (q[i] - q[i - 1]) / (n[i] - n[i - 1]));
+                    if (q[i - 1] < h && h < q[i + 1]) {
+                        q[i] = h;
+                    } else {
+                        q[i] += s * (q[i + s] - q[i]) / (n[i + s] - n[i]);
+                    }
+                    n[i] += s;
+                }
+            }
+        }
+
+        double get() {
+            return q[2];
+        }
+    }
+}
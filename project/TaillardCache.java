@@ -0,0 +1,103 @@
+/*
+ * TaillardCache : Loads every Taillard input file once, in parallel, and keeps
+ *                 the processing times so all algorithms share one parsed
+ *                 copy of each instance, in the flat layout the makespan
+ *                 kernels read.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public final class TaillardCache {
+    // The instances, instances[instance - first]
+    private final Instance[] instances;
+
+    // Number of the first instance
+    private final int first;
+
+    /**
+     * Constructor, parses the input files first to last of the directory. When
+     * the instance.cache system property names a directory, the instances are
+     * kept there in the binary format and later runs load them from it.
+     *
+     * @param dir   - directory of the input files
+     * @param first - number of the first input file
+     * @param last  - number of the last input file
+     * @exception UncheckedIOException - if an input file can not be read
+     */
+    public TaillardCache(String dir, int first, int last) {
+        this.first = first;
+        this.instances = new Instance[last - first + 1];
+        String cache = System.getProperty("instance.cache");
+        Campaign.forEach(instances.length, i -> {
+            Path text = Paths.get(dir, (first + i) + ".txt");
+            instances[i] = cache == null ? parse(text) : parse(text, Paths.get(cache, (first + i) + ".bin"));
+        });
+    }
+
+    /**
+     * Returns the processing times of an instance. The array is shared by every
+     * caller and must not be modified.
+     *
+     * @param i - the number of the input file
+     * @return - flat job-major processing times, p[job * m + machine]
+     */
+    public int[] getTimes(int i) {
+        return instances[i - first].p;
+    }
+
+    /**
+     * @param i - the number of the input file
+     * @return - the number of machines of the instance
+     */
+    public int getMachines(int i) {
+        return instances[i - first].m;
+    }
+
+    /**
+     * @param i - the number of the input file
+     * @return - the number of jobs of the instance
+     */
+    public int getJobs(int i) {
+        return instances[i - first].n;
+    }
+
+    /**
+     * Parses one input file
+     *
+     * @param file - the input file, text or binary
+     * @return - the instance
+     * @exception UncheckedIOException - if the file can not be read
+     */
+    public static Instance parse(Path file) {
+        try {
+            return InstanceLoader.read(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses one input file through its binary cache file
+     *
+     * @param file  - the text input file
+     * @param cache - the binary cache file
+     * @return - the instance
+     * @exception UncheckedIOException - if a file can not be read or written
+     */
+    public static Instance parse(Path file, Path cache) {
+        try {
+            return InstanceLoader.read(file, cache);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
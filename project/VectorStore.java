@@ -0,0 +1,266 @@
+/*
+ * VectorStore : Off-heap storage for a fixed number of double vectors of the
+ *               same dimension, so large populations and result archives
+ *               neither fill the heap nor slow down garbage collection.
+ *               The vectors live in direct buffers, or in a memory-mapped
+ *               file so they can be larger than memory and be opened by
+ *               other processes.
+ *
+ *               File format, little-endian: the magic "FSPV", the format
+ *               version, the number of vectors and their dimension as ints,
+ *               then the vectors one after another as doubles.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class VectorStore implements AutoCloseable {
+    // "FSPV" read as a little-endian int
+    public static final int MAGIC = 0x56505346;
+
+    // Version of the file format
+    public static final int VERSION = 1;
+
+    // Bytes before the first vector in a file
+    private static final int HEADER = 16;
+
+    // Most bytes of one buffer, a buffer is indexed by int
+    private static final long CHUNK = 1L << 30;
+
+    // The number of vectors
+    private final int n;
+
+    // The dimension of the vectors
+    private final int m;
+
+    // Vectors held by each buffer
+    private final int rows;
+
+    // The buffers holding the vectors
+    private final ByteBuffer[] chunks;
+
+    // Whether the buffers are mapped from a file
+    private final boolean mapped;
+
+    /**
+     * Constructor
+     *
+     * @param n      - the number of vectors
+     * @param m      - the dimension of the vectors
+     * @param chunks - the buffers, each holding rows vectors
+     * @param mapped - whether the buffers are mapped from a file
+     */
+    private VectorStore(int n, int m, ByteBuffer[] chunks, boolean mapped) {
+        this.n = n;
+        this.m = m;
+        this.rows = rows(m);
+        this.chunks = chunks;
+        this.mapped = mapped;
+    }
+
+    /**
+     * Allocates a store in direct memory, the vectors start out as zeros
+     *
+     * @param n - the number of vectors
+     * @param m - the dimension of the vectors
+     * @return - the store
+     */
+    public static VectorStore allocate(int n, int m) {
+        int rows = rows(m);
+        ByteBuffer[] chunks = new ByteBuffer[count(n, rows)];
+        for (int c = 0; c < chunks.length; c++) {
+            int size = Math.min(rows, n - c * rows) * m * 8;
+            chunks[c] = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return new VectorStore(n, m, chunks, false);
+    }
+
+    /**
+     * Creates a store in a file, replacing the file if it exists. The vectors
+     * start out as zeros.
+     *
+     * @param file - the file
+     * @param n    - the number of vectors
+     * @param m    - the dimension of the vectors
+     * @return - the store
+     * @exception IOException - if the file can not be created
+     */
+    public static VectorStore create(Path file, int n, int m) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(m).flip();
+            ch.write(header, 0);
+            return map(ch, n, m);
+        }
+    }
+
+    /**
+     * Opens a store written by create, possibly by another process. Changes are
+     * seen by every process that has the file open.
+     *
+     * @param file - the file
+     * @return - the store
+     * @exception IOException - if the file can not be read or is not a store
+     */
+    public static VectorStore open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            ch.read(header, 0);
+            int n = header.getInt(8);
+            int m = header.getInt(12);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || n < 0 || m < 1
+                    || ch.size() < HEADER + 8L * n * m) {
+                throw new IOException(file + ": not a vector store");
+            }
+            return map(ch, n, m);
+        }
+    }
+
+    /**
+     * @return - the number of vectors
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * @return - the dimension of the vectors
+     */
+    public int dimensions() {
+        return m;
+    }
+
+    /**
+     * Returns one value of a vector
+     *
+     * @param i - index of the vector
+     * @param k - index of the value
+     * @return - the value
+     */
+    public double get(int i, int k) {
+        return chunks[i / rows].getDouble(((i % rows) * m + k) << 3);
+    }
+
+    /**
+     * Sets one value of a vector
+     *
+     * @param i     - index of the vector
+     * @param k     - index of the value
+     * @param value - the value
+     */
+    public void set(int i, int k, double value) {
+        chunks[i / rows].putDouble(((i % rows) * m + k) << 3, value);
+    }
+
+    /**
+     * Returns a copy of a vector
+     *
+     * @param i - index of the vector
+     * @return - the vector
+     */
+    public double[] get(int i) {
+        double[] vector = new double[m];
+        get(i, vector);
+        return vector;
+    }
+
+    /**
+     * Copies a vector into an array
+     *
+     * @param i   - index of the vector
+     * @param out - array of at least m values
+     */
+    public void get(int i, double[] out) {
+        ByteBuffer chunk = chunks[i / rows];
+        int at = ((i % rows) * m) << 3;
+        for (int k = 0; k < m; k++) {
+            out[k] = chunk.getDouble(at + (k << 3));
+        }
+    }
+
+    /**
+     * Sets a vector
+     *
+     * @param i      - index of the vector
+     * @param vector - the values, at least m of them
+     */
+    public void set(int i, double[] vector) {
+        ByteBuffer chunk = chunks[i / rows];
+        int at = ((i % rows) * m) << 3;
+        for (int k = 0; k < m; k++) {
+            chunk.putDouble(at + (k << 3), vector[k]);
+        }
+    }
+
+    /**
+     * Writes the vectors of a file-backed store to disk
+     */
+    public void force() {
+        if (mapped) {
+            for (ByteBuffer chunk : chunks) {
+                ((MappedByteBuffer) chunk).force();
+            }
+        }
+    }
+
+    /**
+     * Writes the vectors of a file-backed store to disk. The memory is released
+     * when the store is no longer referenced.
+     */
+    @Override
+    public void close() {
+        force();
+    }
+
+    /**
+     * Maps the vectors of a store file
+     *
+     * @param ch - the open file
+     * @param n  - the number of vectors
+     * @param m  - the dimension of the vectors
+     * @return - the store
+     * @exception IOException - if the file can not be mapped
+     */
+    private static VectorStore map(FileChannel ch, int n, int m) throws IOException {
+        int rows = rows(m);
+        ByteBuffer[] chunks = new ByteBuffer[count(n, rows)];
+        for (int c = 0; c < chunks.length; c++) {
+            long at = HEADER + 8L * c * rows * m;
+            long size = 8L * Math.min(rows, n - c * rows) * m;
+            chunks[c] = ch.map(FileChannel.MapMode.READ_WRITE, at, size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return new VectorStore(n, m, chunks, true);
+    }
+
+    /**
+     * @param m - the dimension of the vectors
+     * @return - the number of vectors that fit in one buffer
+     */
+    private static int rows(int m) {
+        if (m < 1 || 8L * m > CHUNK) {
+            throw new IllegalArgumentException("Vector dimension out of range: " + m);
+        }
+        return (int) (CHUNK / (8L * m));
+    }
+
+    /**
+     * @param n    - the number of vectors
+     * @param rows - vectors held by each buffer
+     * @return - the number of buffers
+     */
+    private static int count(int n, int rows) {
+        return (int) ((n + (long) rows - 1) / rows);
+    }
+}
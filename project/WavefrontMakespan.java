@@ -0,0 +1,254 @@
+/*
+ * WavefrontMakespan : Parallel Flow Shop Scheduling (FSS) makespan for very
+ *                     large instances. The machines x jobs grid is cut into
+ *                     tiles, a tile only depends on the tile above it and
+ *                     the tile to its left, so every tile starts as soon as
+ *                     those two are done and the anti-diagonals of tiles
+ *                     overlap instead of waiting for each other. Inside a
+ *                     tile, four jobs go down the machines side by side so
+ *                     their max-plus chains overlap in the processor.
+ * Author   : Ethan Krug
+ * Email    : ethan.c.krug@gmail.com
+ * Date     : October, 2026
+ *
+ * Copyright (C) 2026 Ethan Krug
+ */
+package project;
+
+import java.util.Arrays;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class WavefrontMakespan {
+    // Grids with fewer cells than this are evaluated by the serial kernel
+    public static final long THRESHOLD = 1L << 20;
+
+    // Tiles per worker along each side of the grid
+    private static final int TILES_PER_WORKER = 4;
+
+    // Smallest tiles, smaller ones cost more to schedule than to compute
+    private static final int MIN_TILE_M = 16;
+    private static final int MIN_TILE_N = 64;
+
+    // Flat job-major processing times, p[job * m + machine]
+    private final int[] p;
+
+    // The number of machines
+    private final int m;
+
+    // The number of jobs
+    private final int n;
+
+    // Machines and jobs per tile
+    private final int tileM;
+    private final int tileN;
+
+    // Number of tile rows and columns
+    private final int rows;
+    private final int cols;
+
+    // Pool the tiles run on
+    private final ForkJoinPool pool;
+
+    // Tiles above and to the left of each tile that are not done yet
+    private final AtomicIntegerArray waiting;
+
+    // Completion time of each job on the last machine handled so far in its column
+    private final int[] colEdge;
+
+    // Completion time on each machine of the last job handled so far in its row
+    private final int[] rowEdge;
+
+    // Serial fallback buffer
+    private final int[] row;
+
+    // The order being evaluated
+    private int[] order;
+
+    /**
+     * Constructor, sizes the tiles from the parallelism of the common pool
+     *
+     * @param p - flat job-major processing times
+     * @param m - the number of machines
+     * @param n - the number of jobs
+     */
+    public WavefrontMakespan(int[] p, int m, int n) {
+        this(p, m, n, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor, sizes the tiles so both sides of the grid have a few tiles
+     * per worker of the pool, every anti-diagonal past the first few then has
+     * a tile for every worker
+     *
+     * @param p    - flat job-major processing times
+     * @param m    - the number of machines
+     * @param n    - the number of jobs
+     * @param pool - the pool to run the tiles on
+     */
+    public WavefrontMakespan(int[] p, int m, int n, ForkJoinPool pool) {
+        this(p, m, n, tileSize(m, pool.getParallelism(), MIN_TILE_M), tileSize(n, pool.getParallelism(), MIN_TILE_N),
+                pool);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param p     - flat job-major processing times
+     * @param m     - the number of machines
+     * @param n     - the number of jobs
+     * @param tileM - machines per tile
+     * @param tileN - jobs per tile
+     * @param pool  - the pool to run the tiles on
+     */
+    public WavefrontMakespan(int[] p, int m, int n, int tileM, int tileN, ForkJoinPool pool) {
+        this.p = p;
+        this.m = m;
+        this.n = n;
+        this.tileM = Math.min(tileM, m);
+        this.tileN = Math.min(tileN, n);
+        this.rows = (m + this.tileM - 1) / this.tileM;
+        this.cols = (n + this.tileN - 1) / this.tileN;
+        this.pool = pool;
+        waiting = new AtomicIntegerArray(rows * cols);
+        colEdge = new int[n];
+        rowEdge = new int[m];
+        row = new int[m];
+    }
+
+    /**
+     * @param size     - the number of machines or jobs
+     * @param workers  - the parallelism of the pool
+     * @param smallest - the smallest tile side
+     * @return - the tile side giving TILES_PER_WORKER tiles per worker
+     */
+    private static int tileSize(int size, int workers, int smallest) {
+        int tiles = TILES_PER_WORKER * Math.max(1, workers);
+        return Math.max(smallest, (size + tiles - 1) / tiles);
+    }
+
+    /**
+     * @return - the number of tiles of the grid
+     */
+    public int getTiles() {
+        return rows * cols;
+    }
+
+    /**
+     * The FSS makespan of a complete job order. Grids below THRESHOLD use the
+     * serial kernel, a pool with a single worker computes the whole grid as
+     * one tile. An instance evaluates one order at a time.
+     *
+     * @param order - the job order
+     * @return the makespan value of the schedule
+     */
+    public int FSS(int[] order) {
+        if ((long) m * n < THRESHOLD) {
+            return Makespan.FSS(p, m, order, n, row);
+        }
+
+        this.order = order;
+        Arrays.fill(colEdge, 0);
+        Arrays.fill(rowEdge, 0);
+        if (pool.getParallelism() < 2 || rows * cols < 2) {
+            tile(0, m, 0, n);
+        } else {
+            // A tile waits for the tile above it and the tile to its left
+            for (int I = 0; I < rows; I++) {
+                for (int J = 0; J < cols; J++) {
+                    waiting.set(I * cols + J, (I > 0 ? 1 : 0) + (J > 0 ? 1 : 0));
+                }
+            }
+            pool.invoke(new Tile(null, 0, 0));
+        }
+
+        this.order = null;
+        return rowEdge[m - 1];
+    }
+
+    /**
+     * Computes the cells of machines i0 to i1 and jobs j0 to j1, reading and
+     * updating the edges shared with the cells below and to the right. Four
+     * jobs at a time go down the machines together, each one only waits for
+     * the job before it on the same machine, so the four chains overlap.
+     *
+     * @param i0 - first machine
+     * @param i1 - machine after the last
+     * @param j0 - first job position
+     * @param j1 - job position after the last
+     */
+    private void tile(int i0, int i1, int j0, int j1) {
+        int j = j0;
+        for (; j + 4 <= j1; j += 4) {
+            int a = order[j] * m;
+            int b = order[j + 1] * m;
+            int c = order[j + 2] * m;
+            int d = order[j + 3] * m;
+            int ca = colEdge[j];
+            int cb = colEdge[j + 1];
+            int cc = colEdge[j + 2];
+            int cd = colEdge[j + 3];
+            for (int i = i0; i < i1; i++) {
+                int left = rowEdge[i];
+                ca = (ca > left ? ca : left) + p[a + i];
+                cb = (cb > ca ? cb : ca) + p[b + i];
+                cc = (cc > cb ? cc : cb) + p[c + i];
+                cd = (cd > cc ? cd : cc) + p[d + i];
+                rowEdge[i] = cd;
+            }
+            colEdge[j] = ca;
+            colEdge[j + 1] = cb;
+            colEdge[j + 2] = cc;
+            colEdge[j + 3] = cd;
+        }
+
+        for (; j < j1; j++) {
+            int base = order[j] * m;
+            int c = colEdge[j];
+            for (int i = i0; i < i1; i++) {
+                int left = rowEdge[i];
+                c = (c > left ? c : left) + p[base + i];
+                rowEdge[i] = c;
+            }
+            colEdge[j] = c;
+        }
+    }
+
+    /**
+     * One tile of the grid. When it is done, it starts the tiles below it and
+     * to its right that are no longer waiting for anything, and completes once
+     * the tiles it started complete, so the first tile completes last.
+     */
+    private class Tile extends CountedCompleter<Void> {
+        private static final long serialVersionUID = 1L;
+
+        // Tile row and column
+        private final int I;
+        private final int J;
+
+        Tile(Tile parent, int I, int J) {
+            super(parent);
+            this.I = I;
+            this.J = J;
+        }
+
+        @Override
+        public void compute() {
+            int i0 = I * tileM;
+            int j0 = J * tileN;
+            tile(i0, Math.min(m, i0 + tileM), j0, Math.min(n, j0 + tileN));
+
+            // Each tile is started by whichever of its two predecessors finishes last
+            if (J + 1 < cols && waiting.decrementAndGet(I * cols + J + 1) == 0) {
+                addToPendingCount(1);
+                new Tile(this, I, J + 1).fork();
+            }
+            if (I + 1 < rows && waiting.decrementAndGet((I + 1) * cols + J) == 0) {
+                addToPendingCount(1);
+                new Tile(this, I + 1, J).fork();
+            }
+            tryComplete();
+        }
+    }
+}